@@ -0,0 +1,279 @@
+package com.underscore.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.underscore.chain.DirectLongArray;
+import com.underscore.chain.impl.BooleanChainImpl;
+import com.underscore.chain.impl.ByteChainImpl;
+import com.underscore.chain.impl.CharChainImpl;
+import com.underscore.chain.impl.DoubleArrayChainImpl;
+import com.underscore.chain.impl.DoubleChainImpl;
+import com.underscore.chain.impl.FloatChainImpl;
+import com.underscore.chain.impl.IntArrayChainImpl;
+import com.underscore.chain.impl.IntChainImpl;
+import com.underscore.chain.impl.LongArrayChainImpl;
+import com.underscore.chain.impl.LongChainImpl;
+import com.underscore.chain.impl.OffHeapLongChainImpl;
+import com.underscore.chain.impl.ShortChainImpl;
+
+/**
+ * A filter-then-sum pipeline on every array chain implementation, and a
+ * filter/map/filter/sum pipeline on the primitive and lazy ones, next to the
+ * equivalent primitive stream. The aggregates run on the Vector API kernels
+ * when the fork is started with {@code --add-modules jdk.incubator.vector}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayChainBenchmark {
+
+	@Param({ "100", "10000", "1000000" })
+	public int size;
+
+	private int[] ints;
+
+	private long[] longs;
+
+	private double[] doubles;
+
+	private float[] floats;
+
+	private short[] shorts;
+
+	private byte[] bytes;
+
+	private char[] chars;
+
+	private boolean[] booleans;
+
+	private DirectLongArray direct;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(42);
+		ints = new int[size];
+		longs = new long[size];
+		doubles = new double[size];
+		floats = new float[size];
+		shorts = new short[size];
+		bytes = new byte[size];
+		chars = new char[size];
+		booleans = new boolean[size];
+		for (int i = 0; i < size; ++i) {
+			final int value = random.nextInt(1000);
+			ints[i] = value;
+			longs[i] = value;
+			doubles[i] = value;
+			floats[i] = value;
+			shorts[i] = (short) value;
+			bytes[i] = (byte) value;
+			chars[i] = (char) value;
+			booleans[i] = (value & 1) == 0;
+		}
+		direct = DirectLongArray.of(longs);
+	}
+
+	/*
+	 * filter -> sum
+	 */
+
+	@Benchmark
+	public Integer intChain() {
+		return new IntChainImpl(ints).filter((value) -> (value & 1) == 0).sum();
+	}
+
+	@Benchmark
+	public long intArrayChain() {
+		return new IntArrayChainImpl(ints).filter((value) -> (value & 1) == 0).sum();
+	}
+
+	@Benchmark
+	public long intArrayChainLazy() {
+		return new IntArrayChainImpl(ints).lazy().filter((value) -> (value & 1) == 0).sum();
+	}
+
+	@Benchmark
+	public long intStream() {
+		return IntStream.of(ints).filter((value) -> (value & 1) == 0).asLongStream().sum();
+	}
+
+	@Benchmark
+	public Long longChain() {
+		return new LongChainImpl(longs).filter((value) -> (value & 1) == 0).sum();
+	}
+
+	@Benchmark
+	public long longArrayChain() {
+		return new LongArrayChainImpl(longs).filter((value) -> (value & 1) == 0).sum();
+	}
+
+	@Benchmark
+	public long offHeapLongChain() {
+		// Only sums: filter would compact the shared off-heap array in place.
+		return new OffHeapLongChainImpl(direct).reduce((value, memo) -> (value & 1) == 0 ? memo + value : memo, 0);
+	}
+
+	@Benchmark
+	public long longStream() {
+		return LongStream.of(longs).filter((value) -> (value & 1) == 0).sum();
+	}
+
+	@Benchmark
+	public Double doubleChain() {
+		return new DoubleChainImpl(doubles).filter((value) -> value < 500).sum();
+	}
+
+	@Benchmark
+	public double doubleArrayChain() {
+		return new DoubleArrayChainImpl(doubles).filter((value) -> value < 500).sum();
+	}
+
+	@Benchmark
+	public double doubleStream() {
+		return DoubleStream.of(doubles).filter((value) -> value < 500).sum();
+	}
+
+	@Benchmark
+	public Float floatChain() {
+		return new FloatChainImpl(floats).filter((value) -> value < 500).sum();
+	}
+
+	@Benchmark
+	public double floatStream() {
+		return IntStream.range(0, floats.length).mapToDouble((i) -> floats[i]).filter((value) -> value < 500).sum();
+	}
+
+	@Benchmark
+	public Short shortChain() {
+		return new ShortChainImpl(shorts).filter((value) -> (value & 1) == 0).sum();
+	}
+
+	@Benchmark
+	public Byte byteChain() {
+		return new ByteChainImpl(bytes).filter((value) -> (value & 1) == 0).sum();
+	}
+
+	@Benchmark
+	public Character charChain() {
+		return new CharChainImpl(chars).filter((value) -> (value & 1) == 0).sum();
+	}
+
+	@Benchmark
+	public long booleanChain() {
+		return new BooleanChainImpl(booleans).filter((value) -> value).count();
+	}
+
+	/*
+	 * filter -> map -> filter -> sum
+	 */
+
+	@Benchmark
+	public Integer intChainLazyPipeline() {
+		return new IntChainImpl(ints).lazy()
+				.filter((value) -> (value & 1) == 0)
+				.map((value) -> value * 3)
+				.filter((value) -> value > 300)
+				.sum();
+	}
+
+	@Benchmark
+	public long intArrayChainPipeline() {
+		return new IntArrayChainImpl(ints)
+				.filter((value) -> (value & 1) == 0)
+				.map((value) -> value * 3)
+				.filter((value) -> value > 300)
+				.sum();
+	}
+
+	@Benchmark
+	public long intArrayChainLazyPipeline() {
+		return new IntArrayChainImpl(ints).lazy()
+				.filter((value) -> (value & 1) == 0)
+				.map((value) -> value * 3)
+				.filter((value) -> value > 300)
+				.sum();
+	}
+
+	@Benchmark
+	public long intStreamPipeline() {
+		return IntStream.of(ints)
+				.filter((value) -> (value & 1) == 0)
+				.map((value) -> value * 3)
+				.filter((value) -> value > 300)
+				.asLongStream()
+				.sum();
+	}
+
+	/*
+	 * aggregates
+	 */
+
+	@Benchmark
+	public long intArrayChainSum() {
+		return new IntArrayChainImpl(ints).sum();
+	}
+
+	@Benchmark
+	public long intStreamSum() {
+		return IntStream.of(ints).asLongStream().sum();
+	}
+
+	@Benchmark
+	public int intArrayChainMax() {
+		return new IntArrayChainImpl(ints).max().getAsInt();
+	}
+
+	@Benchmark
+	public int intStreamMax() {
+		return IntStream.of(ints).max().getAsInt();
+	}
+
+	@Benchmark
+	public long intArrayChainCountBetween() {
+		return new IntArrayChainImpl(ints).countBetween(250, 750);
+	}
+
+	@Benchmark
+	public long intStreamCountBetween() {
+		return IntStream.of(ints).filter((value) -> value >= 250 && value < 750).count();
+	}
+
+	@Benchmark
+	public long longArrayChainSum() {
+		return new LongArrayChainImpl(longs).sum();
+	}
+
+	@Benchmark
+	public double doubleArrayChainSum() {
+		return new DoubleArrayChainImpl(doubles).sum();
+	}
+
+	@Benchmark
+	public double doubleStreamSum() {
+		return DoubleStream.of(doubles).sum();
+	}
+
+	@Benchmark
+	public double doubleArrayChainDot() {
+		return new DoubleArrayChainImpl(doubles).dot(doubles);
+	}
+}
@@ -0,0 +1,115 @@
+package com.underscore.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.underscore.chain.impl.CollectionChainImpl;
+import com.underscore.chain.impl.LazyCollectionChainImpl;
+import com.underscore.chain.impl.ParallelCollectionChainImpl;
+
+/**
+ * A filter/map/reduce pipeline and a filter/map/find query on the eager, lazy
+ * and parallel collection chains, next to the equivalent (parallel) stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionChainBenchmark {
+
+	@Param({ "100", "10000", "1000000" })
+	public int size;
+
+	private List<Integer> list;
+
+	private int target;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(42);
+		list = new ArrayList<>(size);
+		for (int i = 0; i < size; ++i) {
+			list.add(random.nextInt(size));
+		}
+		target = list.get(size / 10) * 3;
+	}
+
+	@Benchmark
+	public Long collectionChain() {
+		return new CollectionChainImpl<>(list)
+				.filter((value) -> (value & 1) == 0)
+				.map((value) -> (long) value * 3)
+				.reduce((value, memo) -> value + memo, 0L);
+	}
+
+	@Benchmark
+	public Long lazyCollectionChain() {
+		return new LazyCollectionChainImpl<>(list)
+				.filter((value) -> (value & 1) == 0)
+				.map((value) -> (long) value * 3)
+				.reduce((value, memo) -> value + memo, 0L);
+	}
+
+	@Benchmark
+	public Long parallelCollectionChain() {
+		return new ParallelCollectionChainImpl<>(list)
+				.filter((value) -> (value & 1) == 0)
+				.map((value) -> (long) value * 3)
+				.reduce((value, memo) -> value + memo, 0L);
+	}
+
+	@Benchmark
+	public Long stream() {
+		return list.stream()
+				.filter((value) -> (value & 1) == 0)
+				.map((value) -> (long) value * 3)
+				.reduce(0L, Long::sum);
+	}
+
+	@Benchmark
+	public Long parallelStream() {
+		return list.parallelStream()
+				.filter((value) -> (value & 1) == 0)
+				.map((value) -> (long) value * 3)
+				.reduce(0L, Long::sum);
+	}
+
+	@Benchmark
+	public Integer collectionChainFind() {
+		return new CollectionChainImpl<>(list)
+				.map((value) -> value * 3)
+				.find((value) -> value == target);
+	}
+
+	@Benchmark
+	public Integer lazyCollectionChainFind() {
+		return new LazyCollectionChainImpl<>(list)
+				.map((value) -> value * 3)
+				.find((value) -> value == target);
+	}
+
+	@Benchmark
+	public Integer streamFindFirst() {
+		return list.stream()
+				.map((value) -> value * 3)
+				.filter((value) -> value == target)
+				.findFirst()
+				.orElse(null);
+	}
+}
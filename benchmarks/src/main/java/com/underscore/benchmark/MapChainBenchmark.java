@@ -0,0 +1,169 @@
+package com.underscore.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.underscore.chain.LongLongMap;
+import com.underscore.chain.impl.LongLongMapChainImpl;
+import com.underscore.chain.impl.MapChainImpl;
+
+/**
+ * The {@link MapChainImpl} operations, next to the equivalent code over the
+ * entry set stream and, for the long-keyed ones, {@link LongLongMapChainImpl}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapChainBenchmark {
+
+	@Param({ "100", "10000", "1000000" })
+	public int size;
+
+	private Map<Integer, Integer> map;
+
+	private Integer[] keys;
+
+	private LongLongMap longMap;
+
+	private long[] longKeys;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(42);
+		map = new HashMap<>(size * 2);
+		longMap = new LongLongMap(size);
+		for (int i = 0; i < size; ++i) {
+			final int value = random.nextInt();
+			map.put(i, value);
+			longMap.put(i, value);
+		}
+
+		keys = new Integer[64];
+		longKeys = new long[keys.length];
+		for (int i = 0; i < keys.length; ++i) {
+			keys[i] = random.nextInt(size);
+			longKeys[i] = keys[i];
+		}
+	}
+
+	@Benchmark
+	public void each(final Blackhole blackhole) {
+		new MapChainImpl<>(map).each((key, value) -> blackhole.consume(value));
+	}
+
+	@Benchmark
+	public void longLongMapEach(final Blackhole blackhole) {
+		new LongLongMapChainImpl(longMap).each((key, value) -> blackhole.consume(value));
+	}
+
+	@Benchmark
+	public void streamForEach(final Blackhole blackhole) {
+		map.entrySet().stream().forEach((entry) -> blackhole.consume(entry.getValue()));
+	}
+
+	@Benchmark
+	public long keys() {
+		return new MapChainImpl<>(map).keys().count();
+	}
+
+	@Benchmark
+	public long values() {
+		return new MapChainImpl<>(map).values().filter((value) -> value > 0).count();
+	}
+
+	@Benchmark
+	public long longLongMapValues() {
+		return new LongLongMapChainImpl(longMap).values().filter((value) -> value > 0).count();
+	}
+
+	@Benchmark
+	public long streamValues() {
+		return map.values().stream().filter((value) -> value > 0).count();
+	}
+
+	@Benchmark
+	public Object map() {
+		return new MapChainImpl<>(map).map((key, value) -> key ^ value).value();
+	}
+
+	@Benchmark
+	public List<Integer> streamMap() {
+		return map.entrySet().stream().map((entry) -> entry.getKey() ^ entry.getValue()).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> pick() {
+		return new MapChainImpl<>(map).pick(keys).value();
+	}
+
+	@Benchmark
+	public LongLongMap longLongMapPick() {
+		return new LongLongMapChainImpl(longMap).pick(longKeys).value();
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> streamPick() {
+		return Arrays.stream(keys).distinct().filter(map::containsKey).collect(Collectors.toMap((key) -> key, map::get));
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> omit() {
+		return new MapChainImpl<>(map).omit(keys).value();
+	}
+
+	@Benchmark
+	public LongLongMap longLongMapOmit() {
+		return new LongLongMapChainImpl(longMap).omit(longKeys).value();
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> streamOmit() {
+		final Set<Integer> excluded = new HashSet<>(Arrays.asList(keys));
+		return map.entrySet().stream()
+				.filter((entry) -> !excluded.contains(entry.getKey()))
+				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+	}
+
+	@Benchmark
+	public String join() {
+		return new MapChainImpl<>(map).join(",");
+	}
+
+	@Benchmark
+	public String streamJoining() {
+		return map.entrySet().stream().map(String::valueOf).collect(Collectors.joining(","));
+	}
+
+	@Benchmark
+	public Object toList() {
+		return new MapChainImpl<>(map).toList((key, value) -> key + value).value();
+	}
+
+	@Benchmark
+	public List<Integer> streamToList() {
+		return map.entrySet().stream().map((entry) -> entry.getKey() + entry.getValue()).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,455 @@
+package com.underscore.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.underscore.AttributeIndex;
+import com.underscore.CacheSpec;
+import com.underscore.MemoizedFunction;
+import com.underscore._;
+import com.underscore.chain.ObjectIntMap;
+
+/**
+ * The collection, array and string functions of {@link _}, each next to the
+ * equivalent {@code java.util.stream} code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnderscoreBenchmark {
+
+	@Param({ "100", "10000", "1000000" })
+	public int size;
+
+	private List<Integer> list;
+
+	private Integer[] array;
+
+	private Integer[] rest;
+
+	private int[] sorted;
+
+	private int[] blocked;
+
+	private List<Map<String, Object>> records;
+
+	private AttributeIndex<String, Object, Map<String, Object>> recordIndex;
+
+	private Map<String, Object> query;
+
+	private String html;
+
+	private String escaped;
+
+	private String plain;
+
+	private MemoizedFunction<Integer, Integer> memoized;
+
+	private Runnable throttled;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(42);
+		list = new ArrayList<>(size);
+		for (int i = 0; i < size; ++i) {
+			list.add(random.nextInt(size));
+		}
+		array = list.toArray(new Integer[size]);
+		sorted = new int[size];
+		for (int i = 0; i < size; ++i) {
+			sorted[i] = array[i];
+		}
+		Arrays.sort(sorted);
+		records = new ArrayList<>(size);
+		for (int i = 0; i < size; ++i) {
+			final Map<String, Object> record = new HashMap<>();
+			record.put("id", i);
+			record.put("region", "region-" + random.nextInt(16));
+			record.put("status", (random.nextInt(4) == 0) ? "blocked" : "active");
+			records.add(record);
+		}
+		recordIndex = _.index(records, "region");
+		query = new HashMap<>();
+		query.put("region", "region-3");
+		query.put("status", "blocked");
+
+		blocked = new int[Math.max(1, size / 20)];
+		for (int i = 0; i < blocked.length; ++i) {
+			blocked[i] = random.nextInt(size);
+		}
+
+		rest = new Integer[64];
+		for (int i = 0; i < rest.length; ++i) {
+			rest[i] = random.nextInt(size);
+		}
+
+		final String[] words = { "plain text ", "<b>bold</b> ", "Tom & Jerry ", "\"quoted\" ", "it's " };
+		final StringBuilder builder = new StringBuilder(size * 8);
+		for (int i = 0; i < size; ++i) {
+			builder.append(words[i % words.length]);
+		}
+		html = builder.toString();
+		escaped = _.escape(html);
+		throttled = _.throttle(() -> { }, 1, TimeUnit.MILLISECONDS);
+		memoized = _.memoize((value) -> value * 31, (value) -> value, CacheSpec.maximumSize(Math.max(1, size / 2)));
+		plain = html.replaceAll("[&<>\"']", " ");
+	}
+
+	@Benchmark
+	public void each(final Blackhole blackhole) {
+		_.each(list, blackhole::consume);
+	}
+
+	@Benchmark
+	public void streamForEach(final Blackhole blackhole) {
+		list.stream().forEach(blackhole::consume);
+	}
+
+	@Benchmark
+	public Collection<Integer> map() {
+		return _.map(list, (value) -> value * 2);
+	}
+
+	@Benchmark
+	public List<Integer> streamMap() {
+		return list.stream().map((value) -> value * 2).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public Collection<Integer> filter() {
+		return _.filter(list, (value) -> (value & 1) == 0);
+	}
+
+	@Benchmark
+	public List<Integer> streamFilter() {
+		return list.stream().filter((value) -> (value & 1) == 0).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public Integer[] filterArray() {
+		return _.filter(array, (value) -> (value & 1) == 0);
+	}
+
+	@Benchmark
+	public Integer[] streamFilterArray() {
+		return Arrays.stream(array).filter((value) -> (value & 1) == 0).toArray(Integer[]::new);
+	}
+
+	@Benchmark
+	public Integer reduce() {
+		return _.reduce(list, (value, memo) -> value + memo, 0);
+	}
+
+	@Benchmark
+	public Integer streamReduce() {
+		return list.stream().reduce(0, (memo, value) -> memo + value);
+	}
+
+	@Benchmark
+	public Collection<Integer> unique() {
+		return _.unique(list);
+	}
+
+	@Benchmark
+	public List<Integer> streamDistinct() {
+		return list.stream().distinct().collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public Collection<Integer> difference() {
+		return _.difference(list, rest);
+	}
+
+	@Benchmark
+	public List<Integer> streamDifference() {
+		final Set<Integer> excluded = new HashSet<>(Arrays.asList(rest));
+		return list.stream().filter((value) -> !excluded.contains(value)).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public int[] differencePrimitive() {
+		return _.difference(sorted, blocked);
+	}
+
+	@Benchmark
+	public List<Integer> intersection() {
+		return _.intersection(list, Arrays.asList(rest));
+	}
+
+	@Benchmark
+	public List<Integer> union() {
+		return _.union(list, Arrays.asList(rest));
+	}
+
+	@Benchmark
+	public Integer[] sort() {
+		final Integer[] copy = array.clone();
+		_.sort(copy);
+		return copy;
+	}
+
+	@Benchmark
+	public Integer[] streamSorted() {
+		return Arrays.stream(array.clone()).sorted().toArray(Integer[]::new);
+	}
+
+	@Benchmark
+	public List<Integer> sortBy() {
+		return _.sortBy(list, (value) -> Integer.toString(value));
+	}
+
+	@Benchmark
+	public List<Integer> sortComparing() {
+		final List<Integer> copy = new ArrayList<>(list);
+		_.sort(copy, Comparator.comparing((value) -> Integer.toString(value)));
+		return copy;
+	}
+
+	@Benchmark
+	public List<Integer> sortByInt() {
+		return _.sortByInt(list, (value) -> value % 1000);
+	}
+
+	@Benchmark
+	public List<Integer> sortComparingInt() {
+		final List<Integer> copy = new ArrayList<>(list);
+		_.sort(copy, Comparator.comparingInt((value) -> value % 1000));
+		return copy;
+	}
+
+	@Benchmark
+	public int sortedIndexOf() {
+		return _.indexOf(sorted, ThreadLocalRandom.current().nextInt(size), true);
+	}
+
+	@Benchmark
+	public int linearIndexOf() {
+		return _.indexOf(sorted, ThreadLocalRandom.current().nextInt(size), false);
+	}
+
+	@Benchmark
+	public int arraysBinarySearch() {
+		return Arrays.binarySearch(sorted, ThreadLocalRandom.current().nextInt(size));
+	}
+
+	@Benchmark
+	public int[] sortedInsert() {
+		return _.sortedInsert(sorted, 3, 1, 4, 1, 5, 9, 2, 6);
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> where() {
+		return _.where(records, query);
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> indexedWhere() {
+		return recordIndex.where(query);
+	}
+
+	@Benchmark
+	public List<String> times() {
+		return _.times(size, Integer::toString);
+	}
+
+	@Benchmark
+	public List<String> parallelTimes() {
+		return _.parallelTimes(size, Integer::toString);
+	}
+
+	@Benchmark
+	public int[] shuffle() {
+		_.shuffle(blocked);
+		return blocked;
+	}
+
+	@Benchmark
+	public List<Integer> sample() {
+		return _.sample(list, 10);
+	}
+
+	@Benchmark
+	public List<Integer> shuffleSample() {
+		final List<Integer> copy = new ArrayList<>(list);
+		Collections.shuffle(copy);
+		return copy.subList(0, 10);
+	}
+
+	@Benchmark
+	public ObjectIntMap<Integer> countBy() {
+		return _.countBy(list, (value) -> value % 1000);
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> hashMapCount() {
+		final Map<Integer, Integer> counts = new HashMap<>();
+		for (Integer value : list) {
+			final Integer key = value % 1000;
+			if (!counts.containsKey(key)) {
+				counts.put(key, 1);
+			} else {
+				counts.put(key, counts.get(key) + 1);
+			}
+		}
+		return counts;
+	}
+
+	@Benchmark
+	public Map<Integer, Long> streamCounting() {
+		return list.stream().collect(Collectors.groupingBy((value) -> value % 1000, Collectors.counting()));
+	}
+
+	@Benchmark
+	public Map<Integer, List<Integer>> groupBy() {
+		return _.groupBy(list, (value) -> value % 1000);
+	}
+
+	@Benchmark
+	public Map<Integer, List<Integer>> streamGroupingBy() {
+		return list.stream().collect(Collectors.groupingBy((value) -> value % 1000));
+	}
+
+	@Benchmark
+	public String join() {
+		return _.join(list, ",");
+	}
+
+	@Benchmark
+	public StringBuilder joinAppendable() throws IOException {
+		return _.join(list, ",", new StringBuilder());
+	}
+
+	@Benchmark
+	public WritableByteChannel joinChannel(final Blackhole blackhole) throws IOException {
+		return _.join(list, ",", new WritableByteChannel() {
+			@Override
+			public int write(final ByteBuffer src) {
+				final int length = src.remaining();
+				blackhole.consume(src);
+				src.position(src.limit());
+				return length;
+			}
+
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+
+			@Override
+			public void close() { }
+		});
+	}
+
+	@Benchmark
+	public StringBuilder parallelJoin() throws IOException {
+		return _.parallelJoin(array, ",", new StringBuilder());
+	}
+
+	@Benchmark
+	public String streamJoining() {
+		return list.stream().map(String::valueOf).collect(Collectors.joining(","));
+	}
+
+	@Benchmark
+	public String escape() {
+		return _.escape(html);
+	}
+
+	@Benchmark
+	public String escapeNothing() {
+		return _.escape(plain);
+	}
+
+	@Benchmark
+	public StringWriter escapeReader() throws IOException {
+		return _.escape(new StringReader(html), new StringWriter(html.length() + html.length() / 4));
+	}
+
+	@Benchmark
+	public String unescape() {
+		return _.unescape(escaped);
+	}
+
+	@Benchmark
+	public StringWriter unescapeReader() throws IOException {
+		return _.unescape(new StringReader(escaped), new StringWriter(html.length()));
+	}
+
+	@Benchmark
+	@Threads(8)
+	public String uniqueId() {
+		return _.uniqueId("id_");
+	}
+
+	@Benchmark
+	@Threads(8)
+	public StringBuilder uniqueIdAppend(final IdBuffer buffer) {
+		buffer.builder.setLength(0);
+		return _.uniqueId("id_", buffer.builder);
+	}
+
+	@State(Scope.Thread)
+	public static class IdBuffer {
+		final StringBuilder builder = new StringBuilder(32);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Integer memoize() {
+		return memoized.apply(ThreadLocalRandom.current().nextInt(size));
+	}
+
+	@Benchmark
+	@Threads(8)
+	public void throttle() {
+		throttled.run();
+	}
+
+	@Benchmark
+	public String streamEscape() {
+		return html.chars().mapToObj((c) -> {
+			switch (c) {
+			case '&': return "&amp;";
+			case '<': return "&lt;";
+			case '>': return "&gt;";
+			case '"': return "&quot;";
+			case '\'': return "&#x27;";
+			default: return String.valueOf((char) c);
+			}
+		}).collect(Collectors.joining());
+	}
+}
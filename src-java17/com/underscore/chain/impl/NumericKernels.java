@@ -0,0 +1,119 @@
+package com.underscore.chain.impl;
+
+/**
+ * The aggregate kernels used by the primitive array chains. Runs the
+ * {@link VectorKernels} when the {@code jdk.incubator.vector} module is in
+ * the boot layer (start the JVM with
+ * {@code --add-modules jdk.incubator.vector}) and the
+ * {@code underscore.vector} system property is not {@code false}, unless the
+ * preferred vector shape holds only one {@code long}, and the
+ * {@link ScalarKernels} otherwise.
+ */
+final class NumericKernels {
+
+	private static final boolean VECTOR = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+			&& !"false".equals(System.getProperty("underscore.vector")) && vectorSupported();
+
+	private NumericKernels() { }
+
+	/*
+	 * Whether the VectorKernels can run on the preferred vector shape, which
+	 * they cannot when it holds a single long; a failure to load them at all
+	 * also falls back to the ScalarKernels.
+	 */
+	private static boolean vectorSupported() {
+		try {
+			return VectorKernels.supported();
+		} catch (final LinkageError e) {
+			return false;
+		}
+	}
+
+	/*
+	 * int
+	 */
+
+	static long sum(final int[] array, final int length) {
+		return VECTOR ? VectorKernels.sum(array, length) : ScalarKernels.sum(array, length);
+	}
+
+	static int min(final int[] array, final int length) {
+		return VECTOR ? VectorKernels.min(array, length) : ScalarKernels.min(array, length);
+	}
+
+	static int max(final int[] array, final int length) {
+		return VECTOR ? VectorKernels.max(array, length) : ScalarKernels.max(array, length);
+	}
+
+	static long countBetween(final int[] array, final int length, final int min, final int max) {
+		return VECTOR ? VectorKernels.countBetween(array, length, min, max) : ScalarKernels.countBetween(array, length, min, max);
+	}
+
+	static long dot(final int[] a, final int[] b, final int length) {
+		return VECTOR ? VectorKernels.dot(a, b, length) : ScalarKernels.dot(a, b, length);
+	}
+
+	/*
+	 * long
+	 */
+
+	static long sum(final long[] array, final int length) {
+		return VECTOR ? VectorKernels.sum(array, length) : ScalarKernels.sum(array, length);
+	}
+
+	static long min(final long[] array, final int length) {
+		return VECTOR ? VectorKernels.min(array, length) : ScalarKernels.min(array, length);
+	}
+
+	static long max(final long[] array, final int length) {
+		return VECTOR ? VectorKernels.max(array, length) : ScalarKernels.max(array, length);
+	}
+
+	static long countBetween(final long[] array, final int length, final long min, final long max) {
+		return VECTOR ? VectorKernels.countBetween(array, length, min, max) : ScalarKernels.countBetween(array, length, min, max);
+	}
+
+	static long dot(final long[] a, final long[] b, final int length) {
+		return VECTOR ? VectorKernels.dot(a, b, length) : ScalarKernels.dot(a, b, length);
+	}
+
+	/*
+	 * float
+	 */
+
+	static float sum(final float[] array, final int length) {
+		return VECTOR ? VectorKernels.sum(array, length) : ScalarKernels.sum(array, length);
+	}
+
+	static float min(final float[] array, final int length) {
+		return VECTOR ? VectorKernels.min(array, length) : ScalarKernels.min(array, length);
+	}
+
+	static float max(final float[] array, final int length) {
+		return VECTOR ? VectorKernels.max(array, length) : ScalarKernels.max(array, length);
+	}
+
+	/*
+	 * double
+	 */
+
+	static double sum(final double[] array, final int length) {
+		return VECTOR ? VectorKernels.sum(array, length) : ScalarKernels.sum(array, length);
+	}
+
+	static double min(final double[] array, final int length) {
+		return VECTOR ? VectorKernels.min(array, length) : ScalarKernels.min(array, length);
+	}
+
+	static double max(final double[] array, final int length) {
+		return VECTOR ? VectorKernels.max(array, length) : ScalarKernels.max(array, length);
+	}
+
+	static long countBetween(final double[] array, final int length, final double min, final double max) {
+		return VECTOR ? VectorKernels.countBetween(array, length, min, max) : ScalarKernels.countBetween(array, length, min, max);
+	}
+
+	static double dot(final double[] a, final double[] b, final int length) {
+		return VECTOR ? VectorKernels.dot(a, b, length) : ScalarKernels.dot(a, b, length);
+	}
+}
@@ -0,0 +1,304 @@
+package com.underscore.chain.impl;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link ScalarKernels} on the Vector API. Only loaded by
+ * {@link NumericKernels} once it has checked that the
+ * {@code jdk.incubator.vector} module is present. Float and double sums are
+ * added up lane by lane, so they may differ from the sequential sum in the
+ * last bits.
+ */
+final class VectorKernels {
+
+	private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+	private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+	private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+
+	/*
+	 * Half-width int vectors, which widen to exactly one long vector so that
+	 * int sums and products can be accumulated without overflowing; null when
+	 * the preferred long vector has a single lane, since there is no vector
+	 * shape half its size.
+	 */
+	private static final VectorSpecies<Integer> HALF_INTS = (LONGS.length() < 2) ? null
+			: VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+	private VectorKernels() { }
+
+	/*
+	 * Whether these kernels can run here; if not, NumericKernels keeps to the
+	 * ScalarKernels.
+	 */
+	static boolean supported() {
+		return HALF_INTS != null;
+	}
+
+	private static LongVector widen(final int[] array, final int offset) {
+		return (LongVector) IntVector.fromArray(HALF_INTS, array, offset)
+				.convertShape(VectorOperators.I2L, LONGS, 0);
+	}
+
+	/*
+	 * int
+	 */
+
+	static long sum(final int[] array, final int length) {
+		LongVector sum = LongVector.zero(LONGS);
+		int i = 0;
+		for (final int bound = HALF_INTS.loopBound(length); i < bound; i += HALF_INTS.length()) {
+			sum = sum.add(widen(array, i));
+		}
+		long result = sum.reduceLanes(VectorOperators.ADD);
+		for (; i < length; ++i) {
+			result += array[i];
+		}
+		return result;
+	}
+
+	static int min(final int[] array, final int length) {
+		IntVector min = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+		int i = 0;
+		for (final int bound = INTS.loopBound(length); i < bound; i += INTS.length()) {
+			min = min.min(IntVector.fromArray(INTS, array, i));
+		}
+		int result = min.reduceLanes(VectorOperators.MIN);
+		for (; i < length; ++i) {
+			result = Math.min(result, array[i]);
+		}
+		return result;
+	}
+
+	static int max(final int[] array, final int length) {
+		IntVector max = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+		int i = 0;
+		for (final int bound = INTS.loopBound(length); i < bound; i += INTS.length()) {
+			max = max.max(IntVector.fromArray(INTS, array, i));
+		}
+		int result = max.reduceLanes(VectorOperators.MAX);
+		for (; i < length; ++i) {
+			result = Math.max(result, array[i]);
+		}
+		return result;
+	}
+
+	static long countBetween(final int[] array, final int length, final int min, final int max) {
+		long count = 0;
+		int i = 0;
+		for (final int bound = INTS.loopBound(length); i < bound; i += INTS.length()) {
+			final IntVector values = IntVector.fromArray(INTS, array, i);
+			count += values.compare(VectorOperators.GE, min).and(values.compare(VectorOperators.LT, max)).trueCount();
+		}
+		for (; i < length; ++i) {
+			final int value = array[i];
+			count += (value >= min & value < max) ? 1 : 0;
+		}
+		return count;
+	}
+
+	static long dot(final int[] a, final int[] b, final int length) {
+		LongVector sum = LongVector.zero(LONGS);
+		int i = 0;
+		for (final int bound = HALF_INTS.loopBound(length); i < bound; i += HALF_INTS.length()) {
+			sum = sum.add(widen(a, i).mul(widen(b, i)));
+		}
+		long result = sum.reduceLanes(VectorOperators.ADD);
+		for (; i < length; ++i) {
+			result += (long) a[i] * b[i];
+		}
+		return result;
+	}
+
+	/*
+	 * long
+	 */
+
+	static long sum(final long[] array, final int length) {
+		LongVector sum = LongVector.zero(LONGS);
+		int i = 0;
+		for (final int bound = LONGS.loopBound(length); i < bound; i += LONGS.length()) {
+			sum = sum.add(LongVector.fromArray(LONGS, array, i));
+		}
+		long result = sum.reduceLanes(VectorOperators.ADD);
+		for (; i < length; ++i) {
+			result += array[i];
+		}
+		return result;
+	}
+
+	static long min(final long[] array, final int length) {
+		LongVector min = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+		int i = 0;
+		for (final int bound = LONGS.loopBound(length); i < bound; i += LONGS.length()) {
+			min = min.min(LongVector.fromArray(LONGS, array, i));
+		}
+		long result = min.reduceLanes(VectorOperators.MIN);
+		for (; i < length; ++i) {
+			result = Math.min(result, array[i]);
+		}
+		return result;
+	}
+
+	static long max(final long[] array, final int length) {
+		LongVector max = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+		int i = 0;
+		for (final int bound = LONGS.loopBound(length); i < bound; i += LONGS.length()) {
+			max = max.max(LongVector.fromArray(LONGS, array, i));
+		}
+		long result = max.reduceLanes(VectorOperators.MAX);
+		for (; i < length; ++i) {
+			result = Math.max(result, array[i]);
+		}
+		return result;
+	}
+
+	static long countBetween(final long[] array, final int length, final long min, final long max) {
+		long count = 0;
+		int i = 0;
+		for (final int bound = LONGS.loopBound(length); i < bound; i += LONGS.length()) {
+			final LongVector values = LongVector.fromArray(LONGS, array, i);
+			count += values.compare(VectorOperators.GE, min).and(values.compare(VectorOperators.LT, max)).trueCount();
+		}
+		for (; i < length; ++i) {
+			final long value = array[i];
+			count += (value >= min & value < max) ? 1 : 0;
+		}
+		return count;
+	}
+
+	static long dot(final long[] a, final long[] b, final int length) {
+		LongVector sum = LongVector.zero(LONGS);
+		int i = 0;
+		for (final int bound = LONGS.loopBound(length); i < bound; i += LONGS.length()) {
+			sum = sum.add(LongVector.fromArray(LONGS, a, i).mul(LongVector.fromArray(LONGS, b, i)));
+		}
+		long result = sum.reduceLanes(VectorOperators.ADD);
+		for (; i < length; ++i) {
+			result += a[i] * b[i];
+		}
+		return result;
+	}
+
+	/*
+	 * float
+	 */
+
+	static float sum(final float[] array, final int length) {
+		FloatVector sum = FloatVector.zero(FLOATS);
+		int i = 0;
+		for (final int bound = FLOATS.loopBound(length); i < bound; i += FLOATS.length()) {
+			sum = sum.add(FloatVector.fromArray(FLOATS, array, i));
+		}
+		float result = sum.reduceLanes(VectorOperators.ADD);
+		for (; i < length; ++i) {
+			result += array[i];
+		}
+		return result;
+	}
+
+	static float min(final float[] array, final int length) {
+		FloatVector min = FloatVector.broadcast(FLOATS, Float.POSITIVE_INFINITY);
+		int i = 0;
+		for (final int bound = FLOATS.loopBound(length); i < bound; i += FLOATS.length()) {
+			min = min.min(FloatVector.fromArray(FLOATS, array, i));
+		}
+		float result = min.reduceLanes(VectorOperators.MIN);
+		for (; i < length; ++i) {
+			result = Math.min(result, array[i]);
+		}
+		return result;
+	}
+
+	static float max(final float[] array, final int length) {
+		FloatVector max = FloatVector.broadcast(FLOATS, Float.NEGATIVE_INFINITY);
+		int i = 0;
+		for (final int bound = FLOATS.loopBound(length); i < bound; i += FLOATS.length()) {
+			max = max.max(FloatVector.fromArray(FLOATS, array, i));
+		}
+		float result = max.reduceLanes(VectorOperators.MAX);
+		for (; i < length; ++i) {
+			result = Math.max(result, array[i]);
+		}
+		return result;
+	}
+
+	/*
+	 * double
+	 */
+
+	static double sum(final double[] array, final int length) {
+		DoubleVector sum = DoubleVector.zero(DOUBLES);
+		int i = 0;
+		for (final int bound = DOUBLES.loopBound(length); i < bound; i += DOUBLES.length()) {
+			sum = sum.add(DoubleVector.fromArray(DOUBLES, array, i));
+		}
+		double result = sum.reduceLanes(VectorOperators.ADD);
+		for (; i < length; ++i) {
+			result += array[i];
+		}
+		return result;
+	}
+
+	static double min(final double[] array, final int length) {
+		DoubleVector min = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+		int i = 0;
+		for (final int bound = DOUBLES.loopBound(length); i < bound; i += DOUBLES.length()) {
+			min = min.min(DoubleVector.fromArray(DOUBLES, array, i));
+		}
+		double result = min.reduceLanes(VectorOperators.MIN);
+		for (; i < length; ++i) {
+			result = Math.min(result, array[i]);
+		}
+		return result;
+	}
+
+	static double max(final double[] array, final int length) {
+		DoubleVector max = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+		int i = 0;
+		for (final int bound = DOUBLES.loopBound(length); i < bound; i += DOUBLES.length()) {
+			max = max.max(DoubleVector.fromArray(DOUBLES, array, i));
+		}
+		double result = max.reduceLanes(VectorOperators.MAX);
+		for (; i < length; ++i) {
+			result = Math.max(result, array[i]);
+		}
+		return result;
+	}
+
+	static long countBetween(final double[] array, final int length, final double min, final double max) {
+		long count = 0;
+		int i = 0;
+		for (final int bound = DOUBLES.loopBound(length); i < bound; i += DOUBLES.length()) {
+			final DoubleVector values = DoubleVector.fromArray(DOUBLES, array, i);
+			count += values.compare(VectorOperators.GE, min).and(values.compare(VectorOperators.LT, max)).trueCount();
+		}
+		for (; i < length; ++i) {
+			final double value = array[i];
+			count += (value >= min & value < max) ? 1 : 0;
+		}
+		return count;
+	}
+
+	static double dot(final double[] a, final double[] b, final int length) {
+		DoubleVector sum = DoubleVector.zero(DOUBLES);
+		int i = 0;
+		for (final int bound = DOUBLES.loopBound(length); i < bound; i += DOUBLES.length()) {
+			sum = DoubleVector.fromArray(DOUBLES, a, i).fma(DoubleVector.fromArray(DOUBLES, b, i), sum);
+		}
+		double result = sum.reduceLanes(VectorOperators.ADD);
+		for (; i < length; ++i) {
+			result += a[i] * b[i];
+		}
+		return result;
+	}
+}
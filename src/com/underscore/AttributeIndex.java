@@ -0,0 +1,110 @@
+package com.underscore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A hash index of map records by the values of some of their attributes, as
+ * returned by {@link _#index(Collection, Object...)}. A {@code where} query
+ * that gives a non-null value for every indexed attribute looks up the
+ * records with those values and only checks its other attributes against
+ * them; any other query scans all the records. Records keep the order of the
+ * collection. The index holds the records themselves, not copies, and files
+ * each under the values its indexed attributes had when the index was built.
+ * Adding or removing records in the collection later is not seen. The
+ * indexed attributes of the records must not be changed after
+ * {@code _.index}: a lookup would still go by the old values, while a query
+ * that scans would see the new ones. Build a new index instead. Changes to
+ * other attributes are seen, since those are checked at query time.
+ */
+public final class AttributeIndex<K, V, M extends Map<K, V>> {
+
+	private final List<M> records;
+
+	private final Object[] attributes;
+
+	/*
+	 * The records by the value of the one indexed attribute, or by the list
+	 * of the values of the indexed attributes in order.
+	 */
+	private final Map<Object, List<M>> buckets = new HashMap<>();
+
+	AttributeIndex(final Collection<M> collection, final Object[] attributes) {
+		if (attributes.length == 0) {
+			throw new IllegalArgumentException("No attributes to index");
+		}
+
+		this.records = new ArrayList<>(collection);
+		this.attributes = attributes.clone();
+		for (M record : records) {
+			if (record != null) {
+				buckets.computeIfAbsent(key(record), (key) -> new ArrayList<>()).add(record);
+			}
+		}
+	}
+
+	private Object key(final Map<?, ?> values) {
+		if (attributes.length == 1) {
+			return values.get(attributes[0]);
+		}
+
+		final Object[] key = new Object[attributes.length];
+		for (int i = 0; i < attributes.length; ++i) {
+			key[i] = values.get(attributes[i]);
+		}
+		return Arrays.asList(key);
+	}
+
+	/*
+	 * The records the query could match, and in the residual map the
+	 * attributes those records still have to be checked against.
+	 */
+	private List<M> candidates(final Map<? extends K, ? extends V> attrs, final Map<K, V> residual) {
+		for (Object attribute : attributes) {
+			if (attrs.get(attribute) == null) {
+				residual.putAll(attrs);
+				return records;
+			}
+		}
+
+		attrs.forEach((key, value) -> {
+			if (!Arrays.asList(attributes).contains(key)) {
+				residual.put(key, value);
+			}
+		});
+		final List<M> bucket = buckets.get(key(attrs));
+		return (bucket == null) ? Collections.emptyList() : bucket;
+	}
+
+	public List<M> where(final Map<? extends K, ? extends V> attrs) {
+		final Map<K, V> residual = new LinkedHashMap<>();
+		final List<M> candidates = candidates(attrs, residual);
+		if (residual.isEmpty() && candidates != records) {
+			return new ArrayList<>(candidates);
+		}
+		return _.where(candidates, residual);
+	}
+
+	public M findWhere(final Map<? extends K, ? extends V> attrs) {
+		final Map<K, V> residual = new LinkedHashMap<>();
+		final List<M> candidates = candidates(attrs, residual);
+		final Predicate<Map<K, V>> matcher = _.matches(residual);
+		for (M record : candidates) {
+			if (matcher.test(record)) {
+				return record;
+			}
+		}
+		return null;
+	}
+
+	public int size() {
+		return records.size();
+	}
+}
@@ -0,0 +1,74 @@
+package com.underscore;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * The limits of a {@link MemoizedFunction}: a maximum total weight of the
+ * cached values, where each value weighs 1 unless a weigher is given, and an
+ * optional time to live counted from when a value was computed.
+ */
+public final class CacheSpec<R> {
+
+	public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+	private final long maximumWeight;
+
+	private final ToLongFunction<? super R> weigher;
+
+	private final long expireAfterWriteNanos;
+
+	private CacheSpec(final long maximumWeight, final ToLongFunction<? super R> weigher, final long expireAfterWriteNanos) {
+		if (maximumWeight < 0) {
+			throw new IllegalArgumentException("Negative maximum weight: " + maximumWeight);
+		}
+
+		this.maximumWeight = maximumWeight;
+		this.weigher = weigher;
+		this.expireAfterWriteNanos = expireAfterWriteNanos;
+	}
+
+	public static <R> CacheSpec<R> maximumSize(final long maximumSize) {
+		return new CacheSpec<>(maximumSize, null, 0);
+	}
+
+	public static <R> CacheSpec<R> maximumWeight(final long maximumWeight, final ToLongFunction<? super R> weigher) {
+		if (weigher == null) {
+			throw new NullPointerException("weigher");
+		}
+
+		return new CacheSpec<>(maximumWeight, weigher, 0);
+	}
+
+	/*
+	 * A copy of this spec whose values expire the given duration after they
+	 * are computed.
+	 */
+	public CacheSpec<R> expireAfterWrite(final long duration, final TimeUnit unit) {
+		if (duration <= 0) {
+			throw new IllegalArgumentException("Invalid duration: " + duration);
+		}
+
+		return new CacheSpec<>(maximumWeight, weigher, unit.toNanos(duration));
+	}
+
+	public long maximumWeight() {
+		return maximumWeight;
+	}
+
+	long weigh(final R value) {
+		if (weigher == null) {
+			return 1;
+		}
+
+		final long weight = weigher.applyAsLong(value);
+		if (weight < 0) {
+			throw new IllegalArgumentException("Negative weight: " + weight);
+		}
+		return weight;
+	}
+
+	long expireAfterWriteNanos() {
+		return expireAfterWriteNanos;
+	}
+}
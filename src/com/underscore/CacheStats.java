@@ -0,0 +1,60 @@
+package com.underscore;
+
+/**
+ * A snapshot of the counters of a {@link MemoizedFunction}. A lookup that
+ * waits for another thread computing the same key counts as a hit.
+ */
+public final class CacheStats {
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final long evictionCount;
+
+	private final long expirationCount;
+
+	CacheStats(final long hitCount, final long missCount, final long evictionCount, final long expirationCount) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.expirationCount = expirationCount;
+	}
+
+	public long hitCount() {
+		return hitCount;
+	}
+
+	public long missCount() {
+		return missCount;
+	}
+
+	public long requestCount() {
+		return hitCount + missCount;
+	}
+
+	public double hitRate() {
+		final long requestCount = requestCount();
+		return (requestCount == 0) ? 1.0 : (double) hitCount / requestCount;
+	}
+
+	/*
+	 * Values dropped to stay within the maximum weight.
+	 */
+	public long evictionCount() {
+		return evictionCount;
+	}
+
+	/*
+	 * Values dropped because they outlived their time to live.
+	 */
+	public long expirationCount() {
+		return expirationCount;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats{hits=" + hitCount + ", misses=" + missCount
+				+ ", evictions=" + evictionCount + ", expirations=" + expirationCount + "}";
+	}
+}
@@ -0,0 +1,238 @@
+package com.underscore;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The copies behind {@link _#clone}. Arrays are copied with
+ * {@link System#arraycopy}. Other {@link Cloneable}s are copied by their
+ * public {@code clone()}, looked up once per class and cached as a
+ * {@link MethodHandle}. A deep copy also copies the elements of arrays and
+ * collections and the values of maps, and copies each object only once, so
+ * shared references and cycles are shared and cyclic in the copy too.
+ */
+final class Cloner {
+
+	private static final MethodType CLONE_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	/*
+	 * The public clone() of each class, or null if it has none.
+	 */
+	private static final ClassValue<MethodHandle> CLONE = new ClassValue<MethodHandle>() {
+		@Override
+		protected MethodHandle computeValue(final Class<?> type) {
+			try {
+				return MethodHandles.publicLookup().unreflect(type.getMethod("clone")).asType(CLONE_TYPE);
+			} catch (final ReflectiveOperationException | RuntimeException e) {
+				return accessibleClone(type);
+			}
+		}
+	};
+
+	/*
+	 * The public no-arg constructor of each collection or map class, or null
+	 * if it has none.
+	 */
+	private static final ClassValue<MethodHandle> CONSTRUCTOR = new ClassValue<MethodHandle>() {
+		@Override
+		protected MethodHandle computeValue(final Class<?> type) {
+			if (Modifier.isAbstract(type.getModifiers()) || !Modifier.isPublic(type.getModifiers())) {
+				return null;
+			}
+			try {
+				return MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class)).asType(CONSTRUCTOR_TYPE);
+			} catch (final ReflectiveOperationException | RuntimeException e) {
+				return null;
+			}
+		}
+	};
+
+	private final IdentityHashMap<Object, Object> copies = new IdentityHashMap<>();
+
+	private Cloner() {
+	}
+
+	/*
+	 * A public clone() declared by a class that is not itself public, such as
+	 * a private nested class, can only be called once made accessible.
+	 */
+	private static MethodHandle accessibleClone(final Class<?> type) {
+		try {
+			final Method method = type.getMethod("clone");
+			method.setAccessible(true);
+			return MethodHandles.lookup().unreflect(method).asType(CLONE_TYPE);
+		} catch (final ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	static Object shallow(final Object value) {
+		final Class<?> type = value.getClass();
+		if (type.isArray()) {
+			final int length = Array.getLength(value);
+			final Object copy = Array.newInstance(type.getComponentType(), length);
+			System.arraycopy(value, 0, copy, 0, length);
+			return copy;
+		}
+
+		final MethodHandle clone = CLONE.get(type);
+		if (clone == null) {
+			throw new IllegalArgumentException("Cloneable type " + type.getName() + " has no public clone method");
+		}
+		try {
+			return (Object) clone.invokeExact(value);
+		} catch (final RuntimeException | Error e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw new IllegalStateException("Could not clone " + type.getName(), e);
+		}
+	}
+
+	static Object deep(final Object value) {
+		return new Cloner().copy(value);
+	}
+
+	private Object copy(final Object value) {
+		if (value == null) {
+			return null;
+		}
+
+		final Object seen = copies.get(value);
+		if (seen != null) {
+			return seen;
+		}
+
+		final Class<?> type = value.getClass();
+		if (type.isArray()) {
+			return type.getComponentType().isPrimitive() ? remember(value, shallow(value)) : copyArray((Object[]) value);
+		} else if (value instanceof Collection) {
+			return copyCollection((Collection<?>) value);
+		} else if (value instanceof Map) {
+			return copyMap((Map<?, ?>) value);
+		} else if (value instanceof Cloneable && CLONE.get(type) != null) {
+			return remember(value, shallow(value));
+		}
+		return value;
+	}
+
+	private Object remember(final Object value, final Object copy) {
+		copies.put(value, copy);
+		return copy;
+	}
+
+	private Object[] copyArray(final Object[] array) {
+		final Object[] copy = (Object[]) Array.newInstance(array.getClass().getComponentType(), array.length);
+		remember(array, copy);
+		for (int i = 0; i < array.length; ++i) {
+			copy[i] = copy(array[i]);
+		}
+		return copy;
+	}
+
+	/*
+	 * The collection is cloned or, failing that, built by its public no-arg
+	 * constructor, so that the copy keeps its type and ordering; a collection
+	 * with neither, such as an unmodifiable view, becomes the closest plain
+	 * list, set or sorted set.
+	 */
+	@SuppressWarnings("unchecked")
+	private Collection<Object> copyCollection(final Collection<?> collection) {
+		final Object[] elements = collection.toArray();
+		final Collection<Object> clone = (Collection<Object>) cloneOrNull(collection);
+		if (clone instanceof List) {
+			remember(collection, clone);
+			final ListIterator<Object> it = ((List<Object>) clone).listIterator();
+			for (Object element : elements) {
+				it.next();
+				it.set(copy(element));
+			}
+			return clone;
+		}
+
+		Collection<Object> copy = clone;
+		if (copy != null) {
+			copy.clear();
+		} else {
+			copy = (Collection<Object>) construct(collection.getClass());
+		}
+		if (copy == null) {
+			if (collection instanceof SortedSet) {
+				copy = new TreeSet<>((Comparator<Object>) ((SortedSet<?>) collection).comparator());
+			} else if (collection instanceof Set) {
+				copy = new LinkedHashSet<>(elements.length * 4 / 3 + 1);
+			} else {
+				copy = new ArrayList<>(elements.length);
+			}
+		}
+
+		remember(collection, copy);
+		for (Object element : elements) {
+			copy.add(copy(element));
+		}
+		return copy;
+	}
+
+	/*
+	 * Keys are kept as they are; only the values are copied.
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<Object, Object> copyMap(final Map<?, ?> map) {
+		Map<Object, Object> copy = (Map<Object, Object>) cloneOrNull(map);
+		if (copy != null) {
+			remember(map, copy);
+			copy.replaceAll((key, value) -> copy(value));
+			return copy;
+		}
+
+		copy = (Map<Object, Object>) construct(map.getClass());
+		if (copy == null) {
+			copy = (map instanceof SortedMap)
+					? new TreeMap<>((Comparator<Object>) ((SortedMap<?, ?>) map).comparator())
+					: new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+		}
+
+		remember(map, copy);
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			copy.put(entry.getKey(), copy(entry.getValue()));
+		}
+		return copy;
+	}
+
+	private static Object cloneOrNull(final Object value) {
+		return (value instanceof Cloneable && CLONE.get(value.getClass()) != null) ? shallow(value) : null;
+	}
+
+	private static Object construct(final Class<?> type) {
+		final MethodHandle constructor = CONSTRUCTOR.get(type);
+		if (constructor == null) {
+			return null;
+		}
+		try {
+			return (Object) constructor.invokeExact();
+		} catch (final RuntimeException | Error e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw new IllegalStateException("Could not construct " + type.getName(), e);
+		}
+	}
+}
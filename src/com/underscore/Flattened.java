@@ -0,0 +1,128 @@
+package com.underscore;
+
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The view behind {@link _#flatten}. Its iterator walks the nesting with an
+ * explicit stack of iterators, one per level, so elements are produced as
+ * they are pulled and deep nesting cannot overflow the call stack. Iterables
+ * and object arrays nested up to depth levels down are unwrapped; anything
+ * else, including maps and primitive arrays, is an element. {@code size()}
+ * counts the elements with a walk that takes the sizes of collections and
+ * arrays on the last unwrapped level without visiting them, which is what
+ * lets {@code toArray()} and {@code new ArrayList<>(view)} allocate their
+ * result once. The view is not a snapshot, and a nesting that contains
+ * itself has no end.
+ */
+final class Flattened extends AbstractCollection<Object> {
+
+	private final Object root;
+
+	private final int depth;
+
+	Flattened(final Object root, final int depth) {
+		if (depth < 0) {
+			throw new IllegalArgumentException("Negative depth: " + depth);
+		}
+
+		this.root = root;
+		this.depth = depth;
+	}
+
+	private static boolean isNested(final Object value) {
+		return value instanceof Iterable || value instanceof Object[];
+	}
+
+	private static Iterator<?> iteratorOf(final Object value) {
+		return (value instanceof Object[]) ? Arrays.asList((Object[]) value).iterator() : ((Iterable<?>) value).iterator();
+	}
+
+	@Override
+	public Iterator<Object> iterator() {
+		return new Walk();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return !iterator().hasNext();
+	}
+
+	@Override
+	public int size() {
+		final ArrayDeque<Iterator<?>> stack = new ArrayDeque<>();
+		stack.push(iteratorOf(root));
+		long size = 0;
+		while (!stack.isEmpty()) {
+			final Iterator<?> top = stack.peek();
+			if (!top.hasNext()) {
+				stack.pop();
+				continue;
+			}
+
+			final Object element = top.next();
+			if (stack.size() > depth || !isNested(element)) {
+				++size;
+			} else if (stack.size() == depth && element instanceof Object[]) {
+				size += ((Object[]) element).length;
+			} else if (stack.size() == depth && element instanceof Collection) {
+				size += ((Collection<?>) element).size();
+			} else {
+				stack.push(iteratorOf(element));
+			}
+		}
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	private final class Walk implements Iterator<Object> {
+
+		/*
+		 * The iterator of each level being walked, innermost on top; the
+		 * number of iterators is the level of the elements on top.
+		 */
+		private final ArrayDeque<Iterator<?>> stack = new ArrayDeque<>();
+
+		private Object next;
+
+		private boolean ready;
+
+		Walk() {
+			stack.push(iteratorOf(root));
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!ready && !stack.isEmpty()) {
+				final Iterator<?> top = stack.peek();
+				if (!top.hasNext()) {
+					stack.pop();
+					continue;
+				}
+
+				final Object element = top.next();
+				if (stack.size() <= depth && isNested(element)) {
+					stack.push(iteratorOf(element));
+				} else {
+					next = element;
+					ready = true;
+				}
+			}
+			return ready;
+		}
+
+		@Override
+		public Object next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			ready = false;
+			final Object result = next;
+			next = null;
+			return result;
+		}
+	}
+}
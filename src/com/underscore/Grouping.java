@@ -0,0 +1,69 @@
+package com.underscore;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.underscore.chain.ObjectIntMap;
+
+/**
+ * The accumulator behind {@link _#groupBy}. Each key is looked up once in an
+ * {@link ObjectIntMap}, whose entry index picks the key's bucket: a plain
+ * array that doubles when full. The buckets are trimmed and wrapped as lists
+ * only when the groups are returned.
+ */
+final class Grouping<T, K> implements Consumer<T> {
+
+	private static final int MIN_BUCKET_LENGTH = 2;
+
+	private final Function<? super T, ? extends K> iterator;
+
+	private final ObjectIntMap<K> keys = new ObjectIntMap<>();
+
+	private Object[][] buckets = new Object[8][];
+
+	private int[] sizes = new int[8];
+
+	Grouping(final Function<? super T, ? extends K> iterator) {
+		this.iterator = iterator;
+	}
+
+	@Override
+	public void accept(final T value) {
+		final int index = keys.entry(iterator.apply(value));
+		if (index == buckets.length) {
+			buckets = Arrays.copyOf(buckets, index << 1);
+			sizes = Arrays.copyOf(sizes, index << 1);
+		}
+
+		Object[] bucket = buckets[index];
+		final int size = sizes[index];
+		if (bucket == null) {
+			bucket = buckets[index] = new Object[MIN_BUCKET_LENGTH];
+		} else if (size == bucket.length) {
+			bucket = buckets[index] = Arrays.copyOf(bucket, size << 1);
+		}
+		bucket[size] = value;
+		sizes[index] = size + 1;
+	}
+
+	/*
+	 * The groups in the order their keys were first seen. The lists are
+	 * fixed-size views of the buckets.
+	 */
+	Map<K, List<T>> groups() {
+		final int count = keys.size();
+		final Map<K, List<T>> results = new LinkedHashMap<>(count * 4 / 3 + 1);
+		for (int i = 0; i < count; ++i) {
+			final Object[] bucket = buckets[i];
+			final int size = sizes[i];
+			@SuppressWarnings("unchecked")
+			final List<T> group = (List<T>) Arrays.asList((size == bucket.length) ? bucket : Arrays.copyOf(bucket, size));
+			results.put(keys.keyAt(i), group);
+		}
+		return results;
+	}
+}
@@ -0,0 +1,136 @@
+package com.underscore;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A source of unique, positive {@code long} ids. Each thread leases a block of
+ * ids from the shared counter with one atomic add and hands them out without
+ * further synchronization, so ids are unique but only increasing within a
+ * thread. {@link #named(String)} returns independent sequences by name, and
+ * {@link _#uniqueId(String)} draws from {@link #DEFAULT}.
+ */
+public final class IdSequence {
+
+	public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+	public static final IdSequence DEFAULT = new IdSequence();
+
+	private static final ConcurrentMap<String, IdSequence> sequences = new ConcurrentHashMap<>();
+
+	/*
+	 * The characters of the prefixes seen so far, up to MAX_PREFIXES of them,
+	 * so that formatting an id does not copy its prefix out of the String.
+	 */
+	private static final int MAX_PREFIXES = 1024;
+
+	private static final ConcurrentMap<String, char[]> prefixes = new ConcurrentHashMap<>();
+
+	private static final char[] NO_PREFIX = new char[0];
+
+	/*
+	 * The ids a thread has leased: next up to, but not including, end.
+	 */
+	private static final class Lease {
+		long next;
+
+		long end;
+	}
+
+	private final AtomicLong counter = new AtomicLong();
+
+	private final int blockSize;
+
+	private final ThreadLocal<Lease> leases = ThreadLocal.withInitial(Lease::new);
+
+	public IdSequence() {
+		this(DEFAULT_BLOCK_SIZE);
+	}
+
+	public IdSequence(final int blockSize) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Invalid block size: " + blockSize);
+		}
+
+		this.blockSize = blockSize;
+	}
+
+	public static IdSequence named(final String name) {
+		return sequences.computeIfAbsent(name, (key) -> new IdSequence());
+	}
+
+	public long next() {
+		final Lease lease = leases.get();
+		if (lease.next == lease.end) {
+			lease.next = counter.getAndAdd(blockSize) + 1;
+			lease.end = lease.next + blockSize;
+		}
+		return lease.next++;
+	}
+
+	public String next(final String prefix) {
+		final char[] chars = prefix(prefix);
+		final long id = next();
+		final char[] results = new char[chars.length + digits(id)];
+		System.arraycopy(chars, 0, results, 0, chars.length);
+		writeDigits(id, results, results.length);
+		return new String(results);
+	}
+
+	public StringBuilder next(final String prefix, final StringBuilder out) {
+		return out.append(prefix(prefix)).append(next());
+	}
+
+	/*
+	 * Writes the prefix and the next id into out at offset, and returns the
+	 * index after the last character written.
+	 */
+	public int next(final String prefix, final char[] out, final int offset) {
+		final char[] chars = prefix(prefix);
+		final long id = next();
+		final int end = offset + chars.length + digits(id);
+		if (offset < 0 || end > out.length) {
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", length: " + out.length);
+		}
+
+		System.arraycopy(chars, 0, out, offset, chars.length);
+		writeDigits(id, out, end);
+		return end;
+	}
+
+	private static char[] prefix(final String prefix) {
+		if (prefix == null || prefix.isEmpty()) {
+			return NO_PREFIX;
+		}
+
+		final char[] chars = prefixes.get(prefix);
+		if (chars != null) {
+			return chars;
+		}
+		if (prefixes.size() >= MAX_PREFIXES) {
+			return prefix.toCharArray();
+		}
+		return prefixes.computeIfAbsent(prefix, String::toCharArray);
+	}
+
+	private static int digits(long value) {
+		int digits = 1;
+		while (value >= 10) {
+			value /= 10;
+			++digits;
+		}
+		return digits;
+	}
+
+	/*
+	 * Writes the digits of the non-negative value so that the last one is at
+	 * end - 1.
+	 */
+	private static void writeDigits(long value, final char[] out, int end) {
+		do {
+			out[--end] = (char) ('0' + (int) (value % 10));
+			value /= 10;
+		} while (value != 0);
+	}
+}
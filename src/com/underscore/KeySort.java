@@ -0,0 +1,135 @@
+package com.underscore;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The sorts behind {@link _#sortBy}. Each takes the keys of the elements,
+ * computed once, and returns the indexes of the elements in key order; equal
+ * keys keep the order of their elements. {@code int} keys are packed with
+ * their index into {@code long}s and sorted as such. Other keys sort an array
+ * of indexes with a merge sort that compares the keys at those indexes.
+ */
+final class KeySort {
+
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+
+	private KeySort() {
+	}
+
+	static int[] order(final int[] keys) {
+		final int length = keys.length;
+		final long[] packed = new long[length];
+		for (int i = 0; i < length; ++i) {
+			packed[i] = ((long) keys[i] << 32) | i;
+		}
+		Arrays.sort(packed);
+
+		final int[] order = new int[length];
+		for (int i = 0; i < length; ++i) {
+			order[i] = (int) packed[i];
+		}
+		return order;
+	}
+
+	static int[] order(final long[] keys) {
+		final int[] order = identity(keys.length);
+		sort(keys, order.clone(), order, 0, order.length);
+		return order;
+	}
+
+	/*
+	 * Maps the keys to longs that compare the way Double.compare does, with
+	 * -0.0 before 0.0 and NaN last.
+	 */
+	static int[] order(final double[] keys) {
+		final long[] bits = new long[keys.length];
+		for (int i = 0; i < keys.length; ++i) {
+			final long value = Double.doubleToLongBits(keys[i]);
+			bits[i] = value ^ ((value >> 63) & Long.MAX_VALUE);
+		}
+		return order(bits);
+	}
+
+	static <U> int[] order(final Object[] keys, final Comparator<? super U> comp) {
+		@SuppressWarnings("unchecked")
+		final Comparator<Object> comparator = (Comparator<Object>) comp;
+		final int[] order = identity(keys.length);
+		sort(keys, comparator, order.clone(), order, 0, order.length);
+		return order;
+	}
+
+	private static int[] identity(final int length) {
+		final int[] order = new int[length];
+		for (int i = 0; i < length; ++i) {
+			order[i] = i;
+		}
+		return order;
+	}
+
+	/*
+	 * Sorts dst[from, to) by key, given that src holds the same indexes there;
+	 * the halves are sorted into src and merged back into dst.
+	 */
+	private static void sort(final long[] keys, final int[] src, final int[] dst, final int from, final int to) {
+		if (to - from <= INSERTION_SORT_THRESHOLD) {
+			for (int i = from + 1; i < to; ++i) {
+				final int index = dst[i];
+				final long key = keys[index];
+				int j = i;
+				for (; j > from && keys[dst[j - 1]] > key; --j) {
+					dst[j] = dst[j - 1];
+				}
+				dst[j] = index;
+			}
+			return;
+		}
+
+		final int mid = (from + to) >>> 1;
+		sort(keys, dst, src, from, mid);
+		sort(keys, dst, src, mid, to);
+		if (keys[src[mid - 1]] <= keys[src[mid]]) {
+			System.arraycopy(src, from, dst, from, to - from);
+			return;
+		}
+
+		for (int i = from, p = from, q = mid; i < to; ++i) {
+			if (q >= to || (p < mid && keys[src[p]] <= keys[src[q]])) {
+				dst[i] = src[p++];
+			} else {
+				dst[i] = src[q++];
+			}
+		}
+	}
+
+	private static void sort(final Object[] keys, final Comparator<Object> comp, final int[] src, final int[] dst, final int from, final int to) {
+		if (to - from <= INSERTION_SORT_THRESHOLD) {
+			for (int i = from + 1; i < to; ++i) {
+				final int index = dst[i];
+				final Object key = keys[index];
+				int j = i;
+				for (; j > from && comp.compare(keys[dst[j - 1]], key) > 0; --j) {
+					dst[j] = dst[j - 1];
+				}
+				dst[j] = index;
+			}
+			return;
+		}
+
+		final int mid = (from + to) >>> 1;
+		sort(keys, comp, dst, src, from, mid);
+		sort(keys, comp, dst, src, mid, to);
+		if (comp.compare(keys[src[mid - 1]], keys[src[mid]]) <= 0) {
+			System.arraycopy(src, from, dst, from, to - from);
+			return;
+		}
+
+		for (int i = from, p = from, q = mid; i < to; ++i) {
+			if (q >= to || (p < mid && comp.compare(keys[src[p]], keys[src[q]]) <= 0)) {
+				dst[i] = src[p++];
+			} else {
+				dst[i] = src[q++];
+			}
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package com.underscore;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * The state behind {@link _#throttle} and {@link _#debounce}. A call either
+ * opens a window, running the action at once on the leading edge, or is
+ * coalesced into the pending argument, which runs on the trailing edge when
+ * the window closes. Throttle windows last a fixed time; debounce windows
+ * last until no call has come in for the wait time. Calls only touch atomics;
+ * the one timer per open window runs on a scheduler shared by all limiters,
+ * which also runs the trailing actions.
+ */
+final class Limiter<T> {
+
+	private static final Object NONE = new Object();
+
+	private static final class Scheduler {
+		private static final AtomicInteger threads = new AtomicInteger();
+
+		static final ScheduledExecutorService instance;
+		static {
+			final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+					Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)), (runnable) -> {
+						final Thread thread = new Thread(runnable, "underscore-scheduler-" + threads.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+			executor.setRemoveOnCancelPolicy(true);
+			instance = executor;
+		}
+	}
+
+	private final Consumer<? super T> action;
+
+	private final long waitNanos;
+
+	private final boolean leading;
+
+	private final boolean trailing;
+
+	private final boolean debounce;
+
+	/*
+	 * Whether a window is open, in which case a timer is scheduled.
+	 */
+	private final AtomicBoolean open = new AtomicBoolean();
+
+	private final AtomicReference<Object> pending = new AtomicReference<>(NONE);
+
+	private final AtomicLong lastCall = new AtomicLong();
+
+	private final Runnable timer = this::close;
+
+	Limiter(final Consumer<? super T> action, final long wait, final TimeUnit unit, final boolean leading, final boolean trailing, final boolean debounce) {
+		if (wait < 0) {
+			throw new IllegalArgumentException("Negative wait: " + wait);
+		}
+		if (!leading && !trailing) {
+			throw new IllegalArgumentException("Neither leading nor trailing");
+		}
+
+		this.action = action;
+		this.waitNanos = unit.toNanos(wait);
+		this.leading = leading;
+		this.trailing = trailing;
+		this.debounce = debounce;
+	}
+
+	void call(final T argument) {
+		if (debounce) {
+			lastCall.lazySet(System.nanoTime());
+		}
+
+		if (!open.get() && open.compareAndSet(false, true)) {
+			if (leading) {
+				try {
+					action.accept(argument);
+				} finally {
+					schedule(waitNanos);
+				}
+			} else {
+				pending.set(argument);
+				schedule(waitNanos);
+			}
+		} else if (trailing) {
+			pending.set(argument);
+			// The window may have closed between the check above and the set,
+			// after close() last looked at pending; reopen it as close() does.
+			if (!open.get() && open.compareAndSet(false, true)) {
+				schedule(0);
+			}
+		}
+	}
+
+	private void schedule(final long delayNanos) {
+		Scheduler.instance.schedule(timer, delayNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void close() {
+		for (;;) {
+			if (debounce) {
+				final long remaining = lastCall.get() + waitNanos - System.nanoTime();
+				if (remaining > 0) {
+					schedule(remaining);
+					return;
+				}
+			}
+
+			final Object argument = pending.getAndSet(NONE);
+			if (argument != NONE) {
+				run((T) argument);
+				if (!debounce) {
+					// A trailing call opens the next throttle window.
+					schedule(waitNanos);
+					return;
+				}
+			}
+
+			open.set(false);
+			// A call that saw the window open may have left an argument after
+			// the getAndSet above; reopen the window to run it.
+			if (pending.get() == NONE || !open.compareAndSet(false, true)) {
+				return;
+			}
+		}
+	}
+
+	private void run(final T argument) {
+		try {
+			action.accept(argument);
+		} catch (final RuntimeException | Error e) {
+			final Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+		}
+	}
+}
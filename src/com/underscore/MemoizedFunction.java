@@ -0,0 +1,236 @@
+package com.underscore;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A thread-safe function that caches the results of another by key, as
+ * returned by {@link _#memoize(Function)}. The cache is split into stripes,
+ * each a least-recently-used map with its own lock. When the total weight
+ * goes over the {@link CacheSpec} maximum, the stripe that grew evicts its
+ * least recently used values first. A value is computed once per key, outside
+ * the lock; other threads asking for the same key wait for it, and a failed
+ * computation is not cached. The function must not call itself with the key
+ * it is computing.
+ */
+public final class MemoizedFunction<T, R> implements Function<T, R> {
+
+	/*
+	 * Caches with less than this much weight per stripe use fewer stripes, so
+	 * that small caches evict in near LRU order.
+	 */
+	private static final int MIN_STRIPE_WEIGHT = 8;
+
+	private static final int MAX_STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1)) << 1;
+
+	private static final class Node<R> {
+		final CompletableFuture<R> future = new CompletableFuture<>();
+
+		/*
+		 * Set under the stripe lock once the value is computed.
+		 */
+		long weight;
+
+		long expiresAt;
+	}
+
+	private static final class Stripe<R> {
+		final LinkedHashMap<Object, Node<R>> map = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	private final Function<? super T, ? extends R> function;
+
+	private final Function<? super T, ?> keyFunction;
+
+	private final CacheSpec<? super R> spec;
+
+	private final Stripe<R>[] stripes;
+
+	private final long maximumWeight;
+
+	private final AtomicLong weight = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private final LongAdder expirations = new LongAdder();
+
+	MemoizedFunction(final Function<? super T, ? extends R> function, final Function<? super T, ?> keyFunction, final CacheSpec<? super R> spec) {
+		this.function = function;
+		this.keyFunction = keyFunction;
+		this.spec = spec;
+
+		this.maximumWeight = spec.maximumWeight();
+
+		final int count = (int) Math.min(MAX_STRIPES, Long.highestOneBit(Math.max(1, maximumWeight / MIN_STRIPE_WEIGHT)));
+		@SuppressWarnings("unchecked")
+		final Stripe<R>[] stripes = (Stripe<R>[]) new Stripe<?>[count];
+		this.stripes = stripes;
+		for (int i = 0; i < count; ++i) {
+			stripes[i] = new Stripe<>();
+		}
+	}
+
+	private Stripe<R> stripe(final Object key) {
+		final int hash = (key == null) ? 0 : key.hashCode() * 0x9E3779B9;
+		return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+	}
+
+	@Override
+	public R apply(final T argument) {
+		final Object key = keyFunction.apply(argument);
+		final Stripe<R> stripe = stripe(key);
+		final long expireAfterWriteNanos = spec.expireAfterWriteNanos();
+		Node<R> node;
+		boolean computing = false;
+		synchronized (stripe) {
+			node = stripe.map.get(key);
+			if (node != null && expireAfterWriteNanos > 0 && node.future.isDone() && node.expiresAt - System.nanoTime() <= 0) {
+				remove(stripe, key);
+				expirations.increment();
+				node = null;
+			}
+			if (node == null) {
+				node = new Node<>();
+				stripe.map.put(key, node);
+				computing = true;
+			}
+		}
+
+		if (!computing) {
+			hits.increment();
+			return await(node);
+		}
+
+		misses.increment();
+		final R value;
+		final long valueWeight;
+		try {
+			value = function.apply(argument);
+			valueWeight = spec.weigh(value);
+		} catch (final Throwable e) {
+			// Also a checked exception thrown sneakily, which would otherwise
+			// leave the node to be waited on forever.
+			synchronized (stripe) {
+				if (stripe.map.get(key) == node) {
+					stripe.map.remove(key);
+				}
+			}
+			node.future.completeExceptionally(e);
+			throw e;
+		}
+
+		synchronized (stripe) {
+			if (stripe.map.get(key) == node) {
+				node.weight = valueWeight;
+				node.expiresAt = System.nanoTime() + expireAfterWriteNanos;
+				weight.addAndGet(valueWeight);
+				evict(stripe, node);
+			}
+		}
+		// Also reaches the threads waiting for a node invalidated meanwhile.
+		node.future.complete(value);
+
+		for (int i = 0; i < stripes.length && weight.get() > maximumWeight; ++i) {
+			synchronized (stripes[i]) {
+				evict(stripes[i], node);
+			}
+		}
+		if (weight.get() > maximumWeight) {
+			synchronized (stripe) {
+				if (stripe.map.get(key) == node) {
+					remove(stripe, key);
+					evictions.increment();
+				}
+			}
+		}
+		return value;
+	}
+
+	private static <R> R await(final Node<R> node) {
+		try {
+			return node.future.join();
+		} catch (final CompletionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+
+	private void remove(final Stripe<R> stripe, final Object key) {
+		final Node<R> node = stripe.map.remove(key);
+		if (node != null) {
+			weight.addAndGet(-node.weight);
+		}
+	}
+
+	/*
+	 * Drops the computed values of the stripe other than added, least
+	 * recently used first, until the cache is within its maximum weight.
+	 */
+	private void evict(final Stripe<R> stripe, final Node<R> added) {
+		final Iterator<Node<R>> iterator = stripe.map.values().iterator();
+		while (weight.get() > maximumWeight && iterator.hasNext()) {
+			final Node<R> node = iterator.next();
+			if (node != added && node.future.isDone()) {
+				iterator.remove();
+				weight.addAndGet(-node.weight);
+				evictions.increment();
+			}
+		}
+	}
+
+	public void invalidate(final T argument) {
+		final Object key = keyFunction.apply(argument);
+		final Stripe<R> stripe = stripe(key);
+		synchronized (stripe) {
+			remove(stripe, key);
+		}
+	}
+
+	public void invalidateAll() {
+		for (final Stripe<R> stripe : stripes) {
+			synchronized (stripe) {
+				for (final Node<R> node : stripe.map.values()) {
+					weight.addAndGet(-node.weight);
+				}
+				stripe.map.clear();
+			}
+		}
+	}
+
+	/*
+	 * The number of cached values, including those being computed and those
+	 * that have expired but not been dropped yet.
+	 */
+	public long size() {
+		long size = 0;
+		for (final Stripe<R> stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.map.size();
+			}
+		}
+		return size;
+	}
+
+	public long weight() {
+		return weight.get();
+	}
+
+	public CacheStats stats() {
+		return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+	}
+}
@@ -0,0 +1,95 @@
+package com.underscore;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * The reservoir sampling behind {@link _#sample}. It keeps the first n
+ * elements and then draws, rather than one random number per element, the
+ * geometric number of elements to skip before the next one that replaces a
+ * random element of the reservoir (Li's Algorithm L). A source that can be
+ * indexed jumps over the skipped elements, so sampling it costs about
+ * n log(size / n) steps; an iterator still has to step over them, but draws
+ * only that many random numbers. The sample is shuffled before it is
+ * returned, so its order is random too.
+ */
+final class Reservoir {
+
+	private Reservoir() {
+	}
+
+	static Object[] sample(final Iterator<?> iterator, final int n, final SplittableRandom random) {
+		if (n <= 0) {
+			return new Object[0];
+		}
+
+		/* The reservoir grows as it fills, since n may exceed the elements. */
+		Object[] reservoir = new Object[Math.min(n, 16)];
+		int length = 0;
+		while (length < n && iterator.hasNext()) {
+			if (length == reservoir.length) {
+				reservoir = Arrays.copyOf(reservoir, (int) Math.min(n, (long) length << 1));
+			}
+			reservoir[length++] = iterator.next();
+		}
+		if (length < n) {
+			return shuffled(Arrays.copyOf(reservoir, length), random);
+		}
+
+		double weight = weight(n, random);
+		for (;;) {
+			for (long skip = skip(weight, random); skip > 0; --skip) {
+				if (!iterator.hasNext()) {
+					return shuffled(reservoir, random);
+				}
+				iterator.next();
+			}
+			if (!iterator.hasNext()) {
+				return shuffled(reservoir, random);
+			}
+			reservoir[random.nextInt(n)] = iterator.next();
+			weight *= weight(n, random);
+		}
+	}
+
+	static Object[] sample(final IntFunction<?> source, final int size, final int n, final SplittableRandom random) {
+		if (n <= 0) {
+			return new Object[0];
+		}
+
+		final int length = Math.min(n, size);
+		final Object[] reservoir = new Object[length];
+		for (int i = 0; i < length; ++i) {
+			reservoir[i] = source.apply(i);
+		}
+		if (length < n) {
+			return shuffled(reservoir, random);
+		}
+
+		double weight = weight(n, random);
+		for (long i = n + skip(weight, random); i < size; i += skip(weight, random) + 1) {
+			reservoir[random.nextInt(n)] = source.apply((int) i);
+			weight *= weight(n, random);
+		}
+		return shuffled(reservoir, random);
+	}
+
+	/*
+	 * Uniform numbers are drawn from (0, 1] so that their logarithm is finite.
+	 */
+	private static double weight(final int n, final SplittableRandom random) {
+		return Math.exp(Math.log(1.0 - random.nextDouble()) / n);
+	}
+
+	private static long skip(final double weight, final SplittableRandom random) {
+		final double skip = Math.floor(Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - weight));
+		return (skip < Integer.MAX_VALUE) ? (long) skip : Integer.MAX_VALUE;
+	}
+
+	private static Object[] shuffled(final Object[] reservoir, final SplittableRandom random) {
+		_.shuffle(reservoir, random::nextInt);
+		return reservoir;
+	}
+}
@@ -0,0 +1,136 @@
+package com.underscore;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * The fills behind {@link _#parallelTimes} and {@link _#virtualTimes}. Both
+ * write each result to its own index of one array, so no result is copied or
+ * merged. The fork/join fill splits the indexes into a few chunks per thread
+ * of the pool. The blocking fill starts a fixed number of workers, each
+ * taking the next index from a shared counter until none is left, so the
+ * number of calls in flight is bounded however large n is.
+ */
+final class Times {
+
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private Times() {
+	}
+
+	static Object[] parallel(final int n, final IntFunction<?> iterator, final ForkJoinPool pool) {
+		final Object[] results = new Object[n];
+		final int chunks = Math.max(1, Math.min(n, pool.getParallelism() * CHUNKS_PER_THREAD));
+		pool.invoke(new Fill(results, iterator, chunks, 0, chunks));
+		return results;
+	}
+
+	/*
+	 * The first failure completes done at once and shuts the executor down,
+	 * which interrupts the calls still in flight, rather than waiting for the
+	 * workers ahead of it to finish.
+	 */
+	static Object[] blocking(final int n, final IntFunction<?> iterator, final int maxConcurrency) {
+		final Object[] results = new Object[n];
+		final int workers = Math.min(n, maxConcurrency);
+		final AtomicInteger next = new AtomicInteger();
+		final AtomicInteger running = new AtomicInteger(workers);
+		final CompletableFuture<Void> done = new CompletableFuture<>();
+		final ExecutorService executor = VirtualThreads.newExecutor(workers);
+		try {
+			for (int w = 0; w < workers; ++w) {
+				final Runnable worker = () -> {
+					try {
+						for (int i; !done.isDone() && (i = next.getAndIncrement()) < n;) {
+							results[i] = iterator.apply(i);
+						}
+					} catch (final Throwable e) {
+						if (done.completeExceptionally(e)) {
+							executor.shutdownNow();
+						}
+					} finally {
+						if (running.decrementAndGet() == 0) {
+							done.complete(null);
+						}
+					}
+				};
+				try {
+					executor.execute(worker);
+				} catch (final RejectedExecutionException e) {
+					// Shut down by a worker that has already failed.
+					if (!done.isDone()) {
+						throw e;
+					}
+					break;
+				}
+			}
+			done.get();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new CompletionException(cause);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			final CancellationException cancelled = new CancellationException("Interrupted while waiting for times");
+			cancelled.initCause(e);
+			throw cancelled;
+		} finally {
+			executor.shutdownNow();
+		}
+		return results;
+	}
+
+	/*
+	 * Fills the chunks from inclusive to to exclusive, of chunks in all.
+	 */
+	private static final class Fill extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Object[] results;
+
+		private final IntFunction<?> iterator;
+
+		private final int chunks;
+
+		private final int from;
+
+		private final int to;
+
+		Fill(final Object[] results, final IntFunction<?> iterator, final int chunks, final int from, final int to) {
+			this.results = results;
+			this.iterator = iterator;
+			this.chunks = chunks;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				final int mid = (from + to) >>> 1;
+				invokeAll(new Fill(results, iterator, chunks, from, mid), new Fill(results, iterator, chunks, mid, to));
+				return;
+			}
+
+			final int length = results.length;
+			final int end = (int) ((long) to * length / chunks);
+			for (int i = (int) ((long) from * length / chunks); i < end; ++i) {
+				results[i] = iterator.apply(i);
+			}
+		}
+	}
+}
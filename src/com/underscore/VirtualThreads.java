@@ -0,0 +1,62 @@
+package com.underscore;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executors for blocking work. On Java 21 and later they start a virtual
+ * thread per task, through {@code Executors.newVirtualThreadPerTaskExecutor}
+ * looked up once by reflection since this library builds for Java 8; before
+ * that they fall back to a fixed pool of daemon platform threads.
+ */
+public final class VirtualThreads {
+
+	/*
+	 * Executors.newVirtualThreadPerTaskExecutor, or null before Java 21.
+	 */
+	private static final MethodHandle NEW_EXECUTOR = findNewExecutor();
+
+	private static final ThreadFactory DAEMON_FACTORY = (task) -> {
+		final Thread thread = Executors.defaultThreadFactory().newThread(task);
+		thread.setDaemon(true);
+		return thread;
+	};
+
+	private VirtualThreads() {
+	}
+
+	private static MethodHandle findNewExecutor() {
+		try {
+			return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+					MethodType.methodType(ExecutorService.class));
+		} catch (final ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	public static boolean available() {
+		return NEW_EXECUTOR != null;
+	}
+
+	/**
+	 * An executor to be shut down by the caller. platformThreads is the size
+	 * of the fallback pool, so it should be the number of tasks that are
+	 * meant to run at once.
+	 */
+	public static ExecutorService newExecutor(final int platformThreads) {
+		if (NEW_EXECUTOR != null) {
+			try {
+				return (ExecutorService) NEW_EXECUTOR.invokeExact();
+			} catch (final RuntimeException | Error e) {
+				throw e;
+			} catch (final Throwable e) {
+				throw new IllegalStateException("Could not start virtual threads", e);
+			}
+		}
+		return Executors.newFixedThreadPool(Math.max(1, platformThreads), DAEMON_FACTORY);
+	}
+}
@@ -1,8 +1,18 @@
 package com.underscore;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -13,33 +23,74 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.ListIterator;
+import java.util.RandomAccess;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
 
 import com.underscore.chain.ArrayChain;
 import com.underscore.chain.CollectionChain;
+import com.underscore.chain.DirectDoubleArray;
+import com.underscore.chain.DirectLongArray;
+import com.underscore.chain.DoubleArrayChain;
+import com.underscore.chain.IntArrayChain;
+import com.underscore.chain.IntRange;
+import com.underscore.chain.LongArrayChain;
+import com.underscore.chain.LongDoubleMap;
+import com.underscore.chain.LongDoubleMapChain;
+import com.underscore.chain.LongLongMap;
+import com.underscore.chain.LongLongMapChain;
+import com.underscore.chain.LongObjectMap;
+import com.underscore.chain.LongObjectMapChain;
+import com.underscore.chain.LongRange;
+import com.underscore.chain.LongSet;
 import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
+import com.underscore.chain.OffHeapDoubleChain;
+import com.underscore.chain.OffHeapLongChain;
+import com.underscore.chain.ParallelCollectionChain;
 import com.underscore.chain.impl.BooleanChainImpl;
 import com.underscore.chain.impl.ByteChainImpl;
 import com.underscore.chain.impl.CharChainImpl;
 import com.underscore.chain.impl.CollectionChainImpl;
-import com.underscore.chain.impl.DoubleChainImpl;
+import com.underscore.chain.impl.DoubleArrayChainImpl;
 import com.underscore.chain.impl.FloatChainImpl;
-import com.underscore.chain.impl.IntChainImpl;
-import com.underscore.chain.impl.LongChainImpl;
+import com.underscore.chain.impl.IntArrayChainImpl;
+import com.underscore.chain.impl.LazyIntArrayChainImpl;
+import com.underscore.chain.impl.LazyLongArrayChainImpl;
+import com.underscore.chain.impl.LongArrayChainImpl;
+import com.underscore.chain.impl.LongDoubleMapChainImpl;
+import com.underscore.chain.impl.LongLongMapChainImpl;
+import com.underscore.chain.impl.LongObjectMapChainImpl;
 import com.underscore.chain.impl.MapChainImpl;
+import com.underscore.chain.impl.OffHeapDoubleChainImpl;
+import com.underscore.chain.impl.OffHeapLongChainImpl;
+import com.underscore.chain.impl.ParallelCollectionChainImpl;
 import com.underscore.chain.impl.ShortChainImpl;
 
 public final class _ {
@@ -54,9 +105,10 @@ public final class _ {
 	 * <p>
 	 * Iterates over a list of elements, yielding each in turn to an iterator
 	 * function. Each invocation of the iterator is called with the value in the
-	 * list as the single argument. Delegates to the
-	 * {@link List#forEach(Consumer)} method, and returns the original list for
-	 * chaining.
+	 * list as the single argument. {@link RandomAccess} lists are walked by
+	 * index; other collections delegate to the
+	 * {@link Collection#forEach(Consumer)} method. Returns the original list
+	 * for chaining.
 	 * </p>
 	 * 
 	 * <p>
@@ -73,6 +125,13 @@ public final class _ {
 	 */
 	public static <T> Collection<T> each(final Collection<T> list, final Consumer<T> iterator) {
 		if (list == null) return list;
+		if (list instanceof RandomAccess) {
+			final List<T> elements = (List<T>) list;
+			for (int i = 0, size = elements.size(); i < size; ++i) {
+				iterator.accept(elements.get(i));
+			}
+			return list;
+		}
 		list.forEach(iterator);
 		return list;
 	}
@@ -139,8 +198,8 @@ public final class _ {
 	 * @return
 	 */
 	public static <T, R> Collection<R> map(final Collection<T> list, Function<? super T, ? extends R> iterator) {
-		final List<R> results = new LinkedList<R>();
-		if (list == null) return results;
+		if (list == null) return new ArrayList<R>(0);
+		final List<R> results = new ArrayList<R>(list.size());
 
 		each(list, (value) -> results.add(iterator.apply(value)));
 		return results;
@@ -158,8 +217,8 @@ public final class _ {
 	}
 
 	public static <K, V, R> Collection<R> map(Map<K, V> map, final BiFunction<? super K, ? super V, R> iterator) {
-		final List<R> results = new LinkedList<R>();
-		if (map == null) return results;
+		if (map == null) return new ArrayList<R>(0);
+		final List<R> results = new ArrayList<R>(map.size());
 		
 		each(map, (k, v) -> results.add(iterator.apply(k, v)));
 		return results;
@@ -174,6 +233,13 @@ public final class _ {
 		if (collection == null) return memo;
 
 		T result = memo;
+		if (collection instanceof RandomAccess) {
+			final List<T> elements = (List<T>) collection;
+			for (int i = 0, size = elements.size(); i < size; ++i) {
+				result = iterator.apply(elements.get(i), result);
+			}
+			return result;
+		}
 		for (T value : collection) {
 			result = iterator.apply(value, result);
 		}
@@ -185,6 +251,13 @@ public final class _ {
 		if (collection == null) return memo;
 		
 		U result = memo;
+		if (collection instanceof RandomAccess) {
+			final List<T> elements = (List<T>) collection;
+			for (int i = 0, size = elements.size(); i < size; ++i) {
+				result = iterator.apply(elements.get(i), result);
+			}
+			return result;
+		}
 		for (T value : collection) {
 			result = iterator.apply(value, result);
 		}
@@ -240,6 +313,16 @@ public final class _ {
 
 
 	public static <T> T find(final Collection<T> collection, final Predicate<T> predicate) {
+		if (collection instanceof RandomAccess) {
+			final List<T> elements = (List<T>) collection;
+			for (int i = 0, size = elements.size(); i < size; ++i) {
+				final T value = elements.get(i);
+				if (predicate.test(value)) {
+					return value;
+				}
+			}
+			return null;
+		}
 		for (T value : collection) {
 			if (predicate.test(value)) {
 				return value;
@@ -263,7 +346,7 @@ public final class _ {
 
 
 	public static <T> Collection<T> filter(Collection<T> collection, final Predicate<T> predicate) {
-		final List<T> results = new LinkedList<>();
+		final List<T> results = new ArrayList<>();
 		if (collection == null) return results;
 		each(collection, (value) -> {
 			if (predicate.test(value)) {
@@ -274,14 +357,15 @@ public final class _ {
 	}
 	
 	public static <T> T[] filter(final T[] array, final Predicate<T> predicate) {
-		if (array == null) return newArray(array, 0);
-		final List<T> results = new LinkedList<>();
-		each(array, (val) -> {
-			if (predicate.test(val)) {
-				results.add(val);
+		if (array == null) return array;
+		final T[] results = newArray(array, array.length);
+		int length = 0;
+		for (T value : array) {
+			if (predicate.test(value)) {
+				results[length++] = value;
 			}
-		});
-		return results.toArray(newArray(array, results.size()));
+		}
+		return (length == results.length) ? results : Arrays.copyOf(results, length);
 	}
 
 	/*
@@ -377,6 +461,29 @@ public final class _ {
 			return target == null ? value == null : target.equals(value);
 		});
 	}
+
+	public static <T extends Comparable<? super T>> boolean contains(final Collection<T> collection, final T target, final boolean isSorted) {
+		if (isSorted && collection instanceof List) {
+			return indexOf((List<T>) collection, target, true) >= 0;
+		}
+		return contains(collection, target);
+	}
+
+	public static <T extends Comparable<? super T>> boolean contains(final T[] array, final T target, final boolean isSorted) {
+		return indexOf(array, target, isSorted) >= 0;
+	}
+
+	public static boolean contains(final int[] array, final int target, final boolean isSorted) {
+		return indexOf(array, target, isSorted) >= 0;
+	}
+
+	public static boolean contains(final long[] array, final long target, final boolean isSorted) {
+		return indexOf(array, target, isSorted) >= 0;
+	}
+
+	public static boolean contains(final double[] array, final double target, final boolean isSorted) {
+		return indexOf(array, target, isSorted) >= 0;
+	}
 	
 	
 	/*
@@ -393,18 +500,50 @@ public final class _ {
 	 */
 	
 	
-//	public static <T> Collection<T> where(final Collection<T> list /*, attrs */) {
-//		
-//	}
-	
-	/*
-	 * 
+	/**
+	 * <p>
+	 * Returns the maps in collection that have all the key-value pairs of
+	 * attrs. The attributes are compiled into flat arrays once, see
+	 * {@link #matches(Map)}; to run many queries over the same records, build
+	 * an {@link #index(Collection, Object...)} of them.
+	 * </p>
 	 */
+	public static <K, V, M extends Map<K, V>> List<M> where(final Collection<M> collection, final Map<? extends K, ? extends V> attrs) {
+		final List<M> results = new ArrayList<>();
+		if (collection == null) return results;
+		final Predicate<Map<K, V>> matcher = matches(attrs);
+		each(collection, (value) -> {
+			if (matcher.test(value)) {
+				results.add(value);
+			}
+		});
+		return results;
+	}
 	
+	public static <K, V, M extends Map<K, V>> M findWhere(final Collection<M> collection, final Map<? extends K, ? extends V> attrs) {
+		if (collection == null) return null;
+		final Predicate<Map<K, V>> matcher = matches(attrs);
+		for (M value : collection) {
+			if (matcher.test(value)) {
+				return value;
+			}
+		}
+		return null;
+	}
 	
-//	public static <T> Collection<T> findWhere(final Collection<T> list /*, attrs */) {
-//		
-//	}
+	/**
+	 * <p>
+	 * Builds a hash index of the maps in collection by the values of
+	 * attrNames, so that {@link AttributeIndex#where(Map)} queries that give
+	 * all of those attributes look up their candidates instead of scanning
+	 * every map. The maps must not change their values of attrNames while
+	 * the index is in use.
+	 * </p>
+	 */
+	@SafeVarargs
+	public static <K, V, M extends Map<K, V>> AttributeIndex<K, V, M> index(final Collection<M> collection, final K... attrNames) {
+		return new AttributeIndex<>((collection == null) ? Collections.<M>emptyList() : collection, attrNames);
+	}
 	
 	/*
 	 * 
@@ -552,289 +691,1431 @@ public final class _ {
 		return result;
 	}
 	
-	/*
-	 * 
+	/**
+	 * <p>
+	 * Shuffles a list in place with the Fisher-Yates algorithm, drawing from
+	 * a new {@link SplittableRandom} so that concurrent shuffles do not
+	 * contend on a shared generator.
+	 * </p>
 	 */
-	
-	
 	public static <T> void shuffle(final List<T> list) {
-		Collections.shuffle(list);
+		if (list == null) return;
+		shuffle(list, new SplittableRandom()::nextInt);
 	}
 	
-	public static <T> void shuffle(final T[] array) {
-		int rand;
-		int index = 0;
-		final int length = array.length;
-		final T[] shuffled = newArray(array, length);
-		for (T value : array) {
-			rand = random(index++);
-			shuffled[index - 1] = shuffled[rand];
-			shuffled[rand] = value;
+	/**
+	 * <p>
+	 * Shuffles a list in place with the Fisher-Yates algorithm. nextInt
+	 * returns a random int between 0 inclusive and the bound it is given
+	 * exclusive, such as {@code random::nextInt} of a {@link SplittableRandom}
+	 * or a seeded {@link java.util.Random} for a repeatable order. A list
+	 * without random access is shuffled through an array and written back.
+	 * </p>
+	 */
+	public static <T> void shuffle(final List<T> list, final IntUnaryOperator nextInt) {
+		if (list == null) return;
+		if (list instanceof RandomAccess) {
+			for (int i = list.size() - 1; i > 0; --i) {
+				final int rand = nextInt.applyAsInt(i + 1);
+				list.set(i, list.set(rand, list.get(i)));
+			}
+			return;
 		}
 		
-		for (int i = 0; i < length; ++i) {
-			array[i] = (T) shuffled[i];
+		final Object[] array = list.toArray();
+		shuffle(array, nextInt);
+		final ListIterator<T> it = list.listIterator();
+		for (Object value : array) {
+			it.next();
+			@SuppressWarnings("unchecked")
+			final T element = (T) value;
+			it.set(element);
 		}
 	}
 	
-	public static <T extends Comparable<? super T>> void sort(final List<T> list) {
-		Collections.sort(list);
+	/**
+	 * <p>
+	 * Shuffles an array in place with the Fisher-Yates algorithm, drawing
+	 * from a new {@link SplittableRandom}.
+	 * </p>
+	 */
+	public static <T> void shuffle(final T[] array) {
+		if (array == null) return;
+		shuffle(array, new SplittableRandom()::nextInt);
 	}
 	
-	public static <T> void sort(final List<T> list, final Comparator<? super T> comp) {
-		Collections.sort(list, comp);
+	/**
+	 * <p>
+	 * Shuffles an array in place with the Fisher-Yates algorithm, drawing
+	 * from nextInt as {@link #shuffle(List, IntUnaryOperator)} does.
+	 * </p>
+	 */
+	public static <T> void shuffle(final T[] array, final IntUnaryOperator nextInt) {
+		if (array == null) return;
+		for (int i = array.length - 1; i > 0; --i) {
+			final int rand = nextInt.applyAsInt(i + 1);
+			final T value = array[i];
+			array[i] = array[rand];
+			array[rand] = value;
+		}
 	}
 	
-	public static void sort(final Object[] array) {
-		Arrays.sort(array);
+	public static void shuffle(final int[] array) {
+		if (array == null) return;
+		shuffle(array, 0, array.length, new SplittableRandom()::nextInt);
 	}
 	
-	public static <T> void sort(final T[] array, final Comparator<? super T> comp) {
-		Arrays.sort(array, comp);
+	public static void shuffle(final int[] array, final IntUnaryOperator nextInt) {
+		if (array == null) return;
+		shuffle(array, 0, array.length, nextInt);
 	}
 	
-	// sample
-	// sortBy
-	// groupBy
-	// indexBy
-	// countBy
-	// sortedIndex
-//	public static <T> int sortedIndex(final Collection<? extends Comparable<? super T>> list, final T target) {
-//		if (list == null) return -1;
-//		if (list instanceof List) {
-//			return Collections.binarySearch((List) list, target);
-//		}
-//		
-//		int low = 0, high = list.size() - 1;
-//		while (low < high) {
-//			int mid = (low + high) >>> 1;
-//			Comparable<? super T> midValue;
-//		}
-//		return low;
-//	}
-	
-	// toArray
-	
-	private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
-	
-	public static <T> Object[] toArray(final Collection<T> list) {
-		if (list == null) {
-			return EMPTY_OBJECT_ARRAY;
+	/**
+	 * <p>
+	 * Shuffles the elements of an array from fromIndex inclusive to toIndex
+	 * exclusive in place, drawing from nextInt as
+	 * {@link #shuffle(List, IntUnaryOperator)} does.
+	 * </p>
+	 */
+	public static void shuffle(final int[] array, final int fromIndex, final int toIndex, final IntUnaryOperator nextInt) {
+		checkRange(array.length, fromIndex, toIndex);
+		for (int i = toIndex - fromIndex - 1; i > 0; --i) {
+			final int rand = fromIndex + nextInt.applyAsInt(i + 1);
+			final int value = array[fromIndex + i];
+			array[fromIndex + i] = array[rand];
+			array[rand] = value;
 		}
-		return list.toArray();
 	}
 	
-	public static <K, V> Object[] toArray(final Map<K, V> map) {
-		if (map == null) {
-			return EMPTY_OBJECT_ARRAY;
-		}
-		return values(map).toArray();
+	public static void shuffle(final long[] array) {
+		if (array == null) return;
+		shuffle(array, 0, array.length, new SplittableRandom()::nextInt);
 	}
 	
-	public static int size(final Iterable<?> iterable) {
-		if (iterable == null) return 0;
-		if (iterable instanceof Collection) {
-			return ((Collection<?>) iterable).size();
-		}
-		
-		int i = 0;
-		for (Object value : iterable) {
-			++i;
-		}
-		return i;
+	public static void shuffle(final long[] array, final IntUnaryOperator nextInt) {
+		if (array == null) return;
+		shuffle(array, 0, array.length, nextInt);
 	}
 	
-	public static <T> int size(final T[] array) {
-		if (array == null) return 0;
-		return array.length;
+	public static void shuffle(final long[] array, final int fromIndex, final int toIndex, final IntUnaryOperator nextInt) {
+		checkRange(array.length, fromIndex, toIndex);
+		for (int i = toIndex - fromIndex - 1; i > 0; --i) {
+			final int rand = fromIndex + nextInt.applyAsInt(i + 1);
+			final long value = array[fromIndex + i];
+			array[fromIndex + i] = array[rand];
+			array[rand] = value;
+		}
 	}
 	
-	public static int size(final Map<?, ?> map) {
-		if (map == null) return 0;
-		return map.size();
+	public static void shuffle(final double[] array) {
+		if (array == null) return;
+		shuffle(array, 0, array.length, new SplittableRandom()::nextInt);
 	}
 	
+	public static void shuffle(final double[] array, final IntUnaryOperator nextInt) {
+		if (array == null) return;
+		shuffle(array, 0, array.length, nextInt);
+	}
 	
+	public static void shuffle(final double[] array, final int fromIndex, final int toIndex, final IntUnaryOperator nextInt) {
+		checkRange(array.length, fromIndex, toIndex);
+		for (int i = toIndex - fromIndex - 1; i > 0; --i) {
+			final int rand = fromIndex + nextInt.applyAsInt(i + 1);
+			final double value = array[fromIndex + i];
+			array[fromIndex + i] = array[rand];
+			array[rand] = value;
+		}
+	}
 	
-	/*
-	 * Arrays
+	/**
+	 * <p>
+	 * Returns a random element of a collection, or null if it is empty.
+	 * </p>
 	 */
-	
-	static <T> T[] newArray(T[] reference, final int length) {
-		Class<?> clazz = reference.getClass().getComponentType();
-		
-		@SuppressWarnings("unchecked")
-		T[] result = (T[]) Array.newInstance(clazz, length);
-		return result;
+	public static <T> T sample(final Collection<T> collection) {
+		final List<T> sample = sample(collection, 1);
+		return sample.isEmpty() ? null : sample.get(0);
 	}
 	
-	public static Object[] concat(final Object[]... values) {
-		final List<Object> results = new ArrayList<>();
-		for (Object[] array : values) {
-			results.addAll(Arrays.asList(array));
+	/**
+	 * <p>
+	 * Returns n random elements of a collection in random order, or all of
+	 * them shuffled if it has fewer. The elements are chosen in one pass by
+	 * reservoir sampling, which skips a random number of elements between
+	 * picks; a list with random access jumps over them, so a small sample of
+	 * a large list touches only a few of its elements.
+	 * </p>
+	 */
+	public static <T> List<T> sample(final Collection<T> collection, final int n) {
+		if (collection == null || n <= 0) return new ArrayList<>();
+		final SplittableRandom random = new SplittableRandom();
+		if (collection instanceof List && collection instanceof RandomAccess) {
+			final List<T> list = (List<T>) collection;
+			return sampleList(Reservoir.sample(list::get, list.size(), n, random));
 		}
-		return results.toArray();
+		return sampleList(Reservoir.sample(collection.iterator(), Math.min(n, collection.size()), random));
 	}
 	
+	/**
+	 * <p>
+	 * Returns n random elements of an iterator in random order, or all of
+	 * them shuffled if it has fewer, consuming it in one pass. Only the
+	 * sample is held in memory, so the iterator may be of any length.
+	 * </p>
+	 */
+	public static <T> List<T> sample(final Iterator<T> iterator, final int n) {
+		if (iterator == null || n <= 0) return new ArrayList<>();
+		return sampleList(Reservoir.sample(iterator, n, new SplittableRandom()));
+	}
 	
-	public static <T> T first(final T[] array) {
+	/**
+	 * <p>
+	 * Returns a random element of an array, or null if it is empty.
+	 * </p>
+	 */
+	public static <T> T sample(final T[] array) {
 		if (array == null || array.length == 0) return null;
-		return array[0];
+		return array[new SplittableRandom().nextInt(array.length)];
 	}
 	
-	// initial
+	/**
+	 * <p>
+	 * Returns a new array of n random elements of an array in random order,
+	 * or all of them shuffled if it has fewer, chosen as
+	 * {@link #sample(Collection, int)} does.
+	 * </p>
+	 */
+	public static <T> T[] sample(final T[] array, final int n) {
+		if (array == null) return null;
+		if (n <= 0) return newArray(array, 0);
+		final Object[] sample = Reservoir.sample((index) -> array[index], array.length, n, new SplittableRandom());
+		final T[] results = newArray(array, sample.length);
+		System.arraycopy(sample, 0, results, 0, sample.length);
+		return results;
+	}
 	
-	public static <T> T last(final T[] array) {
-		if (array == null || array.length == 0) return null;
-		return array[array.length - 1];
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> sampleList(final Object[] sample) {
+		return new ArrayList<>((List<T>) Arrays.asList(sample));
 	}
 	
-	// rest/tail/drop
+	public static <T extends Comparable<? super T>> void sort(final List<T> list) {
+		Collections.sort(list);
+	}
 	
-	public static <T> T[] compact(final T[] array) {
-		return filter(array, (value) -> {
-			return value != null && !isEmpty(value);
-		});
+	public static <T> void sort(final List<T> list, final Comparator<? super T> comp) {
+		Collections.sort(list, comp);
 	}
 	
-	// flatten
+	public static void sort(final Object[] array) {
+		Arrays.sort(array);
+	}
 	
-//	public static Collection<Object> flatten(final Collection<?> collection, final boolean shallow) {
-//		return flatten(collection, shallow, new ArrayList<Object>());
-//	}
-//	
-//	private static Collection<Object> flatten(final Collection<?> collection, final boolean shallow, final List<Object> output) {
-//		if (shallow && _.every(collection, _::isCollection)) {
-//			return _.concat(output, collection);
-//		}
-//		for (Object element : collection) {
-//			if (_.isCollection(element)) {
-//				if (shallow) {
-//					output.addAll((Collection<?>) element);
-//				} else {
-//					flatten((Collection<?>) element, shallow, output);
-//				}
-//			} else {
-//				output.add(element);
-//			}
-//		}
-//		return output;
-//	}
+	public static <T> void sort(final T[] array, final Comparator<? super T> comp) {
+		Arrays.sort(array, comp);
+	}
 	
-	public static <T> Collection<T> without(final Collection<T> collection, final T... values) {
-		return _.difference(collection, values);
+	/**
+	 * <p>
+	 * Returns a sorted copy of a collection, ordered by the key iterator
+	 * returns for each element. Each key is computed once, so an expensive key
+	 * such as a parsed date costs n calls rather than n log n. The sort is
+	 * stable. {@link #sortByInt}, {@link #sortByLong} and
+	 * {@link #sortByDouble} take primitive keys and do not box them.
+	 * </p>
+	 */
+	public static <T, U extends Comparable<? super U>> List<T> sortBy(final Collection<T> collection, final Function<? super T, ? extends U> iterator) {
+		return sortBy(collection, iterator, Comparator.<U>naturalOrder());
 	}
 	
-	public static <T> T[] without(final T[] array, final T... values) {
-		return _.difference(array, values);
+	public static <T, U> List<T> sortBy(final Collection<T> collection, final Function<? super T, ? extends U> iterator, final Comparator<? super U> comp) {
+		if (collection == null) return new ArrayList<T>(0);
+		final Object[] values = collection.toArray();
+		return sortedList(values, KeySort.order(objectKeys(values, iterator), comp));
 	}
 	
+	public static <T> List<T> sortByInt(final Collection<T> collection, final ToIntFunction<? super T> iterator) {
+		if (collection == null) return new ArrayList<T>(0);
+		final Object[] values = collection.toArray();
+		return sortedList(values, KeySort.order(intKeys(values, iterator)));
+	}
 	
-	public static <T> Map<Boolean, List<T>> partition(final T[] array, final Predicate<? super T> predicate) {
-		final Map<Boolean, List<T>> results = new HashMap<>();
-		results.put(true, new LinkedList<T>());
-		results.put(false, new LinkedList<T>());
-		each(array, (value) -> {
-			results.get(predicate.test(value)).add(value);
-		});
-		return results;
+	public static <T> List<T> sortByLong(final Collection<T> collection, final ToLongFunction<? super T> iterator) {
+		if (collection == null) return new ArrayList<T>(0);
+		final Object[] values = collection.toArray();
+		return sortedList(values, KeySort.order(longKeys(values, iterator)));
 	}
 	
-	public static <T> Map<Boolean, List<T>> partition(final Collection<T> collection, final Predicate<? super T> predicate) {
-		final Map<Boolean, List<T>> results = new HashMap<>();
-		results.put(true, new LinkedList<T>());
-		results.put(false, new LinkedList<T>());
-		each(collection, (value) -> {
-			results.get(predicate.test(value)).add(value);
-		});
-		return results;
+	public static <T> List<T> sortByDouble(final Collection<T> collection, final ToDoubleFunction<? super T> iterator) {
+		if (collection == null) return new ArrayList<T>(0);
+		final Object[] values = collection.toArray();
+		return sortedList(values, KeySort.order(doubleKeys(values, iterator)));
 	}
 	
-	public static <T> Collection<T> unique(final Collection<T> collection) {
-		return new HashSet<>(collection);
+	public static <T, U extends Comparable<? super U>> T[] sortBy(final T[] array, final Function<? super T, ? extends U> iterator) {
+		return sortBy(array, iterator, Comparator.<U>naturalOrder());
 	}
 	
-	public static <T> T[] unique(final T[] array) {
+	public static <T, U> T[] sortBy(final T[] array, final Function<? super T, ? extends U> iterator, final Comparator<? super U> comp) {
 		if (array == null) return array;
-		final Set<T> set = new HashSet<T>(array.length);
-		for (T value : array) {
-			set.add(value);
-		}
-		
-		return set.toArray(newArray(array, set.size()));
+		return sortedArray(array, KeySort.order(objectKeys(array, iterator), comp));
 	}
 	
-	// union
-	// intersection
-	
-	public static <T> Collection<T> difference(final Collection<T> collection, final T... rest) {
-		return filter(collection, (value) -> !contains(rest, value));
+	public static <T> T[] sortByInt(final T[] array, final ToIntFunction<? super T> iterator) {
+		if (array == null) return array;
+		return sortedArray(array, KeySort.order(intKeys(array, iterator)));
 	}
 	
-	public static <T> T[] difference(final T[] array, final T... rest) {
-		return filter(array, (value) -> !contains(rest, value));
+	public static <T> T[] sortByLong(final T[] array, final ToLongFunction<? super T> iterator) {
+		if (array == null) return array;
+		return sortedArray(array, KeySort.order(longKeys(array, iterator)));
 	}
 	
-	// zip
-	// object
+	public static <T> T[] sortByDouble(final T[] array, final ToDoubleFunction<? super T> iterator) {
+		if (array == null) return array;
+		return sortedArray(array, KeySort.order(doubleKeys(array, iterator)));
+	}
 	
-
-	public static <T> int indexOf(final T[] array, final T target) {
-		if (array == null) {
-			return -1;
-		}
-		for (int i = 0; i < array.length; ++i) {
-			if (target == null ? array[i] == null : target.equals(array[i])) {
-				return i;
-			}
+	@SuppressWarnings("unchecked")
+	private static <T> Object[] objectKeys(final Object[] values, final Function<? super T, ?> iterator) {
+		final Object[] keys = new Object[values.length];
+		for (int i = 0; i < values.length; ++i) {
+			keys[i] = iterator.apply((T) values[i]);
 		}
-		
-		return -1;
+		return keys;
 	}
 	
-	public static <T> int lastIndexOf(final T[] array, final T target) {
-		return lastIndexOf(array, target, array.length);
+	@SuppressWarnings("unchecked")
+	private static <T> int[] intKeys(final Object[] values, final ToIntFunction<? super T> iterator) {
+		final int[] keys = new int[values.length];
+		for (int i = 0; i < values.length; ++i) {
+			keys[i] = iterator.applyAsInt((T) values[i]);
+		}
+		return keys;
 	}
 	
-	public static <T> int lastIndexOf(final T[] array, final T target, final int from) {
-		if (array == null) {
-			return -1;
-		}
-		
-		final int length = array.length;
-		int i = (from > length || from < 0) ? length : from;
-		while (i-- > -1) {
-			if (target == null ? array[i] == null : target.equals(array[i])) {
-				return i;
-			}
+	@SuppressWarnings("unchecked")
+	private static <T> long[] longKeys(final Object[] values, final ToLongFunction<? super T> iterator) {
+		final long[] keys = new long[values.length];
+		for (int i = 0; i < values.length; ++i) {
+			keys[i] = iterator.applyAsLong((T) values[i]);
 		}
-		return -1;
+		return keys;
 	}
 	
+	@SuppressWarnings("unchecked")
+	private static <T> double[] doubleKeys(final Object[] values, final ToDoubleFunction<? super T> iterator) {
+		final double[] keys = new double[values.length];
+		for (int i = 0; i < values.length; ++i) {
+			keys[i] = iterator.applyAsDouble((T) values[i]);
+		}
+		return keys;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> sortedList(final Object[] values, final int[] order) {
+		final List<T> results = new ArrayList<T>(order.length);
+		for (int i = 0; i < order.length; ++i) {
+			results.add((T) values[order[i]]);
+		}
+		return results;
+	}
+	
+	private static <T> T[] sortedArray(final T[] array, final int[] order) {
+		final T[] results = Arrays.copyOf(array, array.length);
+		for (int i = 0; i < order.length; ++i) {
+			results[i] = array[order[i]];
+		}
+		return results;
+	}
+	
+	/**
+	 * <p>
+	 * Splits a collection into groups by the key iterator returns for each
+	 * element, looking each key up once. The groups are fixed-size lists in
+	 * the order of the collection, and the keys are in the order they were
+	 * first seen.
+	 * </p>
+	 */
+	public static <T, K> Map<K, List<T>> groupBy(final Iterable<T> collection, final Function<? super T, ? extends K> iterator) {
+		final Grouping<T, K> grouping = new Grouping<>(iterator);
+		if (collection != null) {
+			collection.forEach(grouping);
+		}
+		return grouping.groups();
+	}
+	
+	public static <T, K> Map<K, List<T>> groupBy(final T[] array, final Function<? super T, ? extends K> iterator) {
+		final Grouping<T, K> grouping = new Grouping<>(iterator);
+		each(array, grouping);
+		return grouping.groups();
+	}
+	
+	/**
+	 * <p>
+	 * Maps the key iterator returns for each element of a collection to the
+	 * element. When several elements have the same key, the last one wins.
+	 * </p>
+	 */
+	public static <T, K> Map<K, T> indexBy(final Iterable<T> collection, final Function<? super T, ? extends K> iterator) {
+		final Map<K, T> results = new LinkedHashMap<>();
+		if (collection != null) {
+			collection.forEach((value) -> results.put(iterator.apply(value), value));
+		}
+		return results;
+	}
+	
+	public static <T, K> Map<K, T> indexBy(final T[] array, final Function<? super T, ? extends K> iterator) {
+		final Map<K, T> results = new LinkedHashMap<>();
+		each(array, (value) -> results.put(iterator.apply(value), value));
+		return results;
+	}
+	
+	/**
+	 * <p>
+	 * Counts the elements of a collection by the key iterator returns for
+	 * each. The counts are kept as {@code int}s, so counting takes one lookup
+	 * and no allocation per element; {@link ObjectIntMap#toMap()} converts
+	 * them to a {@code Map}.
+	 * </p>
+	 */
+	public static <T, K> ObjectIntMap<K> countBy(final Iterable<T> collection, final Function<? super T, ? extends K> iterator) {
+		final ObjectIntMap<K> results = new ObjectIntMap<>();
+		if (collection != null) {
+			collection.forEach((value) -> results.addTo(iterator.apply(value), 1));
+		}
+		return results;
+	}
+	
+	public static <T, K> ObjectIntMap<K> countBy(final T[] array, final Function<? super T, ? extends K> iterator) {
+		final ObjectIntMap<K> results = new ObjectIntMap<>();
+		each(array, (value) -> results.addTo(iterator.apply(value), 1));
+		return results;
+	}
+	
+	/**
+	 * <p>
+	 * Uses a binary search to find the lowest index at which value could be
+	 * inserted into a sorted array and keep it sorted, which is the index of
+	 * the first element that is not less than value. Lists that are not
+	 * {@link RandomAccess} are scanned instead.
+	 * </p>
+	 */
+	public static <T extends Comparable<? super T>> int sortedIndex(final T[] array, final T value) {
+		return sortedIndex(array, value, Comparator.<T>naturalOrder());
+	}
+	
+	public static <T> int sortedIndex(final T[] array, final T value, final Comparator<? super T> comp) {
+		return lowerBound(array, (element) -> comp.compare(element, value));
+	}
+	
+	public static <T extends Comparable<? super T>> int sortedIndex(final List<T> list, final T value) {
+		return sortedIndex(list, value, Comparator.<T>naturalOrder());
+	}
+	
+	public static <T> int sortedIndex(final List<T> list, final T value, final Comparator<? super T> comp) {
+		return lowerBound(list, (element) -> comp.compare(element, value));
+	}
+	
+	/**
+	 * <p>
+	 * Like {@link #sortedIndex(Object[], Comparable)} for an array sorted by
+	 * the key iterator returns for each element. The key of value is computed
+	 * once, and that of one element per step of the search.
+	 * </p>
+	 */
+	public static <T, U extends Comparable<? super U>> int sortedIndexBy(final T[] array, final T value, final Function<? super T, ? extends U> iterator) {
+		final U key = iterator.apply(value);
+		return lowerBound(array, (element) -> iterator.apply(element).compareTo(key));
+	}
+	
+	public static <T, U extends Comparable<? super U>> int sortedIndexBy(final List<T> list, final T value, final Function<? super T, ? extends U> iterator) {
+		final U key = iterator.apply(value);
+		return lowerBound(list, (element) -> iterator.apply(element).compareTo(key));
+	}
+	
+	/*
+	 * The index of the first element for which compareToTarget is not
+	 * negative.
+	 */
+	private static <T> int lowerBound(final T[] array, final ToIntFunction<? super T> compareToTarget) {
+		if (array == null) return 0;
+		int low = 0, high = array.length;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (compareToTarget.applyAsInt(array[mid]) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+	
+	private static <T> int lowerBound(final List<T> list, final ToIntFunction<? super T> compareToTarget) {
+		if (list == null) return 0;
+		if (!(list instanceof RandomAccess)) {
+			int index = 0;
+			for (T element : list) {
+				if (compareToTarget.applyAsInt(element) >= 0) {
+					break;
+				}
+				++index;
+			}
+			return index;
+		}
+		
+		int low = 0, high = list.size();
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (compareToTarget.applyAsInt(list.get(mid)) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+	
+	/**
+	 * <p>
+	 * The primitive forms of {@link #sortedIndex(Object[], Comparable)}. The
+	 * search halves the range without branching on the comparison, which
+	 * the JIT can compile to a conditional move, so lookups in large tables
+	 * do not pay for mispredicted branches. Doubles are ordered as by
+	 * {@link Double#compare}.
+	 * </p>
+	 */
+	public static int sortedIndex(final int[] array, final int value) {
+		if (array == null) return 0;
+		return sortedIndex(array, 0, array.length, value);
+	}
+	
+	public static int sortedIndex(final int[] array, final int fromIndex, final int toIndex, final int value) {
+		checkRange(array.length, fromIndex, toIndex);
+		int low = fromIndex;
+		int length = toIndex - fromIndex;
+		while (length > 1) {
+			final int half = length >>> 1;
+			low = (array[low + half - 1] < value) ? low + half : low;
+			length -= half;
+		}
+		return (length == 1 && array[low] < value) ? low + 1 : low;
+	}
+	
+	public static int sortedIndex(final long[] array, final long value) {
+		if (array == null) return 0;
+		return sortedIndex(array, 0, array.length, value);
+	}
+	
+	public static int sortedIndex(final long[] array, final int fromIndex, final int toIndex, final long value) {
+		checkRange(array.length, fromIndex, toIndex);
+		int low = fromIndex;
+		int length = toIndex - fromIndex;
+		while (length > 1) {
+			final int half = length >>> 1;
+			low = (array[low + half - 1] < value) ? low + half : low;
+			length -= half;
+		}
+		return (length == 1 && array[low] < value) ? low + 1 : low;
+	}
+	
+	public static int sortedIndex(final double[] array, final double value) {
+		if (array == null) return 0;
+		return sortedIndex(array, 0, array.length, value);
+	}
+	
+	public static int sortedIndex(final double[] array, final int fromIndex, final int toIndex, final double value) {
+		checkRange(array.length, fromIndex, toIndex);
+		int low = fromIndex;
+		int length = toIndex - fromIndex;
+		while (length > 1) {
+			final int half = length >>> 1;
+			low = (Double.compare(array[low + half - 1], value) < 0) ? low + half : low;
+			length -= half;
+		}
+		return (length == 1 && Double.compare(array[low], value) < 0) ? low + 1 : low;
+	}
+	
+	private static void checkRange(final int length, final int fromIndex, final int toIndex) {
+		if (fromIndex < 0 || toIndex > length || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException("Range: [" + fromIndex + ", " + toIndex + "), length: " + length);
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Returns a sorted array of the elements of a sorted array and of values,
+	 * which need not be sorted. The values are sorted and then merged with the
+	 * array in one pass, instead of being inserted one at a time. A value
+	 * equal to elements of the array goes before them, at its
+	 * {@code sortedIndex}.
+	 * </p>
+	 */
+	public static <T extends Comparable<? super T>> T[] sortedInsert(final T[] array, final T[] values) {
+		final T[] keys = values.clone();
+		Arrays.sort(keys);
+		if (array == null) return keys;
+		
+		final T[] results = Arrays.copyOf(array, array.length + keys.length);
+		int i = 0, j = 0, k = 0;
+		while (i < array.length && j < keys.length) {
+			results[k++] = (keys[j].compareTo(array[i]) <= 0) ? keys[j++] : array[i++];
+		}
+		System.arraycopy(array, i, results, k, array.length - i);
+		System.arraycopy(keys, j, results, k + array.length - i, keys.length - j);
+		return results;
+	}
+	
+	public static int[] sortedInsert(final int[] array, final int... values) {
+		final int[] keys = values.clone();
+		Arrays.sort(keys);
+		if (array == null) return keys;
+		
+		final int[] results = new int[array.length + keys.length];
+		int i = 0, j = 0, k = 0;
+		while (i < array.length && j < keys.length) {
+			results[k++] = (keys[j] <= array[i]) ? keys[j++] : array[i++];
+		}
+		System.arraycopy(array, i, results, k, array.length - i);
+		System.arraycopy(keys, j, results, k + array.length - i, keys.length - j);
+		return results;
+	}
+	
+	public static long[] sortedInsert(final long[] array, final long... values) {
+		final long[] keys = values.clone();
+		Arrays.sort(keys);
+		if (array == null) return keys;
+		
+		final long[] results = new long[array.length + keys.length];
+		int i = 0, j = 0, k = 0;
+		while (i < array.length && j < keys.length) {
+			results[k++] = (keys[j] <= array[i]) ? keys[j++] : array[i++];
+		}
+		System.arraycopy(array, i, results, k, array.length - i);
+		System.arraycopy(keys, j, results, k + array.length - i, keys.length - j);
+		return results;
+	}
+	
+	public static double[] sortedInsert(final double[] array, final double... values) {
+		final double[] keys = values.clone();
+		Arrays.sort(keys);
+		if (array == null) return keys;
+		
+		final double[] results = new double[array.length + keys.length];
+		int i = 0, j = 0, k = 0;
+		while (i < array.length && j < keys.length) {
+			results[k++] = (Double.compare(keys[j], array[i]) <= 0) ? keys[j++] : array[i++];
+		}
+		System.arraycopy(array, i, results, k, array.length - i);
+		System.arraycopy(keys, j, results, k + array.length - i, keys.length - j);
+		return results;
+	}
+	
+	// toArray
+	
+	private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
+	
+	public static <T> Object[] toArray(final Collection<T> list) {
+		if (list == null) {
+			return EMPTY_OBJECT_ARRAY;
+		}
+		return list.toArray();
+	}
+	
+	public static <K, V> Object[] toArray(final Map<K, V> map) {
+		if (map == null) {
+			return EMPTY_OBJECT_ARRAY;
+		}
+		return values(map).toArray();
+	}
+	
+	public static int size(final Iterable<?> iterable) {
+		if (iterable == null) return 0;
+		if (iterable instanceof Collection) {
+			return ((Collection<?>) iterable).size();
+		}
+		
+		int i = 0;
+		for (Object value : iterable) {
+			++i;
+		}
+		return i;
+	}
+	
+	public static <T> int size(final T[] array) {
+		if (array == null) return 0;
+		return array.length;
+	}
+	
+	public static int size(final Map<?, ?> map) {
+		if (map == null) return 0;
+		return map.size();
+	}
+	
+	
+	
+	/*
+	 * Arrays
+	 */
+	
+	static <T> T[] newArray(T[] reference, final int length) {
+		Class<?> clazz = reference.getClass().getComponentType();
+		
+		@SuppressWarnings("unchecked")
+		T[] result = (T[]) Array.newInstance(clazz, length);
+		return result;
+	}
+	
+	public static Object[] concat(final Object[]... values) {
+		int length = 0;
+		for (Object[] array : values) {
+			length += array.length;
+		}
+		final Object[] results = new Object[length];
+		int offset = 0;
+		for (Object[] array : values) {
+			System.arraycopy(array, 0, results, offset, array.length);
+			offset += array.length;
+		}
+		return results;
+	}
+	
+	
+	public static <T> T first(final T[] array) {
+		if (array == null || array.length == 0) return null;
+		return array[0];
+	}
+	
+	// initial
+	
+	public static <T> T last(final T[] array) {
+		if (array == null || array.length == 0) return null;
+		return array[array.length - 1];
+	}
+	
+	// rest/tail/drop
+	
+	public static <T> T[] compact(final T[] array) {
+		return filter(array, (value) -> {
+			return value != null && !isEmpty(value);
+		});
+	}
+	
+	/**
+	 * <p>
+	 * Returns a lazy view of the elements of an iterable with every nested
+	 * iterable and object array unwrapped into its elements, at any depth.
+	 * The nesting is walked with an explicit stack rather than recursion, so
+	 * it may be arbitrarily deep, and elements are produced only as the view
+	 * is iterated. Copying the view, as {@code new ArrayList<>(view)} does,
+	 * counts the elements first and allocates the copy once.
+	 * </p>
+	 */
+	public static Collection<Object> flatten(final Iterable<?> iterable) {
+		return flatten(iterable, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * <p>
+	 * Returns a lazy view of the elements of an iterable with nested
+	 * iterables and object arrays unwrapped up to depth levels down, as
+	 * {@link #flatten(Iterable)} does; a depth of 1 unwraps only the
+	 * iterable's own elements.
+	 * </p>
+	 */
+	public static Collection<Object> flatten(final Iterable<?> iterable, final int depth) {
+		if (iterable == null) return new ArrayList<>();
+		return new Flattened(iterable, depth);
+	}
+	
+	public static Collection<Object> flatten(final Object[] array) {
+		return flatten(array, Integer.MAX_VALUE);
+	}
+	
+	public static Collection<Object> flatten(final Object[] array, final int depth) {
+		if (array == null) return new ArrayList<>();
+		return new Flattened(array, depth);
+	}
+	
+	public static <T> Collection<T> without(final Collection<T> collection, final T... values) {
+		return _.difference(collection, values);
+	}
+	
+	public static <T> T[] without(final T[] array, final T... values) {
+		return _.difference(array, values);
+	}
+	
+	
+	public static <T> Map<Boolean, List<T>> partition(final T[] array, final Predicate<? super T> predicate) {
+		final Map<Boolean, List<T>> results = new HashMap<>();
+		results.put(true, new ArrayList<T>());
+		results.put(false, new ArrayList<T>());
+		each(array, (value) -> {
+			results.get(predicate.test(value)).add(value);
+		});
+		return results;
+	}
+	
+	public static <T> Map<Boolean, List<T>> partition(final Collection<T> collection, final Predicate<? super T> predicate) {
+		final Map<Boolean, List<T>> results = new HashMap<>();
+		results.put(true, new ArrayList<T>());
+		results.put(false, new ArrayList<T>());
+		each(collection, (value) -> {
+			results.get(predicate.test(value)).add(value);
+		});
+		return results;
+	}
+	
+	public static <T> Collection<T> unique(final Collection<T> collection) {
+		return new HashSet<>(collection);
+	}
+	
+	public static <T> T[] unique(final T[] array) {
+		if (array == null) return array;
+		final Set<T> set = new HashSet<T>(array.length);
+		for (T value : array) {
+			set.add(value);
+		}
+		
+		return set.toArray(newArray(array, set.size()));
+	}
+	
+	/**
+	 * <p>
+	 * Returns the distinct elements of a and b, in the order they first
+	 * appear in a and then in b.
+	 * </p>
+	 */
+	public static <T> List<T> union(final Collection<? extends T> a, final Collection<? extends T> b) {
+		final Set<T> results = new LinkedHashSet<>();
+		if (a != null) results.addAll(a);
+		if (b != null) results.addAll(b);
+		return new ArrayList<>(results);
+	}
+	
+	public static <T> T[] union(final T[] a, final T[] b) {
+		final T[] reference = (a != null) ? a : b;
+		if (reference == null) return reference;
+		final Set<T> results = new LinkedHashSet<>();
+		if (a != null) Collections.addAll(results, a);
+		if (b != null) Collections.addAll(results, b);
+		return results.toArray(newArray(reference, results.size()));
+	}
+	
+	/**
+	 * <p>
+	 * Returns the distinct elements of a that are also in b, in the order of
+	 * a. Only the smaller of the two is hashed in full.
+	 * </p>
+	 */
+	public static <T> List<T> intersection(final Collection<T> a, final Collection<?> b) {
+		final List<T> results = new ArrayList<>();
+		if (a == null || b == null) return results;
+		final Predicate<Object> inB = memberOf(a, b);
+		final Set<Object> seen = new HashSet<>();
+		for (T value : a) {
+			if (inB.test(value) && seen.add(value)) {
+				results.add(value);
+			}
+		}
+		return results;
+	}
+	
+	public static <T> T[] intersection(final T[] a, final T[] b) {
+		if (a == null) return a;
+		final List<T> results = intersection(Arrays.asList(a), (b == null) ? Collections.emptyList() : Arrays.asList(b));
+		return results.toArray(newArray(a, results.size()));
+	}
+	
+	/**
+	 * <p>
+	 * Returns the elements of collection that are not in other, in their
+	 * order and with their duplicates. Only the smaller of the two is hashed
+	 * in full, so this takes time linear in their sizes.
+	 * </p>
+	 */
+	public static <T> Collection<T> difference(final Collection<T> collection, final Collection<?> other) {
+		if (collection == null) return new ArrayList<>(0);
+		if (other == null || other.isEmpty()) return new ArrayList<>(collection);
+		final Predicate<Object> inOther = memberOf(collection, other);
+		return filter(collection, (value) -> !inOther.test(value));
+	}
+	
+	public static <T> Collection<T> difference(final Collection<T> collection, final T... rest) {
+		return difference(collection, (rest == null) ? Collections.emptyList() : Arrays.asList(rest));
+	}
+	
+	public static <T> T[] difference(final T[] array, final T... rest) {
+		if (array == null) return null;
+		if (rest == null || rest.length == 0) return array.clone();
+		final Predicate<Object> inRest = memberOf(Arrays.asList(array), Arrays.asList(rest));
+		return filter(array, (value) -> !inRest.test(value));
+	}
+	
+	/**
+	 * <p>
+	 * Returns the distinct elements that are in exactly one of a and b, those
+	 * of a first, each in the order it first appears.
+	 * </p>
+	 */
+	public static <T> List<T> xor(final Collection<? extends T> a, final Collection<? extends T> b) {
+		final Set<T> inA = (a == null) ? new LinkedHashSet<>() : new LinkedHashSet<>(a);
+		final Set<T> inB = (b == null) ? new LinkedHashSet<>() : new LinkedHashSet<>(b);
+		final List<T> results = new ArrayList<>();
+		for (T value : inA) {
+			if (!inB.contains(value)) {
+				results.add(value);
+			}
+		}
+		for (T value : inB) {
+			if (!inA.contains(value)) {
+				results.add(value);
+			}
+		}
+		return results;
+	}
+	
+	public static <T> T[] xor(final T[] a, final T[] b) {
+		final T[] reference = (a != null) ? a : b;
+		if (reference == null) return reference;
+		final List<T> results = xor(
+				(a == null) ? Collections.<T>emptyList() : Arrays.asList(a),
+				(b == null) ? Collections.<T>emptyList() : Arrays.asList(b));
+		return results.toArray(newArray(reference, results.size()));
+	}
+	
+	/*
+	 * Tests whether a value drawn from values is in other, hashing the smaller
+	 * of the two. When values is the smaller, the values found in other are
+	 * removed from its set, and what is left is what other lacks.
+	 */
+	private static Predicate<Object> memberOf(final Collection<?> values, final Collection<?> other) {
+		if (other.size() <= values.size()) {
+			final Set<Object> set = new HashSet<>(other);
+			return set::contains;
+		}
+		
+		final Set<Object> absent = new HashSet<>(values);
+		for (Object value : other) {
+			if (absent.remove(value) && absent.isEmpty()) {
+				break;
+			}
+		}
+		return (value) -> !absent.contains(value);
+	}
+	
+	public static int[] union(final int[] a, final int[] b) {
+		final int[] left = (a == null) ? new int[0] : a;
+		final int[] right = (b == null) ? new int[0] : b;
+		final LongSet seen = new LongSet(left.length + right.length);
+		final int[] results = new int[left.length + right.length];
+		int length = 0;
+		for (int value : left) {
+			if (seen.add(value)) {
+				results[length++] = value;
+			}
+		}
+		for (int value : right) {
+			if (seen.add(value)) {
+				results[length++] = value;
+			}
+		}
+		return Arrays.copyOf(results, length);
+	}
+	
+	public static int[] intersection(final int[] a, final int[] b) {
+		if (a == null) return a;
+		final LongPredicate inB = memberOf(a, (b == null) ? new int[0] : b);
+		final LongSet seen = new LongSet();
+		final int[] results = new int[a.length];
+		int length = 0;
+		for (int value : a) {
+			final long key = value;
+			if (inB.test(key) && seen.add(key)) {
+				results[length++] = value;
+			}
+		}
+		return Arrays.copyOf(results, length);
+	}
+	
+	public static int[] difference(final int[] array, final int... rest) {
+		if (array == null) return null;
+		if (rest == null || rest.length == 0) return array.clone();
+		final LongPredicate inRest = memberOf(array, rest);
+		final int[] results = new int[array.length];
+		int length = 0;
+		for (int value : array) {
+			if (!inRest.test(value)) {
+				results[length++] = value;
+			}
+		}
+		return (length == results.length) ? results : Arrays.copyOf(results, length);
+	}
+	
+	public static int[] without(final int[] array, final int... values) {
+		return difference(array, values);
+	}
+	
+	public static int[] xor(final int[] a, final int[] b) {
+		final int[] left = (a == null) ? new int[0] : a;
+		final int[] right = (b == null) ? new int[0] : b;
+		final LongSet inA = LongSet.of(left);
+		final LongSet inB = LongSet.of(right);
+		final LongSet seen = new LongSet();
+		final int[] results = new int[left.length + right.length];
+		int length = 0;
+		for (int value : left) {
+			final long key = value;
+			if (!inB.contains(key) && seen.add(key)) {
+				results[length++] = value;
+			}
+		}
+		for (int value : right) {
+			final long key = value;
+			if (!inA.contains(key) && seen.add(key)) {
+				results[length++] = value;
+			}
+		}
+		return Arrays.copyOf(results, length);
+	}
+	
+	private static LongPredicate memberOf(final int[] values, final int[] other) {
+		if (other.length <= values.length) {
+			return LongSet.of(other)::contains;
+		}
+		
+		final LongSet absent = LongSet.of(values);
+		for (int value : other) {
+			if (absent.remove(value) && absent.isEmpty()) {
+				break;
+			}
+		}
+		return (key) -> !absent.contains(key);
+	}
+	
+	public static long[] union(final long[] a, final long[] b) {
+		final long[] left = (a == null) ? new long[0] : a;
+		final long[] right = (b == null) ? new long[0] : b;
+		final LongSet seen = new LongSet(left.length + right.length);
+		final long[] results = new long[left.length + right.length];
+		int length = 0;
+		for (long value : left) {
+			if (seen.add(value)) {
+				results[length++] = value;
+			}
+		}
+		for (long value : right) {
+			if (seen.add(value)) {
+				results[length++] = value;
+			}
+		}
+		return Arrays.copyOf(results, length);
+	}
+	
+	public static long[] intersection(final long[] a, final long[] b) {
+		if (a == null) return a;
+		final LongPredicate inB = memberOf(a, (b == null) ? new long[0] : b);
+		final LongSet seen = new LongSet();
+		final long[] results = new long[a.length];
+		int length = 0;
+		for (long value : a) {
+			final long key = value;
+			if (inB.test(key) && seen.add(key)) {
+				results[length++] = value;
+			}
+		}
+		return Arrays.copyOf(results, length);
+	}
+	
+	public static long[] difference(final long[] array, final long... rest) {
+		if (array == null) return null;
+		if (rest == null || rest.length == 0) return array.clone();
+		final LongPredicate inRest = memberOf(array, rest);
+		final long[] results = new long[array.length];
+		int length = 0;
+		for (long value : array) {
+			if (!inRest.test(value)) {
+				results[length++] = value;
+			}
+		}
+		return (length == results.length) ? results : Arrays.copyOf(results, length);
+	}
+	
+	public static long[] without(final long[] array, final long... values) {
+		return difference(array, values);
+	}
+	
+	public static long[] xor(final long[] a, final long[] b) {
+		final long[] left = (a == null) ? new long[0] : a;
+		final long[] right = (b == null) ? new long[0] : b;
+		final LongSet inA = LongSet.of(left);
+		final LongSet inB = LongSet.of(right);
+		final LongSet seen = new LongSet();
+		final long[] results = new long[left.length + right.length];
+		int length = 0;
+		for (long value : left) {
+			final long key = value;
+			if (!inB.contains(key) && seen.add(key)) {
+				results[length++] = value;
+			}
+		}
+		for (long value : right) {
+			final long key = value;
+			if (!inA.contains(key) && seen.add(key)) {
+				results[length++] = value;
+			}
+		}
+		return Arrays.copyOf(results, length);
+	}
+	
+	private static LongPredicate memberOf(final long[] values, final long[] other) {
+		if (other.length <= values.length) {
+			return LongSet.of(other)::contains;
+		}
+		
+		final LongSet absent = LongSet.of(values);
+		for (long value : other) {
+			if (absent.remove(value) && absent.isEmpty()) {
+				break;
+			}
+		}
+		return (key) -> !absent.contains(key);
+	}
+	
+	public static double[] union(final double[] a, final double[] b) {
+		final double[] left = (a == null) ? new double[0] : a;
+		final double[] right = (b == null) ? new double[0] : b;
+		final LongSet seen = new LongSet(left.length + right.length);
+		final double[] results = new double[left.length + right.length];
+		int length = 0;
+		for (double value : left) {
+			if (seen.add(Double.doubleToLongBits(value))) {
+				results[length++] = value;
+			}
+		}
+		for (double value : right) {
+			if (seen.add(Double.doubleToLongBits(value))) {
+				results[length++] = value;
+			}
+		}
+		return Arrays.copyOf(results, length);
+	}
+	
+	public static double[] intersection(final double[] a, final double[] b) {
+		if (a == null) return a;
+		final LongPredicate inB = memberOf(a, (b == null) ? new double[0] : b);
+		final LongSet seen = new LongSet();
+		final double[] results = new double[a.length];
+		int length = 0;
+		for (double value : a) {
+			final long key = Double.doubleToLongBits(value);
+			if (inB.test(key) && seen.add(key)) {
+				results[length++] = value;
+			}
+		}
+		return Arrays.copyOf(results, length);
+	}
+	
+	public static double[] difference(final double[] array, final double... rest) {
+		if (array == null) return null;
+		if (rest == null || rest.length == 0) return array.clone();
+		final LongPredicate inRest = memberOf(array, rest);
+		final double[] results = new double[array.length];
+		int length = 0;
+		for (double value : array) {
+			if (!inRest.test(Double.doubleToLongBits(value))) {
+				results[length++] = value;
+			}
+		}
+		return (length == results.length) ? results : Arrays.copyOf(results, length);
+	}
+	
+	public static double[] without(final double[] array, final double... values) {
+		return difference(array, values);
+	}
+	
+	public static double[] xor(final double[] a, final double[] b) {
+		final double[] left = (a == null) ? new double[0] : a;
+		final double[] right = (b == null) ? new double[0] : b;
+		final LongSet inA = LongSet.ofBits(left);
+		final LongSet inB = LongSet.ofBits(right);
+		final LongSet seen = new LongSet();
+		final double[] results = new double[left.length + right.length];
+		int length = 0;
+		for (double value : left) {
+			final long key = Double.doubleToLongBits(value);
+			if (!inB.contains(key) && seen.add(key)) {
+				results[length++] = value;
+			}
+		}
+		for (double value : right) {
+			final long key = Double.doubleToLongBits(value);
+			if (!inA.contains(key) && seen.add(key)) {
+				results[length++] = value;
+			}
+		}
+		return Arrays.copyOf(results, length);
+	}
+	
+	private static LongPredicate memberOf(final double[] values, final double[] other) {
+		if (other.length <= values.length) {
+			return LongSet.ofBits(other)::contains;
+		}
+		
+		final LongSet absent = LongSet.ofBits(values);
+		for (double value : other) {
+			if (absent.remove(Double.doubleToLongBits(value)) && absent.isEmpty()) {
+				break;
+			}
+		}
+		return (key) -> !absent.contains(key);
+	}
+	
+	
+	// zip
+	// object
+	
+
+	public static <T> int indexOf(final T[] array, final T target) {
+		if (array == null) {
+			return -1;
+		}
+		for (int i = 0; i < array.length; ++i) {
+			if (target == null ? array[i] == null : target.equals(array[i])) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * <p>
+	 * Like {@link #indexOf(Object[], Object)}, but when isSorted is true the
+	 * array is searched with {@link #sortedIndex(Object[], Comparable)} and
+	 * elements are matched by {@code compareTo} instead of {@code equals}.
+	 * </p>
+	 */
+	public static <T extends Comparable<? super T>> int indexOf(final T[] array, final T target, final boolean isSorted) {
+		if (!isSorted) return indexOf(array, target);
+		if (array == null) return -1;
+		final int index = sortedIndex(array, target);
+		return (index < array.length && array[index].compareTo(target) == 0) ? index : -1;
+	}
+	
+	public static <T extends Comparable<? super T>> int indexOf(final List<T> list, final T target, final boolean isSorted) {
+		if (list == null) return -1;
+		if (!isSorted || !(list instanceof RandomAccess)) return list.indexOf(target);
+		final int index = sortedIndex(list, target);
+		return (index < list.size() && list.get(index).compareTo(target) == 0) ? index : -1;
+	}
+	
+	public static int indexOf(final int[] array, final int target, final boolean isSorted) {
+		if (array == null) return -1;
+		if (isSorted) {
+			final int index = sortedIndex(array, target);
+			return (index < array.length && array[index] == target) ? index : -1;
+		}
+		for (int i = 0; i < array.length; ++i) {
+			if (array[i] == target) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	public static int indexOf(final long[] array, final long target, final boolean isSorted) {
+		if (array == null) return -1;
+		if (isSorted) {
+			final int index = sortedIndex(array, target);
+			return (index < array.length && array[index] == target) ? index : -1;
+		}
+		for (int i = 0; i < array.length; ++i) {
+			if (array[i] == target) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	public static int indexOf(final double[] array, final double target, final boolean isSorted) {
+		if (array == null) return -1;
+		if (isSorted) {
+			final int index = sortedIndex(array, target);
+			return (index < array.length && Double.compare(array[index], target) == 0) ? index : -1;
+		}
+		for (int i = 0; i < array.length; ++i) {
+			if (Double.compare(array[i], target) == 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	public static <T> int lastIndexOf(final T[] array, final T target) {
+		return lastIndexOf(array, target, array.length);
+	}
+	
+	public static <T> int lastIndexOf(final T[] array, final T target, final int from) {
+		if (array == null) {
+			return -1;
+		}
+		
+		final int length = array.length;
+		int i = (from > length || from < 0) ? length : from;
+		while (i-- > -1) {
+			if (target == null ? array[i] == null : target.equals(array[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	
+	public static int[] range(final int stop) {
+		return range(0, stop, 1);
+	}
+	
+	public static int[] range(final int start, final int stop) {
+		return range(start, stop, 1);
+	}
+	
+	/**
+	 * <p>
+	 * Returns the ints from start inclusive towards stop exclusive by step,
+	 * rounding the count up, so that range(0, 10, 3) is [0, 3, 6, 9]. Throws
+	 * {@link IllegalArgumentException} for a zero step.
+	 * </p>
+	 */
+	public static int[] range(final int start, final int stop, final int step) {
+		return rangeOf(start, stop, step).toArray();
+	}
+	
+	public static IntRange rangeOf(final int stop) {
+		return rangeOf(0, stop, 1);
+	}
+	
+	public static IntRange rangeOf(final int start, final int stop) {
+		return rangeOf(start, stop, 1);
+	}
+	
+	/**
+	 * <p>
+	 * Returns the values of {@link #range(int, int, int)} as a view that
+	 * holds only start, stop and step, so that its size is no cost in
+	 * memory. {@link #chain(IntRange)} loops over it without an array.
+	 * </p>
+	 */
+	public static IntRange rangeOf(final int start, final int stop, final int step) {
+		return new IntRange(start, stop, step);
+	}
+	
+	public static LongRange rangeOf(final long stop) {
+		return rangeOf(0, stop, 1);
+	}
+	
+	public static LongRange rangeOf(final long start, final long stop) {
+		return rangeOf(start, stop, 1);
+	}
+	
+	public static LongRange rangeOf(final long start, final long stop, final long step) {
+		return new LongRange(start, stop, step);
+	}
+	
+	
+	/*
+	 * Functions
+	 */
+	
+	public static <T, R> MemoizedFunction<T, R> memoize(final Function<? super T, ? extends R> function) {
+		return memoize(function, identity(), CacheSpec.maximumSize(CacheSpec.DEFAULT_MAXIMUM_SIZE));
+	}
+	
+	public static <T, R> MemoizedFunction<T, R> memoize(final Function<? super T, ? extends R> function, final Function<? super T, ?> keyFunction) {
+		return memoize(function, keyFunction, CacheSpec.maximumSize(CacheSpec.DEFAULT_MAXIMUM_SIZE));
+	}
+	
+	public static <T, R> MemoizedFunction<T, R> memoize(final Function<? super T, ? extends R> function, final Function<? super T, ?> keyFunction, final CacheSpec<? super R> spec) {
+		Objects.requireNonNull(function);
+		Objects.requireNonNull(keyFunction);
+		Objects.requireNonNull(spec);
+		
+		return new MemoizedFunction<>(function, keyFunction, spec);
+	}
+	
+	/*
+	 * throttle runs the function at most once per wait: on the leading edge
+	 * of a window, and on its trailing edge with the latest argument if it was
+	 * called again in between. debounce runs it once calls stop coming for
+	 * wait, with the latest argument, or on the first call of a burst with
+	 * leading. Trailing runs happen on a scheduler thread shared by all the
+	 * wrappers; throttleFunction and debounceFunction return the result of
+	 * the latest run. They are named apart from the Consumer forms, which an
+	 * implicitly typed lambda could not be told from.
+	 */
+	
+	public static Runnable throttle(final Runnable function, final long wait, final TimeUnit unit) {
+		return throttle(function, wait, unit, true, true);
+	}
 	
-	public static int[] range(final int stop) {
-		return range(0, stop, 1);
+	public static Runnable throttle(final Runnable function, final long wait, final TimeUnit unit, final boolean leading, final boolean trailing) {
+		final Limiter<Object> limiter = new Limiter<>((ignored) -> function.run(), wait, unit, leading, trailing, false);
+		return () -> limiter.call(null);
 	}
 	
-	public static int[] range(final int start, final int stop) {
-		return range(start, stop, 1);
+	public static <T> Consumer<T> throttle(final Consumer<T> function, final long wait, final TimeUnit unit) {
+		return throttle(function, wait, unit, true, true);
 	}
 	
-	public static int[] range(final int start, final int stop, final int step) {
-		final int length = (int) Math.max(Math.ceil((stop - start) / step), 0);
-		int i = 0, s = start;
-		int[] range = new int[length];
-		while (i < length) {
-			range[i++] = s;
-			s += step;
-		}
-		return range;
+	public static <T> Consumer<T> throttle(final Consumer<T> function, final long wait, final TimeUnit unit, final boolean leading, final boolean trailing) {
+		final Limiter<T> limiter = new Limiter<>(function, wait, unit, leading, trailing, false);
+		return limiter::call;
+	}
+	
+	public static <T, R> Function<T, R> throttleFunction(final Function<T, R> function, final long wait, final TimeUnit unit) {
+		return throttleFunction(function, wait, unit, true, true);
 	}
 	
+	public static <T, R> Function<T, R> throttleFunction(final Function<T, R> function, final long wait, final TimeUnit unit, final boolean leading, final boolean trailing) {
+		final AtomicReference<R> result = new AtomicReference<>();
+		final Limiter<T> limiter = new Limiter<>((value) -> result.set(function.apply(value)), wait, unit, leading, trailing, false);
+		return (value) -> {
+			limiter.call(value);
+			return result.get();
+		};
+	}
 	
-	/*
-	 * Functions
-	 */
+	public static Runnable debounce(final Runnable function, final long wait, final TimeUnit unit) {
+		return debounce(function, wait, unit, false, true);
+	}
+	
+	public static Runnable debounce(final Runnable function, final long wait, final TimeUnit unit, final boolean leading, final boolean trailing) {
+		final Limiter<Object> limiter = new Limiter<>((ignored) -> function.run(), wait, unit, leading, trailing, true);
+		return () -> limiter.call(null);
+	}
+	
+	public static <T> Consumer<T> debounce(final Consumer<T> function, final long wait, final TimeUnit unit) {
+		return debounce(function, wait, unit, false, true);
+	}
+	
+	public static <T> Consumer<T> debounce(final Consumer<T> function, final long wait, final TimeUnit unit, final boolean leading, final boolean trailing) {
+		final Limiter<T> limiter = new Limiter<>(function, wait, unit, leading, trailing, true);
+		return limiter::call;
+	}
+	
+	public static <T, R> Function<T, R> debounceFunction(final Function<T, R> function, final long wait, final TimeUnit unit) {
+		return debounceFunction(function, wait, unit, false, true);
+	}
+	
+	public static <T, R> Function<T, R> debounceFunction(final Function<T, R> function, final long wait, final TimeUnit unit, final boolean leading, final boolean trailing) {
+		final AtomicReference<R> result = new AtomicReference<>();
+		final Limiter<T> limiter = new Limiter<>((value) -> result.set(function.apply(value)), wait, unit, leading, trailing, true);
+		return (value) -> {
+			limiter.call(value);
+			return result.get();
+		};
+	}
 	
 	
 //	public static <T, R> Function<T[], R> compose(final Function<T[], R>... functions) {
@@ -862,11 +2143,7 @@ public final class _ {
 	}
 	
 	public static <K, V> Collection<V> values(final Map<K, V> map) {
-		final Collection<V> values = new LinkedList<V>();
-		each(map.values(), (value) -> {
-			values.add(value);
-		});
-		return Collections.unmodifiableCollection(values);
+		return Collections.unmodifiableCollection(new ArrayList<V>(map.values()));
 	}
 	
 	public static <K, V> Set<Map.Entry<K, V>> pairs(final Map<K, V> map) {
@@ -936,34 +2213,36 @@ public final class _ {
 	}
 	
 	
-	public static Object clone(final Object value) throws Exception {
-		if (value instanceof Cloneable) {
-			if (isArray(value)) {
-				final Class<?> componentType = value.getClass().getComponentType();
-				if (!componentType.isPrimitive()) {
-					return ((Object[]) value).clone();
-				} else {
-					int length = Array.getLength(value);
-					final Object result = Array.newInstance(componentType, length);
-					while (length-- > 0) {
-						Array.set(result, length, Array.get(value, length));
-					}
-					return result;
-				}
-			} else {
-				try {
-					Method method = value.getClass().getMethod("clone",
-							new Class<?>[0]);
-					method.invoke(value, new Object[0]);
-				} catch (final Exception e) {
-					throw new Exception("Cloneable type "
-							+ value.getClass().getName()
-							+ " has no clone method", e);
-				}
-			}
-		}
-		
-		return null;
+	/**
+	 * <p>
+	 * Returns a shallow copy of a {@link Cloneable}, or null if value is not
+	 * one. Arrays are copied with {@link System#arraycopy}; other values by
+	 * their public {@code clone()}, which is looked up once per class.
+	 * Throws {@link IllegalArgumentException} for a Cloneable without a
+	 * public {@code clone()}.
+	 * </p>
+	 */
+	public static <T> T clone(final T value) {
+		return clone(value, false);
+	}
+	
+	/**
+	 * <p>
+	 * Returns a copy of value, deep if deep is true. A deep copy also copies
+	 * the elements of arrays and collections and the values of maps, at any
+	 * depth; map keys are kept. Each object is copied once, so references
+	 * shared within value, and cycles, are shared within the copy. Collections
+	 * and maps keep their type when they can be cloned or have a public no-arg
+	 * constructor, and otherwise become a plain list, set, sorted set, map or
+	 * sorted map. Other Cloneables are copied shallowly, and any other value,
+	 * including value itself, is not copied.
+	 * </p>
+	 */
+	public static <T> T clone(final T value, final boolean deep) {
+		if (value == null) return null;
+		@SuppressWarnings("unchecked")
+		final T copy = (T) (deep ? Cloner.deep(value) : (value instanceof Cloneable) ? Cloner.shallow(value) : null);
+		return copy;
 	}
 	
 	public static <T> T tap(final T value, final Consumer<T> interceptor) {
@@ -1081,13 +2360,35 @@ public final class _ {
 	}
 	
 	
-	public static <K, V> Predicate<Map<K, V>> matches(final Map<K, V> attrs) {
+	/**
+	 * <p>
+	 * Returns a predicate that tells whether a map has all the key-value pairs
+	 * of attrs. The pairs are copied into flat arrays up front, so a test is
+	 * one {@code get} per attribute. A null value in attrs matches only a key
+	 * that is present with a null value.
+	 * </p>
+	 */
+	public static <K, V> Predicate<Map<K, V>> matches(final Map<? extends K, ? extends V> attrs) {
+		if (attrs == null || attrs.isEmpty()) {
+			return (obj) -> true;
+		}
+		
+		final Object[] keys = new Object[attrs.size()];
+		final Object[] values = new Object[keys.length];
+		int i = 0;
+		for (Entry<? extends K, ? extends V> entry : attrs.entrySet()) {
+			keys[i] = entry.getKey();
+			values[i++] = entry.getValue();
+		}
+		
 		return (obj) -> {
-			if (obj == null ? attrs == null : obj.equals(attrs)) {
-				return true;
+			if (obj == null) {
+				return false;
 			}
-			for (K key : attrs.keySet()) {
-				if (!attrs.get(key).equals(obj.get(key))) {
+			for (int j = 0; j < keys.length; ++j) {
+				final Object expected = values[j];
+				final Object actual = obj.get(keys[j]);
+				if (expected == null ? (actual != null || !obj.containsKey(keys[j])) : !expected.equals(actual)) {
 					return false;
 				}
 			}
@@ -1096,12 +2397,64 @@ public final class _ {
 	}
 	
 	
-	public static <R> List<R> times(final int n, final Function<Integer, R> iterator) {
-		List<R> accum = new ArrayList<R>(Math.max(0, n));
-		for (int i = 0; i < n; ++i) {
-			accum.set(i, iterator.apply(i));
+	private static final int DEFAULT_BLOCKING_CONCURRENCY = 256;
+	
+	/**
+	 * <p>
+	 * Returns the results of calling iterator with each index from 0 to n
+	 * exclusive, in order, as a fixed-size list over the array they were
+	 * written to. The index is passed unboxed.
+	 * </p>
+	 */
+	public static <R> List<R> times(final int n, final IntFunction<? extends R> iterator) {
+		final Object[] results = new Object[Math.max(0, n)];
+		for (int i = 0; i < results.length; ++i) {
+			results[i] = iterator.apply(i);
+		}
+		return timesList(results);
+	}
+	
+	public static <R> List<R> parallelTimes(final int n, final IntFunction<? extends R> iterator) {
+		return parallelTimes(n, iterator, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * <p>
+	 * Returns the results of {@link #times(int, IntFunction)}, with the
+	 * indexes split into chunks that are filled on pool. iterator is called
+	 * from several threads at once and in no particular order.
+	 * </p>
+	 */
+	public static <R> List<R> parallelTimes(final int n, final IntFunction<? extends R> iterator, final ForkJoinPool pool) {
+		if (n <= 0) return timesList(new Object[0]);
+		return timesList(Times.parallel(n, iterator, pool));
+	}
+	
+	public static <R> List<R> virtualTimes(final int n, final IntFunction<? extends R> iterator) {
+		return virtualTimes(n, iterator, DEFAULT_BLOCKING_CONCURRENCY);
+	}
+	
+	/**
+	 * <p>
+	 * Returns the results of {@link #times(int, IntFunction)} for an iterator
+	 * that blocks, such as one that loads fixtures over I/O. At most
+	 * maxConcurrency calls run at once, on virtual threads on Java 21 and
+	 * later and on as many daemon threads before that. The first exception
+	 * thrown by iterator interrupts the calls in flight and is rethrown at
+	 * once, wrapped in a CompletionException if it is checked.
+	 * </p>
+	 */
+	public static <R> List<R> virtualTimes(final int n, final IntFunction<? extends R> iterator, final int maxConcurrency) {
+		if (maxConcurrency <= 0) {
+			throw new IllegalArgumentException("Non-positive concurrency: " + maxConcurrency);
 		}
-		return accum;
+		if (n <= 0) return timesList(new Object[0]);
+		return timesList(Times.blocking(n, iterator, maxConcurrency));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <R> List<R> timesList(final Object[] results) {
+		return (List<R>) Arrays.asList(results);
 	}
 	
 	public static int random(final int min) {
@@ -1113,7 +2466,7 @@ public final class _ {
 			max = min;
 			min = 0;
 		}
-		return (int) (min + Math.floor(Math.random() * (max - min + 1)));
+		return (int) (min + ThreadLocalRandom.current().nextLong((long) max - min + 1));
 	}
 	
 	
@@ -1128,34 +2481,236 @@ public final class _ {
 		map.put("<", "&lt;");
 		map.put(">", "&gt;");
 		map.put("\"", "&quot;");
-		map.put("'", "&#x27");
+		map.put("'", "&#x27;");
 		escapeEntityMap = Collections.unmodifiableMap(map);
 	}
-	private static final String escapeEntityRegex = "[" + join(keys(escapeEntityMap), "") + "]";
 	
-	private static final String unescapeEntityRegex = "(" + join(values(escapeEntityMap), "|") + ")";
+	/*
+	 * Lookup tables built from escapeEntityMap. escapeEntities[c] is the
+	 * entity for the ASCII character c, or null if c is written as is.
+	 * unescapeEntities[c] is the entity that starts with '&' followed by c,
+	 * and unescapeChars[c] the character it stands for; no two entities share
+	 * their second character.
+	 */
+	private static final String[] escapeEntities = new String[128];
+	
+	private static final String[] unescapeEntities = new String[128];
+	
+	private static final char[] unescapeChars = new char[128];
+	
+	private static final int maxEntityLength;
+	static {
+		int max = 0;
+		for (final Entry<String, String> entry : escapeEntityMap.entrySet()) {
+			final char c = entry.getKey().charAt(0);
+			final String entity = entry.getValue();
+			escapeEntities[c] = entity;
+			unescapeEntities[entity.charAt(1)] = entity;
+			unescapeChars[entity.charAt(1)] = c;
+			max = Math.max(max, entity.length());
+		}
+		maxEntityLength = max;
+	}
 	
-	public static String escape(String string) {
+	/*
+	 * The Appendable and Reader variants escape and unescape ESCAPE_CHUNK_SIZE
+	 * characters at a time.
+	 */
+	private static final int ESCAPE_CHUNK_SIZE = 4096;
+	
+	public static String escape(final String string) {
+		return escape((CharSequence) string).toString();
+	}
+	
+	/*
+	 * Returns string itself when it has nothing to escape.
+	 */
+	public static CharSequence escape(final CharSequence string) {
 		if (string == null) {
 			return EMPTY_STRING;
 		}
-		return string.replaceAll(escapeEntityRegex, unescapeEntityRegex);
+		
+		final int length = string.length();
+		for (int i = 0; i < length; ++i) {
+			final char c = string.charAt(i);
+			if (c < 128 && escapeEntities[c] != null) {
+				final StringBuilder builder = new StringBuilder(length + 16);
+				builder.append(string, 0, i);
+				escape(string, i, length, builder);
+				return builder.toString();
+			}
+		}
+		return string;
+	}
+	
+	public static <A extends Appendable> A escape(final CharSequence string, final A out) throws IOException {
+		if (string == null) {
+			return out;
+		}
+		
+		final int length = string.length();
+		if (out instanceof StringBuilder) {
+			escape(string, 0, length, (StringBuilder) out);
+			return out;
+		}
+		
+		final StringBuilder chunk = new StringBuilder(ESCAPE_CHUNK_SIZE + ESCAPE_CHUNK_SIZE / 4);
+		for (int from = 0; from < length; from += ESCAPE_CHUNK_SIZE) {
+			chunk.setLength(0);
+			escape(string, from, Math.min(length, from + ESCAPE_CHUNK_SIZE), chunk);
+			out.append(chunk);
+		}
+		return out;
+	}
+	
+	public static <A extends Appendable> A escape(final Reader in, final A out) throws IOException {
+		final char[] buffer = new char[ESCAPE_CHUNK_SIZE];
+		final CharBuffer chars = CharBuffer.wrap(buffer);
+		final StringBuilder chunk = new StringBuilder(ESCAPE_CHUNK_SIZE + ESCAPE_CHUNK_SIZE / 4);
+		int read;
+		while ((read = in.read(buffer)) >= 0) {
+			chunk.setLength(0);
+			escape(chars, 0, read, chunk);
+			out.append(chunk);
+		}
+		return out;
+	}
+	
+	private static void escape(final CharSequence string, final int from, final int to, final StringBuilder out) {
+		int start = from;
+		for (int i = from; i < to; ++i) {
+			final char c = string.charAt(i);
+			if (c < 128 && escapeEntities[c] != null) {
+				out.append(string, start, i).append(escapeEntities[c]);
+				start = i + 1;
+			}
+		}
+		out.append(string, start, to);
+	}
+	
+	public static String unescape(final String string) {
+		return unescape((CharSequence) string).toString();
 	}
 	
-	public static String unescape(String string) {
+	/*
+	 * Returns string itself when it has nothing to unescape.
+	 */
+	public static CharSequence unescape(final CharSequence string) {
 		if (string == null) {
 			return EMPTY_STRING;
 		}
-		return string.replaceAll(unescapeEntityRegex, escapeEntityRegex);
+		
+		final int length = string.length();
+		for (int i = 0; i < length; ++i) {
+			if (entityLength(string, i, length) > 0) {
+				final StringBuilder builder = new StringBuilder(length);
+				builder.append(string, 0, i);
+				unescape(string, i, length, length, builder);
+				return builder.toString();
+			}
+		}
+		return string;
+	}
+	
+	public static <A extends Appendable> A unescape(final CharSequence string, final A out) throws IOException {
+		if (string == null) {
+			return out;
+		}
+		
+		final int length = string.length();
+		if (out instanceof StringBuilder) {
+			unescape(string, 0, length, length, (StringBuilder) out);
+			return out;
+		}
+		
+		final StringBuilder chunk = new StringBuilder(ESCAPE_CHUNK_SIZE);
+		for (int from = 0; from < length;) {
+			chunk.setLength(0);
+			from = unescape(string, from, Math.min(length, from + ESCAPE_CHUNK_SIZE), length, chunk);
+			out.append(chunk);
+		}
+		return out;
+	}
+	
+	/*
+	 * Holds back the last maxEntityLength - 1 characters of each read, which
+	 * may be the start of an entity that the next read completes.
+	 */
+	public static <A extends Appendable> A unescape(final Reader in, final A out) throws IOException {
+		final char[] buffer = new char[ESCAPE_CHUNK_SIZE];
+		final CharBuffer chars = CharBuffer.wrap(buffer);
+		final StringBuilder chunk = new StringBuilder(ESCAPE_CHUNK_SIZE);
+		int length = 0;
+		for (;;) {
+			final int read = in.read(buffer, length, buffer.length - length);
+			final boolean end = read < 0;
+			if (!end) {
+				length += read;
+			}
+			
+			final int to = end ? length : length - (maxEntityLength - 1);
+			if (to > 0) {
+				chunk.setLength(0);
+				final int next = unescape(chars, 0, to, length, chunk);
+				out.append(chunk);
+				System.arraycopy(buffer, next, buffer, 0, length - next);
+				length -= next;
+			}
+			if (end) {
+				return out;
+			}
+		}
 	}
 	
-	private static final AtomicLong idCount = new AtomicLong();
+	/*
+	 * Unescapes the characters of string from from to to, reading up to limit
+	 * to match an entity that starts before to. Returns the index after the
+	 * last character consumed, which is past to when an entity straddles it.
+	 */
+	private static int unescape(final CharSequence string, final int from, final int to, final int limit, final StringBuilder out) {
+		int start = from;
+		int i = from;
+		while (i < to) {
+			final int length = entityLength(string, i, limit);
+			if (length > 0) {
+				out.append(string, start, i).append(unescapeChars[string.charAt(i + 1)]);
+				i += length;
+				start = i;
+			} else {
+				++i;
+			}
+		}
+		out.append(string, start, i);
+		return i;
+	}
 	
-	public static final String uniqueId(String prefix) {
-		synchronized (idCount) {
-			final long id = idCount.incrementAndGet();
-			return (prefix == null) ? Long.toString(id) : prefix + id;
+	/*
+	 * The length of the entity at index, or 0 if there is none before limit.
+	 */
+	private static int entityLength(final CharSequence string, final int index, final int limit) {
+		if (string.charAt(index) != '&' || index + 1 >= limit) {
+			return 0;
+		}
+		
+		final char c = string.charAt(index + 1);
+		final String entity = (c < 128) ? unescapeEntities[c] : null;
+		if (entity == null || index + entity.length() > limit) {
+			return 0;
+		}
+		for (int i = 2; i < entity.length(); ++i) {
+			if (string.charAt(index + i) != entity.charAt(i)) {
+				return 0;
+			}
 		}
+		return entity.length();
+	}
+	
+	public static final String uniqueId(final String prefix) {
+		return IdSequence.DEFAULT.next(prefix);
+	}
+	
+	public static final StringBuilder uniqueId(final String prefix, final StringBuilder out) {
+		return IdSequence.DEFAULT.next(prefix, out);
 	}
 	
 	
@@ -1248,25 +2803,230 @@ public final class _ {
 		return builder.toString();
 	}
 	
+	/*
+	 * Streaming join: the same output as the join functions above, written to
+	 * out as it is produced instead of being built up as one String. Wrap an
+	 * unbuffered Writer in a BufferedWriter first.
+	 */
+	
+	public static <T, A extends Appendable> A join(final Collection<T> collection, final String delimiter, final A out) throws IOException {
+		if (collection == null) {
+			return out;
+		}
+		
+		return join(collection.iterator(), delimiter, out);
+	}
+	
+	public static <T, A extends Appendable> A join(final Iterator<T> iterator, final String delimiter, final A out) throws IOException {
+		if (iterator == null || !iterator.hasNext()) {
+			return out;
+		}
+		
+		for(;;) {
+			out.append(String.valueOf(iterator.next()));
+			if (!iterator.hasNext()) {
+				return out;
+			}
+			out.append(delimiter);
+		}
+	}
+	
+	public static <A extends Appendable> A join(final Map<?, ?> map, final String delimiter, final A out) throws IOException {
+		if (map == null || map.size() == 0) {
+			return out;
+		}
+		
+		final Iterator<? extends Entry<?, ?>> iterator = map.entrySet().iterator();
+		while (iterator.hasNext()) {
+			final Entry<?, ?> e = iterator.next();
+			final Object key = e.getKey();
+			final Object value = e.getValue();
+			out.append(key == map ? "(map)" : String.valueOf(key));
+			out.append('=');
+			out.append(value == map ? "(map)" : String.valueOf(value));
+			if (iterator.hasNext()) {
+				out.append(delimiter);
+			}
+		}
+		return out;
+	}
+	
+	public static <A extends Appendable> A join(final Object[] array, final String delimiter, final A out) throws IOException {
+		if (array == null) {
+			return out;
+		}
+		
+		joinSegment(array, 0, array.length, delimiter, out);
+		return out;
+	}
+	
+	private static void joinSegment(final Object[] array, final int from, final int to, final String delimiter, final Appendable out) throws IOException {
+		for (int i = from; i < to; ++i) {
+			if (i > from && delimiter != null) {
+				out.append(delimiter);
+			}
+			final Object element = array[i];
+			if (element != null) {
+				out.append(element.toString());
+			}
+		}
+	}
+	
+	/*
+	 * The UTF-8 variants encode through a buffer of JOIN_BUFFER_SIZE bytes,
+	 * which is flushed to the channel whenever it fills up. Writing to a
+	 * ByteBuffer throws BufferOverflowException once it is out of room.
+	 */
+	
+	private static final int JOIN_BUFFER_SIZE = 8192;
+	
+	@FunctionalInterface
+	private interface Joiner {
+		public void join(final Appendable out) throws IOException;
+	}
+	
+	private static <C extends WritableByteChannel> C joinUtf8(final C channel, final Joiner joiner) throws IOException {
+		final Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE), JOIN_BUFFER_SIZE);
+		joiner.join(writer);
+		// Not closed, which would close the channel.
+		writer.flush();
+		return channel;
+	}
+	
+	private static ByteBuffer joinUtf8(final ByteBuffer buffer, final Joiner joiner) throws IOException {
+		joinUtf8(new WritableByteChannel() {
+			@Override
+			public int write(final ByteBuffer src) {
+				final int length = src.remaining();
+				buffer.put(src);
+				return length;
+			}
+
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+
+			@Override
+			public void close() { }
+		}, joiner);
+		return buffer;
+	}
+	
+	public static <T, C extends WritableByteChannel> C join(final Collection<T> collection, final String delimiter, final C out) throws IOException {
+		return joinUtf8(out, (writer) -> join(collection, delimiter, writer));
+	}
+	
+	public static <T, C extends WritableByteChannel> C join(final Iterator<T> iterator, final String delimiter, final C out) throws IOException {
+		return joinUtf8(out, (writer) -> join(iterator, delimiter, writer));
+	}
+	
+	public static <C extends WritableByteChannel> C join(final Map<?, ?> map, final String delimiter, final C out) throws IOException {
+		return joinUtf8(out, (writer) -> join(map, delimiter, writer));
+	}
+	
+	public static <C extends WritableByteChannel> C join(final Object[] array, final String delimiter, final C out) throws IOException {
+		return joinUtf8(out, (writer) -> join(array, delimiter, writer));
+	}
+	
+	public static <T> ByteBuffer join(final Collection<T> collection, final String delimiter, final ByteBuffer out) throws IOException {
+		return joinUtf8(out, (writer) -> join(collection, delimiter, writer));
+	}
+	
+	public static <T> ByteBuffer join(final Iterator<T> iterator, final String delimiter, final ByteBuffer out) throws IOException {
+		return joinUtf8(out, (writer) -> join(iterator, delimiter, writer));
+	}
+	
+	public static ByteBuffer join(final Map<?, ?> map, final String delimiter, final ByteBuffer out) throws IOException {
+		return joinUtf8(out, (writer) -> join(map, delimiter, writer));
+	}
+	
+	public static ByteBuffer join(final Object[] array, final String delimiter, final ByteBuffer out) throws IOException {
+		return joinUtf8(out, (writer) -> join(array, delimiter, writer));
+	}
+	
+	/*
+	 * Joins segments of JOIN_SEGMENT_SIZE elements on the pool and writes them
+	 * to out in order, as they complete. At most two segments per thread are
+	 * held in memory at a time.
+	 */
+	
+	private static final int JOIN_SEGMENT_SIZE = 1 << 13;
+	
+	public static <A extends Appendable> A parallelJoin(final Object[] array, final String delimiter, final A out) throws IOException {
+		return parallelJoin(array, delimiter, out, ForkJoinPool.commonPool());
+	}
+	
+	public static <A extends Appendable> A parallelJoin(final Object[] array, final String delimiter, final A out, final ForkJoinPool pool) throws IOException {
+		if (array == null || array.length <= JOIN_SEGMENT_SIZE) {
+			return join(array, delimiter, out);
+		}
+		
+		final int segments = (array.length + JOIN_SEGMENT_SIZE - 1) / JOIN_SEGMENT_SIZE;
+		final int window = Math.max(2, pool.getParallelism() * 2);
+		final ArrayDeque<ForkJoinTask<String>> pending = new ArrayDeque<>(window);
+		try {
+			int submitted = 0;
+			for (int i = 0; i < segments; ++i) {
+				for (; submitted < segments && pending.size() < window; ++submitted) {
+					final int from = submitted * JOIN_SEGMENT_SIZE;
+					final int to = Math.min(array.length, from + JOIN_SEGMENT_SIZE);
+					pending.add(pool.submit(() -> {
+						final StringBuilder builder = new StringBuilder();
+						joinSegment(array, from, to, delimiter, builder);
+						return builder.toString();
+					}));
+				}
+				if (i > 0 && delimiter != null) {
+					out.append(delimiter);
+				}
+				out.append(pending.poll().join());
+			}
+		} finally {
+			for (final ForkJoinTask<String> task : pending) {
+				task.cancel(false);
+			}
+		}
+		return out;
+	}
+	
 	
 	/*
 	 * Chaining
 	 */
 	
-	public static ArrayChain<Integer> chain(final int[] array) {
-		return new IntChainImpl(array);
+	public static IntArrayChain chain(final int[] array) {
+		return new IntArrayChainImpl(array);
+	}
+	
+	public static IntArrayChain chain(final IntRange range) {
+		return new LazyIntArrayChainImpl(range);
+	}
+	
+	public static LongArrayChain chain(final LongRange range) {
+		return new LazyLongArrayChainImpl(range);
 	}
 	
 	public static ArrayChain<Float> chain(final float[] array) {
 		return new FloatChainImpl(array);
 	}
 	
-	public static ArrayChain<Double> chain(final double[] array) {
-		return new DoubleChainImpl(array);
+	public static DoubleArrayChain chain(final double[] array) {
+		return new DoubleArrayChainImpl(array);
+	}
+	
+	public static LongArrayChain chain(final long[] array) {
+		return new LongArrayChainImpl(array);
 	}
 	
-	public static ArrayChain<Long> chain(final long[] array) {
-		return new LongChainImpl(array);
+	public static OffHeapLongChain chain(final DirectLongArray array) {
+		return new OffHeapLongChainImpl(array);
+	}
+	
+	public static OffHeapDoubleChain chain(final DirectDoubleArray array) {
+		return new OffHeapDoubleChainImpl(array);
 	}
 	
 	public static ArrayChain<Short> chain(final short[] array) {
@@ -1289,7 +3049,27 @@ public final class _ {
 		return new MapChainImpl<>(map);
 	}
 	
+	public static <V> LongObjectMapChain<V> chain(final LongObjectMap<V> map) {
+		return new LongObjectMapChainImpl<>(map);
+	}
+	
+	public static LongLongMapChain chain(final LongLongMap map) {
+		return new LongLongMapChainImpl(map);
+	}
+	
+	public static LongDoubleMapChain chain(final LongDoubleMap map) {
+		return new LongDoubleMapChainImpl(map);
+	}
+	
 	public static <E extends Comparable<? super E>> CollectionChain<E> chain(final Collection<E> collection) {
 		return new CollectionChainImpl<>(collection);
 	}
+	
+	public static <E> ParallelCollectionChain<E> parallelChain(final Collection<E> collection) {
+		return new ParallelCollectionChainImpl<>(collection);
+	}
+	
+	public static <E> ParallelCollectionChain<E> parallelChain(final Collection<E> collection, final ForkJoinPool pool) {
+		return new ParallelCollectionChainImpl<>(collection, pool);
+	}
 }
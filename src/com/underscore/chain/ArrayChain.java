@@ -1,5 +1,7 @@
 package com.underscore.chain;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -8,14 +10,32 @@ import java.util.function.Predicate;
 public interface ArrayChain<E> {
 	public long count();
 	
+	public <K> ObjectIntMap<K> countBy(final Function<? super E, ? extends K> iterator);
+	
 	public ArrayChain<E> each(final Consumer<E> iterator);
 	
 	public ArrayChain<E> filter(final Predicate<E> predicate);
 	
 	public E find(final Predicate<E> predicate);
 	
+	public <K> MapChain<K, List<E>> groupBy(final Function<? super E, ? extends K> iterator);
+	
+	public <K> MapChain<K, E> indexBy(final Function<? super E, ? extends K> iterator);
+	
 	public String join(final String delimiter);
 	
+	public <A extends Appendable> A join(final String delimiter, final A out) throws IOException;
+	
+	/**
+	 * A chain that records {@code each}, {@code filter}, {@code map},
+	 * {@code unique} and {@code without} and fuses them into one loop over the
+	 * array, run by each terminal operation. As with
+	 * {@link CollectionChain#lazy()}, the steps run again on every terminal
+	 * operation, until {@link #value()} runs them once and the chain keeps
+	 * its result.
+	 */
+	public ArrayChain<E> lazy();
+	
 	public ArrayChain<E> map(final Function<E, E> iterator);
 	
 	public E max();
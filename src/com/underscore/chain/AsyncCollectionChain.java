@@ -0,0 +1,38 @@
+package com.underscore.chain;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A chain for iterators that block, such as lookups over the network or
+ * database reads, as returned by {@link CollectionChain#async(int)}. The
+ * steps are recorded and run when a terminal operation is called, each
+ * element through all of them on its own, on virtual threads on Java 21 and
+ * later and on a pool of platform threads before that. At most
+ * maxConcurrency elements are in flight at a time. Terminal operations
+ * return at once with a {@link CompletableFuture}. The first exception
+ * thrown by an iterator fails the future and interrupts the elements still
+ * in flight, as does cancelling the future. Results keep the order of the
+ * source unless {@link #unordered()} is called, in which case they come in
+ * the order they are produced.
+ */
+public interface AsyncCollectionChain<E> {
+	public CompletableFuture<Long> count();
+
+	public AsyncCollectionChain<E> each(final Consumer<E> iterator);
+
+	public AsyncCollectionChain<E> filter(final Predicate<E> predicate);
+
+	public <R> AsyncCollectionChain<R> flatMap(final Function<E, ? extends Iterable<? extends R>> iterator);
+
+	public <R> AsyncCollectionChain<R> map(final Function<E, R> iterator);
+
+	public AsyncCollectionChain<E> ordered();
+
+	public AsyncCollectionChain<E> unordered();
+
+	public CompletableFuture<List<E>> value();
+}
@@ -1,31 +1,90 @@
 package com.underscore.chain;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 public interface CollectionChain<E> {
+	public boolean any(final Predicate<E> predicate);
+	
+	/**
+	 * A chain whose steps run at most maxConcurrency elements at a time on
+	 * virtual threads, for iterators that block.
+	 */
+	public AsyncCollectionChain<E> async(final int maxConcurrency);
+	
 	public long count();
 	
+	public <K> ObjectIntMap<K> countBy(final Function<? super E, ? extends K> iterator);
+	
 	public CollectionChain<E> each(final Consumer<E> iterator);
 	
+	public boolean every(final Predicate<E> predicate);
+	
 	public CollectionChain<E> filter(final Predicate<E> predicate);
 	
 	public E find(final Predicate<E> predicate);
 	
+	/**
+	 * The first element that has all the key-value pairs of attrs. The
+	 * elements must be maps.
+	 */
+	public E findWhere(final Map<?, ?> attrs);
+	
+	public CollectionChain<E> first(final int n);
+	
+	/**
+	 * The elements with every nested iterable and object array unwrapped, at
+	 * any depth.
+	 */
+	public CollectionChain<Object> flatten();
+	
+	/**
+	 * The elements with nested iterables and object arrays unwrapped up to
+	 * depth levels down.
+	 */
+	public CollectionChain<Object> flatten(final int depth);
+	
+	public <K> MapChain<K, List<E>> groupBy(final Function<? super E, ? extends K> iterator);
+	
+	public <K> MapChain<K, E> indexBy(final Function<? super E, ? extends K> iterator);
+	
 	public String join(final String delimiter);
 	
+	public <A extends Appendable> A join(final String delimiter, final A out) throws IOException;
+	
+	/**
+	 * A chain that pulls elements through {@code each}, {@code filter},
+	 * {@code map} and the other steps one at a time, when a terminal
+	 * operation asks for them. Every terminal operation pulls them through
+	 * again, so the steps, and the side effects of {@code each}, run once per
+	 * terminal operation. {@link #value()} pulls them through once and the
+	 * chain keeps the result; call it first to run the steps only once for
+	 * several terminal operations.
+	 */
+	public CollectionChain<E> lazy();
+	
 	public <R> CollectionChain<R> map(final Function<E, R> iterator);
 	
 	public E max(Comparator<? super E> comp);
 	
 	public E min(Comparator<? super E> comp);
 	
+	public ParallelCollectionChain<E> parallel();
+	
+	public ParallelCollectionChain<E> parallel(final ForkJoinPool pool);
+	
 	public MapChain<Boolean, List<E>> partition(Predicate<? super E> predicate);
 	
 	public E reduce(final BinaryOperator<E> iterator, E memo);
@@ -34,6 +93,14 @@ public interface CollectionChain<E> {
 	
 	public CollectionChain<E> sort(Comparator<? super E> comp);
 	
+	public <U extends Comparable<? super U>> CollectionChain<E> sortBy(final Function<? super E, ? extends U> iterator);
+	
+	public CollectionChain<E> sortByDouble(final ToDoubleFunction<? super E> iterator);
+	
+	public CollectionChain<E> sortByInt(final ToIntFunction<? super E> iterator);
+	
+	public CollectionChain<E> sortByLong(final ToLongFunction<? super E> iterator);
+	
 	public CollectionChain<E> shuffle();
 	
 	public CollectionChain<E> tap(final Consumer<Collection<E>> interceptor);
@@ -44,5 +111,11 @@ public interface CollectionChain<E> {
 	
 	public Collection<E> value();
 	
+	/**
+	 * Keeps the elements that have all the key-value pairs of attrs. The
+	 * elements must be maps.
+	 */
+	public CollectionChain<E> where(final Map<?, ?> attrs);
+	
 	public CollectionChain<E> without(final E... values);
 }
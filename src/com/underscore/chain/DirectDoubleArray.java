@@ -0,0 +1,244 @@
+package com.underscore.chain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A {@code double} array that lives outside the Java heap and is indexed by
+ * {@code long}, so it can hold more than {@link Integer#MAX_VALUE} elements.
+ * The elements are stored in direct buffer slabs of {@code 2^24} elements,
+ * which are released when the array becomes unreachable.
+ */
+public final class DirectDoubleArray {
+
+	private static final int SLAB_SHIFT = 24;
+
+	private static final int SLAB_SIZE = 1 << SLAB_SHIFT;
+
+	private static final long SLAB_MASK = SLAB_SIZE - 1;
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final DoubleBuffer[] slabs;
+
+	private long length;
+
+	public DirectDoubleArray(final long length) {
+		if (length < 0) {
+			throw new IllegalArgumentException("Negative length: " + length);
+		}
+
+		final long count = (length + SLAB_MASK) >>> SLAB_SHIFT;
+		if (count > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Length too large: " + length);
+		}
+
+		this.slabs = new DoubleBuffer[(int) count];
+		this.length = length;
+		for (int i = 0; i < slabs.length; ++i) {
+			final long remaining = length - ((long) i << SLAB_SHIFT);
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			slabs[i] = allocate(size);
+		}
+	}
+
+	private DirectDoubleArray(final DoubleBuffer[] slabs, final long length) {
+		this.slabs = slabs;
+		this.length = length;
+	}
+
+	public static DirectDoubleArray of(final double... values) {
+		final DirectDoubleArray array = new DirectDoubleArray(values.length);
+		for (int offset = 0, i = 0; offset < values.length; offset += SLAB_SIZE, ++i) {
+			final DoubleBuffer slab = array.slabs[i].duplicate();
+			slab.put(values, offset, slab.capacity());
+		}
+		return array;
+	}
+
+	public long length() {
+		return length;
+	}
+
+	public double get(final long index) {
+		checkIndex(index);
+		return slabs[(int) (index >>> SLAB_SHIFT)].get((int) (index & SLAB_MASK));
+	}
+
+	public void set(final long index, final double value) {
+		checkIndex(index);
+		slabs[(int) (index >>> SLAB_SHIFT)].put((int) (index & SLAB_MASK), value);
+	}
+
+	/*
+	 * Drops the elements past length, releasing any slab that is no longer
+	 * used.
+	 */
+	public void truncate(final long length) {
+		if (length < 0 || length > this.length) {
+			throw new IllegalArgumentException("Invalid length: " + length);
+		}
+
+		this.length = length;
+		for (int i = (int) ((length + SLAB_MASK) >>> SLAB_SHIFT); i < slabs.length; ++i) {
+			slabs[i] = null;
+		}
+	}
+
+	public double[] toArray() {
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Too many elements for an array: " + length);
+		}
+
+		final double[] results = new double[(int) length];
+		for (int offset = 0, i = 0; offset < results.length; offset += SLAB_SIZE, ++i) {
+			final DoubleBuffer slab = slabs[i].duplicate();
+			slab.get(results, offset, Math.min(SLAB_SIZE, results.length - offset));
+		}
+		return results;
+	}
+
+	public DirectDoubleArray copy() {
+		final DirectDoubleArray copy = new DirectDoubleArray(length);
+		for (int i = 0; i < copy.slabs.length; ++i) {
+			final DoubleBuffer slab = slabs[i].duplicate();
+			slab.limit(copy.slabs[i].capacity());
+			copy.slabs[i].duplicate().put(slab);
+		}
+		return copy;
+	}
+
+	public void forEach(final DoubleConsumer iterator) {
+		long remaining = length;
+		for (int i = 0; remaining > 0; ++i) {
+			final DoubleBuffer slab = slabs[i];
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			for (int j = 0; j < size; ++j) {
+				iterator.accept(slab.get(j));
+			}
+			remaining -= size;
+		}
+	}
+
+	public long indexOf(final DoublePredicate predicate) {
+		long remaining = length;
+		for (int i = 0; remaining > 0; ++i) {
+			final DoubleBuffer slab = slabs[i];
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			for (int j = 0; j < size; ++j) {
+				if (predicate.test(slab.get(j))) {
+					return ((long) i << SLAB_SHIFT) + j;
+				}
+			}
+			remaining -= size;
+		}
+		return -1;
+	}
+
+	public double reduce(final DoubleBinaryOperator iterator, double memo) {
+		long remaining = length;
+		for (int i = 0; remaining > 0; ++i) {
+			final DoubleBuffer slab = slabs[i];
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			for (int j = 0; j < size; ++j) {
+				memo = iterator.applyAsDouble(slab.get(j), memo);
+			}
+			remaining -= size;
+		}
+		return memo;
+	}
+
+	public void replaceAll(final DoubleUnaryOperator iterator) {
+		long remaining = length;
+		for (int i = 0; remaining > 0; ++i) {
+			final DoubleBuffer slab = slabs[i];
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			for (int j = 0; j < size; ++j) {
+				slab.put(j, iterator.applyAsDouble(slab.get(j)));
+			}
+			remaining -= size;
+		}
+	}
+
+	/*
+	 * Moves the elements that pass the predicate to the front, keeping their
+	 * order, and truncates the array to them.
+	 */
+	public void retainIf(final DoublePredicate predicate) {
+		long remaining = length;
+		long kept = 0;
+		for (int i = 0; remaining > 0; ++i) {
+			final DoubleBuffer slab = slabs[i];
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			for (int j = 0; j < size; ++j) {
+				final double value = slab.get(j);
+				if (predicate.test(value)) {
+					slabs[(int) (kept >>> SLAB_SHIFT)].put((int) (kept & SLAB_MASK), value);
+					++kept;
+				}
+			}
+			remaining -= size;
+		}
+		truncate(kept);
+	}
+
+	/*
+	 * A new array of the elements that pass the predicate, in order, filled
+	 * in one pass. Its last slab starts small and doubles as it fills, so a
+	 * predicate that keeps little allocates little.
+	 */
+	public DirectDoubleArray copyIf(final DoublePredicate predicate) {
+		DoubleBuffer[] results = new DoubleBuffer[1];
+		int count = 0;
+		DoubleBuffer last = null;
+		int used = 0;
+		long remaining = length;
+		for (int i = 0; remaining > 0; ++i) {
+			final DoubleBuffer slab = slabs[i];
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			for (int j = 0; j < size; ++j) {
+				final double value = slab.get(j);
+				if (!predicate.test(value)) {
+					continue;
+				}
+				if (last == null || used == last.capacity()) {
+					if (last != null && used < SLAB_SIZE) {
+						final DoubleBuffer grown = allocate(Math.min(SLAB_SIZE, used << 1));
+						last.rewind();
+						grown.put(last);
+						last = grown;
+						results[count - 1] = last;
+					} else {
+						if (count == results.length) {
+							results = Arrays.copyOf(results, count << 1);
+						}
+						last = allocate(INITIAL_CAPACITY);
+						results[count++] = last;
+						used = 0;
+					}
+				}
+				last.put(used++, value);
+			}
+			remaining -= size;
+		}
+
+		final long kept = (count == 0) ? 0 : ((long) (count - 1) << SLAB_SHIFT) + used;
+		return new DirectDoubleArray(Arrays.copyOf(results, count), kept);
+	}
+
+	private static DoubleBuffer allocate(final int size) {
+		return ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+	}
+
+	private void checkIndex(final long index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+		}
+	}
+}
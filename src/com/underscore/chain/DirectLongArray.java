@@ -0,0 +1,244 @@
+package com.underscore.chain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A {@code long} array that lives outside the Java heap and is indexed by
+ * {@code long}, so it can hold more than {@link Integer#MAX_VALUE} elements.
+ * The elements are stored in direct buffer slabs of {@code 2^24} elements,
+ * which are released when the array becomes unreachable.
+ */
+public final class DirectLongArray {
+
+	private static final int SLAB_SHIFT = 24;
+
+	private static final int SLAB_SIZE = 1 << SLAB_SHIFT;
+
+	private static final long SLAB_MASK = SLAB_SIZE - 1;
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final LongBuffer[] slabs;
+
+	private long length;
+
+	public DirectLongArray(final long length) {
+		if (length < 0) {
+			throw new IllegalArgumentException("Negative length: " + length);
+		}
+
+		final long count = (length + SLAB_MASK) >>> SLAB_SHIFT;
+		if (count > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Length too large: " + length);
+		}
+
+		this.slabs = new LongBuffer[(int) count];
+		this.length = length;
+		for (int i = 0; i < slabs.length; ++i) {
+			final long remaining = length - ((long) i << SLAB_SHIFT);
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			slabs[i] = allocate(size);
+		}
+	}
+
+	private DirectLongArray(final LongBuffer[] slabs, final long length) {
+		this.slabs = slabs;
+		this.length = length;
+	}
+
+	public static DirectLongArray of(final long... values) {
+		final DirectLongArray array = new DirectLongArray(values.length);
+		for (int offset = 0, i = 0; offset < values.length; offset += SLAB_SIZE, ++i) {
+			final LongBuffer slab = array.slabs[i].duplicate();
+			slab.put(values, offset, slab.capacity());
+		}
+		return array;
+	}
+
+	public long length() {
+		return length;
+	}
+
+	public long get(final long index) {
+		checkIndex(index);
+		return slabs[(int) (index >>> SLAB_SHIFT)].get((int) (index & SLAB_MASK));
+	}
+
+	public void set(final long index, final long value) {
+		checkIndex(index);
+		slabs[(int) (index >>> SLAB_SHIFT)].put((int) (index & SLAB_MASK), value);
+	}
+
+	/*
+	 * Drops the elements past length, releasing any slab that is no longer
+	 * used.
+	 */
+	public void truncate(final long length) {
+		if (length < 0 || length > this.length) {
+			throw new IllegalArgumentException("Invalid length: " + length);
+		}
+
+		this.length = length;
+		for (int i = (int) ((length + SLAB_MASK) >>> SLAB_SHIFT); i < slabs.length; ++i) {
+			slabs[i] = null;
+		}
+	}
+
+	public long[] toArray() {
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Too many elements for an array: " + length);
+		}
+
+		final long[] results = new long[(int) length];
+		for (int offset = 0, i = 0; offset < results.length; offset += SLAB_SIZE, ++i) {
+			final LongBuffer slab = slabs[i].duplicate();
+			slab.get(results, offset, Math.min(SLAB_SIZE, results.length - offset));
+		}
+		return results;
+	}
+
+	public DirectLongArray copy() {
+		final DirectLongArray copy = new DirectLongArray(length);
+		for (int i = 0; i < copy.slabs.length; ++i) {
+			final LongBuffer slab = slabs[i].duplicate();
+			slab.limit(copy.slabs[i].capacity());
+			copy.slabs[i].duplicate().put(slab);
+		}
+		return copy;
+	}
+
+	public void forEach(final LongConsumer iterator) {
+		long remaining = length;
+		for (int i = 0; remaining > 0; ++i) {
+			final LongBuffer slab = slabs[i];
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			for (int j = 0; j < size; ++j) {
+				iterator.accept(slab.get(j));
+			}
+			remaining -= size;
+		}
+	}
+
+	public long indexOf(final LongPredicate predicate) {
+		long remaining = length;
+		for (int i = 0; remaining > 0; ++i) {
+			final LongBuffer slab = slabs[i];
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			for (int j = 0; j < size; ++j) {
+				if (predicate.test(slab.get(j))) {
+					return ((long) i << SLAB_SHIFT) + j;
+				}
+			}
+			remaining -= size;
+		}
+		return -1;
+	}
+
+	public long reduce(final LongBinaryOperator iterator, long memo) {
+		long remaining = length;
+		for (int i = 0; remaining > 0; ++i) {
+			final LongBuffer slab = slabs[i];
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			for (int j = 0; j < size; ++j) {
+				memo = iterator.applyAsLong(slab.get(j), memo);
+			}
+			remaining -= size;
+		}
+		return memo;
+	}
+
+	public void replaceAll(final LongUnaryOperator iterator) {
+		long remaining = length;
+		for (int i = 0; remaining > 0; ++i) {
+			final LongBuffer slab = slabs[i];
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			for (int j = 0; j < size; ++j) {
+				slab.put(j, iterator.applyAsLong(slab.get(j)));
+			}
+			remaining -= size;
+		}
+	}
+
+	/*
+	 * Moves the elements that pass the predicate to the front, keeping their
+	 * order, and truncates the array to them.
+	 */
+	public void retainIf(final LongPredicate predicate) {
+		long remaining = length;
+		long kept = 0;
+		for (int i = 0; remaining > 0; ++i) {
+			final LongBuffer slab = slabs[i];
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			for (int j = 0; j < size; ++j) {
+				final long value = slab.get(j);
+				if (predicate.test(value)) {
+					slabs[(int) (kept >>> SLAB_SHIFT)].put((int) (kept & SLAB_MASK), value);
+					++kept;
+				}
+			}
+			remaining -= size;
+		}
+		truncate(kept);
+	}
+
+	/*
+	 * A new array of the elements that pass the predicate, in order, filled
+	 * in one pass. Its last slab starts small and doubles as it fills, so a
+	 * predicate that keeps little allocates little.
+	 */
+	public DirectLongArray copyIf(final LongPredicate predicate) {
+		LongBuffer[] results = new LongBuffer[1];
+		int count = 0;
+		LongBuffer last = null;
+		int used = 0;
+		long remaining = length;
+		for (int i = 0; remaining > 0; ++i) {
+			final LongBuffer slab = slabs[i];
+			final int size = (int) Math.min(SLAB_SIZE, remaining);
+			for (int j = 0; j < size; ++j) {
+				final long value = slab.get(j);
+				if (!predicate.test(value)) {
+					continue;
+				}
+				if (last == null || used == last.capacity()) {
+					if (last != null && used < SLAB_SIZE) {
+						final LongBuffer grown = allocate(Math.min(SLAB_SIZE, used << 1));
+						last.rewind();
+						grown.put(last);
+						last = grown;
+						results[count - 1] = last;
+					} else {
+						if (count == results.length) {
+							results = Arrays.copyOf(results, count << 1);
+						}
+						last = allocate(INITIAL_CAPACITY);
+						results[count++] = last;
+						used = 0;
+					}
+				}
+				last.put(used++, value);
+			}
+			remaining -= size;
+		}
+
+		final long kept = (count == 0) ? 0 : ((long) (count - 1) << SLAB_SHIFT) + used;
+		return new DirectLongArray(Arrays.copyOf(results, count), kept);
+	}
+
+	private static LongBuffer allocate(final int size) {
+		return ByteBuffer.allocateDirect(size * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+	}
+
+	private void checkIndex(final long index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.underscore.chain;
+
+import java.util.OptionalDouble;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * An {@link ArrayChain} counterpart that keeps its elements in an
+ * {@code double[]} and takes primitive operators, so no step of the chain boxes
+ * an element. Use {@link #boxed()} to continue with the object-based chain.
+ */
+public interface DoubleArrayChain {
+	public ArrayChain<Double> boxed();
+	
+	/**
+	 * Whether the chain holds value. When isSorted is true the chain must be
+	 * sorted, and is searched with a binary search.
+	 */
+	public boolean contains(final double value, final boolean isSorted);
+	
+	public long count();
+	
+	/**
+	 * Counts the elements that are at least {@code min} and less than
+	 * {@code max}.
+	 */
+	public long countBetween(final double min, final double max);
+	
+	public double dot(final double[] other);
+	
+	public DoubleArrayChain each(final DoubleConsumer iterator);
+	
+	public DoubleArrayChain filter(final DoublePredicate predicate);
+	
+	public OptionalDouble find(final DoublePredicate predicate);
+	
+	public int indexOf(final double value, final boolean isSorted);
+	
+	public String join(final String delimiter);
+	
+	/**
+	 * The primitive form of {@link ArrayChain#lazy()}, with the same rule:
+	 * the recorded steps run again on every terminal operation, until
+	 * {@link #value()} runs them once.
+	 */
+	public DoubleArrayChain lazy();
+	
+	public DoubleArrayChain map(final DoubleUnaryOperator iterator);
+	
+	public OptionalDouble max();
+	
+	public OptionalDouble min();
+	
+	public double reduce(final DoubleBinaryOperator iterator, double memo);
+	
+	public DoubleArrayChain sort();
+	
+	public DoubleArrayChain shuffle();
+	
+	/**
+	 * The index of the first element of the sorted chain that is not less
+	 * than value.
+	 */
+	public int sortedIndex(final double value);
+	
+	/**
+	 * Merges values, which need not be sorted, into the sorted chain.
+	 */
+	public DoubleArrayChain sortedInsert(final double... values);
+	
+	public double sum();
+	
+	public DoubleArrayChain tap(final Consumer<double[]> interceptor);
+	
+	public DoubleArrayChain unique();
+	
+	public double[] value();
+	
+	public DoubleArrayChain without(final double... values);
+}
@@ -0,0 +1,83 @@
+package com.underscore.chain;
+
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * An {@link ArrayChain} counterpart that keeps its elements in an
+ * {@code int[]} and takes primitive operators, so no step of the chain boxes
+ * an element. Use {@link #boxed()} to continue with the object-based chain.
+ */
+public interface IntArrayChain {
+	public ArrayChain<Integer> boxed();
+	
+	/**
+	 * Whether the chain holds value. When isSorted is true the chain must be
+	 * sorted, and is searched with a binary search.
+	 */
+	public boolean contains(final int value, final boolean isSorted);
+	
+	public long count();
+	
+	/**
+	 * Counts the elements that are at least {@code min} and less than
+	 * {@code max}.
+	 */
+	public long countBetween(final int min, final int max);
+	
+	public long dot(final int[] other);
+	
+	public IntArrayChain each(final IntConsumer iterator);
+	
+	public IntArrayChain filter(final IntPredicate predicate);
+	
+	public OptionalInt find(final IntPredicate predicate);
+	
+	public int indexOf(final int value, final boolean isSorted);
+	
+	public String join(final String delimiter);
+	
+	/**
+	 * The primitive form of {@link ArrayChain#lazy()}, with the same rule:
+	 * the recorded steps run again on every terminal operation, until
+	 * {@link #value()} runs them once.
+	 */
+	public IntArrayChain lazy();
+	
+	public IntArrayChain map(final IntUnaryOperator iterator);
+	
+	public OptionalInt max();
+	
+	public OptionalInt min();
+	
+	public int reduce(final IntBinaryOperator iterator, int memo);
+	
+	public IntArrayChain sort();
+	
+	public IntArrayChain shuffle();
+	
+	/**
+	 * The index of the first element of the sorted chain that is not less
+	 * than value.
+	 */
+	public int sortedIndex(final int value);
+	
+	/**
+	 * Merges values, which need not be sorted, into the sorted chain.
+	 */
+	public IntArrayChain sortedInsert(final int... values);
+	
+	public long sum();
+	
+	public IntArrayChain tap(final Consumer<int[]> interceptor);
+	
+	public IntArrayChain unique();
+	
+	public int[] value();
+	
+	public IntArrayChain without(final int... values);
+}
@@ -0,0 +1,247 @@
+package com.underscore.chain;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The {@code int}s from start inclusive towards stop exclusive by step, held
+ * as those three numbers rather than as an array. Size, membership and
+ * element lookup are computed, and iteration steps a single counter without
+ * boxing. The spliterator is {@link Spliterator#SIZED} and
+ * {@link Spliterator#SUBSIZED}, so a parallel stream splits the range
+ * evenly. A range may hold up to 2<sup>32</sup> - 1 values, so sizes and
+ * indexes are {@code long}s.
+ */
+public final class IntRange {
+
+	private final int start;
+
+	private final int stop;
+
+	private final int step;
+
+	private final long size;
+
+	public IntRange(final int start, final int stop, final int step) {
+		if (step == 0) {
+			throw new IllegalArgumentException("Zero step");
+		}
+
+		final long distance = (step > 0) ? (long) stop - start : (long) start - stop;
+		final long stride = Math.abs((long) step);
+		this.start = start;
+		this.stop = stop;
+		this.step = step;
+		this.size = (distance <= 0) ? 0 : (distance - 1) / stride + 1;
+	}
+
+	public int start() {
+		return start;
+	}
+
+	public int stop() {
+		return stop;
+	}
+
+	public int step() {
+		return step;
+	}
+
+	public long size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int get(final long index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+		return (int) (start + index * step);
+	}
+
+	public int first() {
+		return get(0);
+	}
+
+	public int last() {
+		return get(size - 1);
+	}
+
+	public int min() {
+		return (step > 0) ? first() : last();
+	}
+
+	public int max() {
+		return (step > 0) ? last() : first();
+	}
+
+	/*
+	 * The index of value, or -1 if the range does not hold it.
+	 */
+	public long indexOf(final int value) {
+		final long offset = (long) value - start;
+		if (offset % step != 0) {
+			return -1;
+		}
+
+		final long index = offset / step;
+		return (index >= 0 && index < size) ? index : -1;
+	}
+
+	public boolean contains(final int value) {
+		return indexOf(value) >= 0;
+	}
+
+	/*
+	 * The sum of the values, wrapping on overflow as adding them one by one
+	 * into a long would.
+	 */
+	public long sum() {
+		final long pairs = (size % 2 == 0) ? (size / 2) * (size - 1) : size * ((size - 1) / 2);
+		return size * start + pairs * step;
+	}
+
+	public int[] toArray() {
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Range too large for an array: " + size);
+		}
+
+		final int[] results = new int[(int) size];
+		int value = start;
+		for (int i = 0; i < results.length; ++i, value += step) {
+			results[i] = value;
+		}
+		return results;
+	}
+
+	public void forEach(final IntConsumer action) {
+		int value = start;
+		for (long i = 0; i < size; ++i, value += step) {
+			action.accept(value);
+		}
+	}
+
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+			private long index;
+
+			private int value = start;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public int nextInt() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				final int result = value;
+				value += step;
+				++index;
+				return result;
+			}
+		};
+	}
+
+	public Spliterator.OfInt spliterator() {
+		return new RangeSpliterator(0, size);
+	}
+
+	public IntStream stream() {
+		return StreamSupport.intStream(spliterator(), false);
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (!(o instanceof IntRange)) {
+			return false;
+		}
+
+		final IntRange other = (IntRange) o;
+		return size == other.size && (size == 0 || (start == other.start && (size == 1 || step == other.step)));
+	}
+
+	@Override
+	public int hashCode() {
+		return (size == 0) ? 0 : Objects.hash(start, (size == 1) ? 0 : step, size);
+	}
+
+	@Override
+	public String toString() {
+		return "range(" + start + ", " + stop + ", " + step + ")";
+	}
+
+	/*
+	 * The values at indexes from inclusive to to exclusive.
+	 */
+	private final class RangeSpliterator implements Spliterator.OfInt {
+
+		private long from;
+
+		private final long to;
+
+		RangeSpliterator(final long from, final long to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Spliterator.OfInt trySplit() {
+			final long mid = (from + to) >>> 1;
+			if (mid <= from) {
+				return null;
+			}
+			final Spliterator.OfInt prefix = new RangeSpliterator(from, mid);
+			from = mid;
+			return prefix;
+		}
+
+		@Override
+		public boolean tryAdvance(final IntConsumer action) {
+			if (from >= to) {
+				return false;
+			}
+			action.accept((int) (start + from++ * step));
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(final IntConsumer action) {
+			int value = (int) (start + from * step);
+			for (long i = from; i < to; ++i, value += step) {
+				action.accept(value);
+			}
+			from = to;
+		}
+
+		@Override
+		public long estimateSize() {
+			return to - from;
+		}
+
+		@Override
+		public int characteristics() {
+			final int characteristics = ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+			return (step > 0) ? characteristics | SORTED : characteristics;
+		}
+
+		@Override
+		public Comparator<? super Integer> getComparator() {
+			if (step > 0) {
+				return null;
+			}
+			throw new IllegalStateException();
+		}
+	}
+}
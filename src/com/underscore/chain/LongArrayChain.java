@@ -0,0 +1,83 @@
+package com.underscore.chain;
+
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * An {@link ArrayChain} counterpart that keeps its elements in an
+ * {@code long[]} and takes primitive operators, so no step of the chain boxes
+ * an element. Use {@link #boxed()} to continue with the object-based chain.
+ */
+public interface LongArrayChain {
+	public ArrayChain<Long> boxed();
+	
+	/**
+	 * Whether the chain holds value. When isSorted is true the chain must be
+	 * sorted, and is searched with a binary search.
+	 */
+	public boolean contains(final long value, final boolean isSorted);
+	
+	public long count();
+	
+	/**
+	 * Counts the elements that are at least {@code min} and less than
+	 * {@code max}.
+	 */
+	public long countBetween(final long min, final long max);
+	
+	public long dot(final long[] other);
+	
+	public LongArrayChain each(final LongConsumer iterator);
+	
+	public LongArrayChain filter(final LongPredicate predicate);
+	
+	public OptionalLong find(final LongPredicate predicate);
+	
+	public int indexOf(final long value, final boolean isSorted);
+	
+	public String join(final String delimiter);
+	
+	/**
+	 * The primitive form of {@link ArrayChain#lazy()}, with the same rule:
+	 * the recorded steps run again on every terminal operation, until
+	 * {@link #value()} runs them once.
+	 */
+	public LongArrayChain lazy();
+	
+	public LongArrayChain map(final LongUnaryOperator iterator);
+	
+	public OptionalLong max();
+	
+	public OptionalLong min();
+	
+	public long reduce(final LongBinaryOperator iterator, long memo);
+	
+	public LongArrayChain sort();
+	
+	public LongArrayChain shuffle();
+	
+	/**
+	 * The index of the first element of the sorted chain that is not less
+	 * than value.
+	 */
+	public int sortedIndex(final long value);
+	
+	/**
+	 * Merges values, which need not be sorted, into the sorted chain.
+	 */
+	public LongArrayChain sortedInsert(final long... values);
+	
+	public long sum();
+	
+	public LongArrayChain tap(final Consumer<long[]> interceptor);
+	
+	public LongArrayChain unique();
+	
+	public long[] value();
+	
+	public LongArrayChain without(final long... values);
+}
@@ -0,0 +1,32 @@
+package com.underscore.chain;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link MapChain} counterpart over a {@link LongDoubleMap}, so that neither
+ * the keys nor the values are boxed. {@link #keys()} and {@link #values()}
+ * continue with the primitive array chains.
+ */
+public interface LongDoubleMapChain {
+	public long count();
+	
+	public LongDoubleMapChain each(final LongDoubleMap.EntryConsumer iterator);
+	
+	public String join(final String delimiter);
+	
+	public LongArrayChain keys();
+	
+	public <R> CollectionChain<R> map(final LongDoubleMap.EntryFunction<R> iterator);
+	
+	public LongDoubleMapChain omit(final long... keys);
+	
+	public LongDoubleMapChain pick(final long... keys);
+	
+	public LongDoubleMapChain tap(final Consumer<LongDoubleMap> interceptor);
+	
+	public <E> CollectionChain<E> toList(final LongDoubleMap.EntryFunction<? extends E> mapEntryIterator);
+	
+	public LongDoubleMap value();
+	
+	public DoubleArrayChain values();
+}
@@ -0,0 +1,294 @@
+package com.underscore.chain;
+
+import java.util.Arrays;
+
+/**
+ * A map from {@code long} keys to {@code long} values that boxes neither. The
+ * entries are stored in two parallel arrays and collisions are resolved by
+ * linear probing, so a lookup reads adjacent slots instead of following
+ * {@code HashMap} nodes. Key {@code 0} marks a free slot and is kept outside
+ * the table when it is used. Iteration order is unspecified. Not
+ * thread-safe.
+ */
+public final class LongLongMap {
+
+	@FunctionalInterface
+	public interface EntryConsumer {
+		public void accept(final long key, final long value);
+	}
+
+	@FunctionalInterface
+	public interface EntryFunction<R> {
+		public R apply(final long key, final long value);
+	}
+
+	private static final int MIN_CAPACITY = 4;
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private long[] keys;
+
+	private long[] values;
+
+	private int mask;
+
+	/*
+	 * The number of entries in the table, which does not include the zero key.
+	 */
+	private int size;
+
+	private int threshold;
+
+	private boolean hasZeroKey;
+
+	private long zeroValue;
+
+	public LongLongMap() {
+		this(0);
+	}
+
+	public LongLongMap(final int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("Negative size: " + expectedSize);
+		}
+
+		allocate(capacityFor(expectedSize));
+	}
+
+	public static LongLongMap of(final long[] keys, final long[] values) {
+		if (keys.length != values.length) {
+			throw new IllegalArgumentException("Length mismatch: " + keys.length + " and " + values.length);
+		}
+
+		final LongLongMap map = new LongLongMap(keys.length);
+		for (int i = 0; i < keys.length; ++i) {
+			map.put(keys[i], values[i]);
+		}
+		return map;
+	}
+
+	/*
+	 * The smallest power of two that holds expectedSize entries at a load
+	 * factor of 3/4.
+	 */
+	private static int capacityFor(final int expectedSize) {
+		final long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 4 / 3 + 1);
+		if (needed > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Too many entries: " + expectedSize);
+		}
+		return Integer.highestOneBit((int) needed - 1) << 1;
+	}
+
+	private void allocate(final int capacity) {
+		keys = new long[capacity];
+		values = new long[capacity];
+		mask = capacity - 1;
+		threshold = (capacity == MAX_CAPACITY) ? capacity - 1 : capacity / 4 * 3;
+	}
+
+	private int slot(final long key) {
+		final long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	/*
+	 * The slot holding key, or the free slot where it would be inserted
+	 * encoded as -(slot + 1).
+	 */
+	private int find(final long key) {
+		final long[] keys = this.keys;
+		for (int i = slot(key);; i = (i + 1) & mask) {
+			final long current = keys[i];
+			if (current == key) {
+				return i;
+			}
+			if (current == 0) {
+				return -(i + 1);
+			}
+		}
+	}
+
+	public int size() {
+		return hasZeroKey ? size + 1 : size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public boolean containsKey(final long key) {
+		return (key == 0) ? hasZeroKey : find(key) >= 0;
+	}
+
+	public long getOrDefault(final long key, final long defaultValue) {
+		if (key == 0) {
+			return hasZeroKey ? zeroValue : defaultValue;
+		}
+
+		final int slot = find(key);
+		return (slot >= 0) ? values[slot] : defaultValue;
+	}
+
+	public void put(final long key, final long value) {
+		if (key == 0) {
+			hasZeroKey = true;
+			zeroValue = value;
+			return;
+		}
+
+		final int slot = find(key);
+		if (slot >= 0) {
+			values[slot] = value;
+			return;
+		}
+
+		keys[-slot - 1] = key;
+		values[-slot - 1] = value;
+		if (++size >= threshold) {
+			grow();
+		}
+	}
+
+	public boolean remove(final long key) {
+		if (key == 0) {
+			final boolean removed = hasZeroKey;
+			hasZeroKey = false;
+			zeroValue = 0;
+			return removed;
+		}
+
+		final int slot = find(key);
+		if (slot < 0) {
+			return false;
+		}
+
+		removeAt(slot);
+		return true;
+	}
+
+	/*
+	 * Empties slot and moves the following entries of the probe run back into
+	 * the gap when it lies between their home slot and their current one, so
+	 * that no lookup stops early at the freed slot.
+	 */
+	private void removeAt(final int slot) {
+		final long[] keys = this.keys;
+		final long[] values = this.values;
+		int gap = slot;
+		for (int i = (slot + 1) & mask;; i = (i + 1) & mask) {
+			final long key = keys[i];
+			if (key == 0) {
+				break;
+			}
+			if (((i - slot(key)) & mask) >= ((i - gap) & mask)) {
+				keys[gap] = key;
+				values[gap] = values[i];
+				gap = i;
+			}
+		}
+		keys[gap] = 0;
+		values[gap] = 0;
+		--size;
+	}
+
+	private void grow() {
+		if (keys.length == MAX_CAPACITY) {
+			throw new IllegalStateException("Map is full: " + size());
+		}
+
+		final long[] oldKeys = keys;
+		final long[] oldValues = values;
+		allocate(oldKeys.length << 1);
+		final long[] keys = this.keys;
+		final long[] values = this.values;
+		for (int i = 0; i < oldKeys.length; ++i) {
+			final long key = oldKeys[i];
+			if (key != 0) {
+				int slot = slot(key);
+				while (keys[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	public void clear() {
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, 0);
+		size = 0;
+		hasZeroKey = false;
+		zeroValue = 0;
+	}
+
+	public LongLongMap copy() {
+		final LongLongMap copy = new LongLongMap();
+		copy.keys = keys.clone();
+		copy.values = values.clone();
+		copy.mask = mask;
+		copy.size = size;
+		copy.threshold = threshold;
+		copy.hasZeroKey = hasZeroKey;
+		copy.zeroValue = zeroValue;
+		return copy;
+	}
+
+	public void forEach(final EntryConsumer iterator) {
+		if (hasZeroKey) {
+			iterator.accept(0, zeroValue);
+		}
+
+		final long[] keys = this.keys;
+		final long[] values = this.values;
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != 0) {
+				iterator.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	public long[] keys() {
+		final long[] results = new long[size()];
+		int length = 0;
+		if (hasZeroKey) {
+			results[length++] = 0;
+		}
+
+		final long[] keys = this.keys;
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != 0) {
+				results[length++] = keys[i];
+			}
+		}
+		return results;
+	}
+
+	public long[] values() {
+		final long[] results = new long[size()];
+		int length = 0;
+		if (hasZeroKey) {
+			results[length++] = zeroValue;
+		}
+
+		final long[] keys = this.keys;
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != 0) {
+				results[length++] = values[i];
+			}
+		}
+		return results;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("{");
+		forEach((key, value) -> {
+			if (builder.length() > 1) {
+				builder.append(", ");
+			}
+			builder.append(key).append('=').append(value);
+		});
+		return builder.append('}').toString();
+	}
+}
@@ -0,0 +1,32 @@
+package com.underscore.chain;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link MapChain} counterpart over a {@link LongLongMap}, so that neither
+ * the keys nor the values are boxed. {@link #keys()} and {@link #values()}
+ * continue with the primitive array chains.
+ */
+public interface LongLongMapChain {
+	public long count();
+	
+	public LongLongMapChain each(final LongLongMap.EntryConsumer iterator);
+	
+	public String join(final String delimiter);
+	
+	public LongArrayChain keys();
+	
+	public <R> CollectionChain<R> map(final LongLongMap.EntryFunction<R> iterator);
+	
+	public LongLongMapChain omit(final long... keys);
+	
+	public LongLongMapChain pick(final long... keys);
+	
+	public LongLongMapChain tap(final Consumer<LongLongMap> interceptor);
+	
+	public <E> CollectionChain<E> toList(final LongLongMap.EntryFunction<? extends E> mapEntryIterator);
+	
+	public LongLongMap value();
+	
+	public LongArrayChain values();
+}
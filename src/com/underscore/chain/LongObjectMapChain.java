@@ -0,0 +1,32 @@
+package com.underscore.chain;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link MapChain} counterpart over a {@link LongObjectMap}, so that the
+ * keys are not boxed. {@link #keys()} continues with a
+ * {@link LongArrayChain}.
+ */
+public interface LongObjectMapChain<V> {
+	public long count();
+	
+	public LongObjectMapChain<V> each(final LongObjectMap.EntryConsumer<? super V> iterator);
+	
+	public String join(final String delimiter);
+	
+	public LongArrayChain keys();
+	
+	public <R> CollectionChain<R> map(final LongObjectMap.EntryFunction<? super V, R> iterator);
+	
+	public LongObjectMapChain<V> omit(final long... keys);
+	
+	public LongObjectMapChain<V> pick(final long... keys);
+	
+	public LongObjectMapChain<V> tap(final Consumer<LongObjectMap<V>> interceptor);
+	
+	public <E> CollectionChain<E> toList(final LongObjectMap.EntryFunction<? super V, ? extends E> mapEntryIterator);
+	
+	public LongObjectMap<V> value();
+	
+	public CollectionChain<V> values();
+}
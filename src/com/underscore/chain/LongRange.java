@@ -0,0 +1,256 @@
+package com.underscore.chain;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The {@code long} counterpart of {@link IntRange}. Distances between start
+ * and stop are taken as unsigned, so any start and stop work, but a range
+ * may hold at most {@link Long#MAX_VALUE} values.
+ */
+public final class LongRange {
+
+	private final long start;
+
+	private final long stop;
+
+	private final long step;
+
+	private final long size;
+
+	public LongRange(final long start, final long stop, final long step) {
+		if (step == 0) {
+			throw new IllegalArgumentException("Zero step");
+		}
+
+		this.start = start;
+		this.stop = stop;
+		this.step = step;
+		if ((step > 0) ? stop <= start : stop >= start) {
+			this.size = 0;
+		} else {
+			/* -step is taken as unsigned too, which is right for Long.MIN_VALUE. */
+			final long distance = (step > 0) ? stop - start : start - stop;
+			final long size = Long.divideUnsigned(distance - 1, (step > 0) ? step : -step) + 1;
+			if (size <= 0) {
+				throw new IllegalArgumentException("Too many values: range(" + start + ", " + stop + ", " + step + ")");
+			}
+			this.size = size;
+		}
+	}
+
+	public long start() {
+		return start;
+	}
+
+	public long stop() {
+		return stop;
+	}
+
+	public long step() {
+		return step;
+	}
+
+	public long size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public long get(final long index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+		return start + index * step;
+	}
+
+	public long first() {
+		return get(0);
+	}
+
+	public long last() {
+		return get(size - 1);
+	}
+
+	public long min() {
+		return (step > 0) ? first() : last();
+	}
+
+	public long max() {
+		return (step > 0) ? last() : first();
+	}
+
+	/*
+	 * The index of value, or -1 if the range does not hold it.
+	 */
+	public long indexOf(final long value) {
+		if ((step > 0) ? value < start : value > start) {
+			return -1;
+		}
+
+		final long offset = (step > 0) ? value - start : start - value;
+		final long stride = (step > 0) ? step : -step;
+		if (Long.remainderUnsigned(offset, stride) != 0) {
+			return -1;
+		}
+
+		final long index = Long.divideUnsigned(offset, stride);
+		return (index >= 0 && index < size) ? index : -1;
+	}
+
+	public boolean contains(final long value) {
+		return indexOf(value) >= 0;
+	}
+
+	/*
+	 * The sum of the values, wrapping on overflow as adding them one by one
+	 * would.
+	 */
+	public long sum() {
+		final long pairs = (size % 2 == 0) ? (size / 2) * (size - 1) : size * ((size - 1) / 2);
+		return size * start + pairs * step;
+	}
+
+	public long[] toArray() {
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Range too large for an array: " + size);
+		}
+
+		final long[] results = new long[(int) size];
+		long value = start;
+		for (int i = 0; i < results.length; ++i, value += step) {
+			results[i] = value;
+		}
+		return results;
+	}
+
+	public void forEach(final LongConsumer action) {
+		long value = start;
+		for (long i = 0; i < size; ++i, value += step) {
+			action.accept(value);
+		}
+	}
+
+	public PrimitiveIterator.OfLong iterator() {
+		return new PrimitiveIterator.OfLong() {
+			private long index;
+
+			private long value = start;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public long nextLong() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				final long result = value;
+				value += step;
+				++index;
+				return result;
+			}
+		};
+	}
+
+	public Spliterator.OfLong spliterator() {
+		return new RangeSpliterator(0, size);
+	}
+
+	public LongStream stream() {
+		return StreamSupport.longStream(spliterator(), false);
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (!(o instanceof LongRange)) {
+			return false;
+		}
+
+		final LongRange other = (LongRange) o;
+		return size == other.size && (size == 0 || (start == other.start && (size == 1 || step == other.step)));
+	}
+
+	@Override
+	public int hashCode() {
+		return (size == 0) ? 0 : Objects.hash(start, (size == 1) ? 0 : step, size);
+	}
+
+	@Override
+	public String toString() {
+		return "range(" + start + ", " + stop + ", " + step + ")";
+	}
+
+	/*
+	 * The values at indexes from inclusive to to exclusive.
+	 */
+	private final class RangeSpliterator implements Spliterator.OfLong {
+
+		private long from;
+
+		private final long to;
+
+		RangeSpliterator(final long from, final long to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Spliterator.OfLong trySplit() {
+			final long mid = (from + to) >>> 1;
+			if (mid <= from) {
+				return null;
+			}
+			final Spliterator.OfLong prefix = new RangeSpliterator(from, mid);
+			from = mid;
+			return prefix;
+		}
+
+		@Override
+		public boolean tryAdvance(final LongConsumer action) {
+			if (from >= to) {
+				return false;
+			}
+			action.accept(start + from++ * step);
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(final LongConsumer action) {
+			long value = start + from * step;
+			for (long i = from; i < to; ++i, value += step) {
+				action.accept(value);
+			}
+			from = to;
+		}
+
+		@Override
+		public long estimateSize() {
+			return to - from;
+		}
+
+		@Override
+		public int characteristics() {
+			final int characteristics = ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+			return (step > 0) ? characteristics | SORTED : characteristics;
+		}
+
+		@Override
+		public Comparator<? super Long> getComparator() {
+			if (step > 0) {
+				return null;
+			}
+			throw new IllegalStateException();
+		}
+	}
+}
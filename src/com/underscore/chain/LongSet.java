@@ -0,0 +1,258 @@
+package com.underscore.chain;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of {@code long} values that boxes none of them, the set counterpart
+ * of {@link LongLongMap}. The values are stored in one array and collisions
+ * are resolved by linear probing. Value {@code 0} marks a free slot and is
+ * kept outside the table when it is used. {@code int} values widen to
+ * {@code long}, and {@code double} values can be added by their
+ * {@link Double#doubleToLongBits} so that they match as {@link Double#equals}
+ * does. Iteration order is unspecified. Not thread-safe.
+ */
+public final class LongSet {
+
+	private static final int MIN_CAPACITY = 4;
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private long[] values;
+
+	private int mask;
+
+	/*
+	 * The number of values in the table, which does not include zero.
+	 */
+	private int size;
+
+	private int threshold;
+
+	private boolean hasZero;
+
+	public LongSet() {
+		this(0);
+	}
+
+	public LongSet(final int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("Negative size: " + expectedSize);
+		}
+
+		allocate(capacityFor(expectedSize));
+	}
+
+	public static LongSet of(final long... values) {
+		final LongSet set = new LongSet(values.length);
+		for (long value : values) {
+			set.add(value);
+		}
+		return set;
+	}
+
+	public static LongSet of(final int... values) {
+		final LongSet set = new LongSet(values.length);
+		for (int value : values) {
+			set.add(value);
+		}
+		return set;
+	}
+
+	/*
+	 * The set of the bits of values, as returned by Double.doubleToLongBits.
+	 */
+	public static LongSet ofBits(final double... values) {
+		final LongSet set = new LongSet(values.length);
+		for (double value : values) {
+			set.add(Double.doubleToLongBits(value));
+		}
+		return set;
+	}
+
+	/*
+	 * The smallest power of two that holds expectedSize values at a load
+	 * factor of 3/4.
+	 */
+	private static int capacityFor(final int expectedSize) {
+		final long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 4 / 3 + 1);
+		if (needed > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Too many values: " + expectedSize);
+		}
+		return Integer.highestOneBit((int) needed - 1) << 1;
+	}
+
+	private void allocate(final int capacity) {
+		values = new long[capacity];
+		mask = capacity - 1;
+		threshold = (capacity == MAX_CAPACITY) ? capacity - 1 : capacity / 4 * 3;
+	}
+
+	private int slot(final long value) {
+		final long hash = value * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	/*
+	 * The slot holding value, or the free slot where it would be inserted
+	 * encoded as -(slot + 1).
+	 */
+	private int find(final long value) {
+		final long[] values = this.values;
+		for (int i = slot(value);; i = (i + 1) & mask) {
+			final long current = values[i];
+			if (current == value) {
+				return i;
+			}
+			if (current == 0) {
+				return -(i + 1);
+			}
+		}
+	}
+
+	public int size() {
+		return hasZero ? size + 1 : size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public boolean contains(final long value) {
+		return (value == 0) ? hasZero : find(value) >= 0;
+	}
+
+	public boolean add(final long value) {
+		if (value == 0) {
+			final boolean added = !hasZero;
+			hasZero = true;
+			return added;
+		}
+
+		final int slot = find(value);
+		if (slot >= 0) {
+			return false;
+		}
+
+		values[-slot - 1] = value;
+		if (++size >= threshold) {
+			grow();
+		}
+		return true;
+	}
+
+	public boolean remove(final long value) {
+		if (value == 0) {
+			final boolean removed = hasZero;
+			hasZero = false;
+			return removed;
+		}
+
+		final int slot = find(value);
+		if (slot < 0) {
+			return false;
+		}
+
+		removeAt(slot);
+		return true;
+	}
+
+	/*
+	 * Empties slot and moves the following values of the probe run back into
+	 * the gap when it lies between their home slot and their current one, so
+	 * that no lookup stops early at the freed slot.
+	 */
+	private void removeAt(final int slot) {
+		final long[] values = this.values;
+		int gap = slot;
+		for (int i = (slot + 1) & mask;; i = (i + 1) & mask) {
+			final long value = values[i];
+			if (value == 0) {
+				break;
+			}
+			if (((i - slot(value)) & mask) >= ((i - gap) & mask)) {
+				values[gap] = value;
+				gap = i;
+			}
+		}
+		values[gap] = 0;
+		--size;
+	}
+
+	private void grow() {
+		if (values.length == MAX_CAPACITY) {
+			throw new IllegalStateException("Set is full: " + size());
+		}
+
+		final long[] oldValues = values;
+		allocate(oldValues.length << 1);
+		final long[] values = this.values;
+		for (int i = 0; i < oldValues.length; ++i) {
+			final long value = oldValues[i];
+			if (value != 0) {
+				int slot = slot(value);
+				while (values[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				values[slot] = value;
+			}
+		}
+	}
+
+	public void clear() {
+		Arrays.fill(values, 0);
+		size = 0;
+		hasZero = false;
+	}
+
+	public LongSet copy() {
+		final LongSet copy = new LongSet();
+		copy.values = values.clone();
+		copy.mask = mask;
+		copy.size = size;
+		copy.threshold = threshold;
+		copy.hasZero = hasZero;
+		return copy;
+	}
+
+	public void forEach(final LongConsumer iterator) {
+		if (hasZero) {
+			iterator.accept(0);
+		}
+
+		final long[] values = this.values;
+		for (int i = 0; i < values.length; ++i) {
+			if (values[i] != 0) {
+				iterator.accept(values[i]);
+			}
+		}
+	}
+
+	public long[] toArray() {
+		final long[] results = new long[size()];
+		int length = 0;
+		if (hasZero) {
+			results[length++] = 0;
+		}
+
+		final long[] values = this.values;
+		for (int i = 0; i < values.length; ++i) {
+			if (values[i] != 0) {
+				results[length++] = values[i];
+			}
+		}
+		return results;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("[");
+		forEach((value) -> {
+			if (builder.length() > 1) {
+				builder.append(", ");
+			}
+			builder.append(value);
+		});
+		return builder.append(']').toString();
+	}
+}
@@ -1,5 +1,6 @@
 package com.underscore.chain;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -12,6 +13,8 @@ public interface MapChain<K, V> {
 	
 	public String join(final String delimiter);
 	
+	public <A extends Appendable> A join(final String delimiter, final A out) throws IOException;
+	
 	public CollectionChain<K> keys();
 	
 	public <R> CollectionChain<R> map(final BiFunction<? super K, ? super V, R> iterator);
@@ -0,0 +1,256 @@
+package com.underscore.chain;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A map from object keys to {@code int} values that does not box the values,
+ * as returned by {@link com.underscore._#countBy}. The entries are stored in
+ * insertion order in parallel arrays, and a table of entry indexes resolves
+ * collisions by linear probing, so updating a count takes one probe run and
+ * no allocation. Each entry keeps its index for the life of the map, which
+ * {@link #entry(Object)} returns. Entries cannot be removed. The null key is
+ * allowed. Not thread-safe.
+ */
+public final class ObjectIntMap<K> {
+
+	@FunctionalInterface
+	public interface EntryConsumer<K> {
+		public void accept(final K key, final int value);
+	}
+
+	private static final int MIN_CAPACITY = 8;
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private Object[] keys;
+
+	private int[] hashes;
+
+	private int[] values;
+
+	private int size;
+
+	/*
+	 * The index of the entry in each slot plus one, or 0 for a free slot. The
+	 * entry arrays hold half as many entries as the table has slots, so the
+	 * table is never more than half full.
+	 */
+	private int[] table;
+
+	private int mask;
+
+	public ObjectIntMap() {
+		this(0);
+	}
+
+	public ObjectIntMap(final int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("Negative size: " + expectedSize);
+		}
+
+		final long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 2);
+		if (needed > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Too many entries: " + expectedSize);
+		}
+		final int capacity = Integer.highestOneBit((int) needed - 1) << 1;
+		keys = new Object[capacity / 2];
+		hashes = new int[capacity / 2];
+		values = new int[capacity / 2];
+		table = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	private static int hash(final Object key) {
+		final int hash = (key == null) ? 0 : key.hashCode() * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	/*
+	 * The slot holding the entry for key, or the free slot where it would be
+	 * inserted encoded as -(slot + 1).
+	 */
+	private int find(final Object key, final int hash) {
+		final int[] table = this.table;
+		for (int i = hash & mask;; i = (i + 1) & mask) {
+			final int index = table[i] - 1;
+			if (index < 0) {
+				return -(i + 1);
+			}
+			if (hashes[index] == hash && Objects.equals(keys[index], key)) {
+				return i;
+			}
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean containsKey(final Object key) {
+		return find(key, hash(key)) >= 0;
+	}
+
+	/*
+	 * The index of the entry for key, or -1 if there is none.
+	 */
+	public int indexOf(final Object key) {
+		final int slot = find(key, hash(key));
+		return (slot >= 0) ? table[slot] - 1 : -1;
+	}
+
+	/*
+	 * The index of the entry for key, which is added with the value 0 if it
+	 * is not in the map. A new entry gets the index size() - 1.
+	 */
+	public int entry(final K key) {
+		final int hash = hash(key);
+		int slot = find(key, hash);
+		if (slot >= 0) {
+			return table[slot] - 1;
+		}
+
+		if (size == keys.length) {
+			grow();
+			slot = find(key, hash);
+		}
+		final int index = size++;
+		keys[index] = key;
+		hashes[index] = hash;
+		table[-slot - 1] = index + 1;
+		return index;
+	}
+
+	private void grow() {
+		if (table.length == MAX_CAPACITY) {
+			throw new IllegalStateException("Map is full: " + size);
+		}
+
+		final int capacity = table.length << 1;
+		keys = Arrays.copyOf(keys, capacity / 2);
+		hashes = Arrays.copyOf(hashes, capacity / 2);
+		values = Arrays.copyOf(values, capacity / 2);
+		table = new int[capacity];
+		mask = capacity - 1;
+
+		final int[] table = this.table;
+		for (int index = 0; index < size; ++index) {
+			int slot = hashes[index] & mask;
+			while (table[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = index + 1;
+		}
+	}
+
+	public int getOrDefault(final Object key, final int defaultValue) {
+		final int index = indexOf(key);
+		return (index >= 0) ? values[index] : defaultValue;
+	}
+
+	public void put(final K key, final int value) {
+		final int index = entry(key);
+		values[index] = value;
+	}
+
+	/*
+	 * Adds delta to the value for key, counting from 0 if it is not in the
+	 * map, and returns the new value.
+	 */
+	public int addTo(final K key, final int delta) {
+		final int index = entry(key);
+		return values[index] += delta;
+	}
+
+	/*
+	 * Adds the values of other to the values for the same keys.
+	 */
+	public void addAll(final ObjectIntMap<? extends K> other) {
+		for (int i = 0; i < other.size; ++i) {
+			@SuppressWarnings("unchecked")
+			final K key = (K) other.keys[i];
+			addTo(key, other.values[i]);
+		}
+	}
+
+	private void checkIndex(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+	}
+
+	public K keyAt(final int index) {
+		checkIndex(index);
+		@SuppressWarnings("unchecked")
+		final K key = (K) keys[index];
+		return key;
+	}
+
+	public int valueAt(final int index) {
+		checkIndex(index);
+		return values[index];
+	}
+
+	public void clear() {
+		Arrays.fill(keys, 0, size, null);
+		Arrays.fill(values, 0, size, 0);
+		Arrays.fill(table, 0);
+		size = 0;
+	}
+
+	public ObjectIntMap<K> copy() {
+		final ObjectIntMap<K> copy = new ObjectIntMap<>();
+		copy.keys = keys.clone();
+		copy.hashes = hashes.clone();
+		copy.values = values.clone();
+		copy.size = size;
+		copy.table = table.clone();
+		copy.mask = mask;
+		return copy;
+	}
+
+	public void forEach(final EntryConsumer<? super K> iterator) {
+		final Object[] keys = this.keys;
+		final int[] values = this.values;
+		for (int i = 0; i < size; ++i) {
+			@SuppressWarnings("unchecked")
+			final K key = (K) keys[i];
+			iterator.accept(key, values[i]);
+		}
+	}
+
+	public List<K> keys() {
+		@SuppressWarnings("unchecked")
+		final List<K> results = (List<K>) Arrays.asList(Arrays.copyOf(keys, size));
+		return results;
+	}
+
+	public int[] values() {
+		return Arrays.copyOf(values, size);
+	}
+
+	public Map<K, Integer> toMap() {
+		final Map<K, Integer> results = new LinkedHashMap<>(size * 4 / 3 + 1);
+		forEach(results::put);
+		return results;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("{");
+		forEach((key, value) -> {
+			if (builder.length() > 1) {
+				builder.append(", ");
+			}
+			builder.append(key).append('=').append(value);
+		});
+		return builder.append('}').toString();
+	}
+}
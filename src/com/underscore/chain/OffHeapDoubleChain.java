@@ -0,0 +1,36 @@
+package com.underscore.chain;
+
+import java.util.OptionalDouble;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A {@link DoubleArrayChain} counterpart over a {@link DirectDoubleArray}, for
+ * data sets that do not fit in a Java array or should stay off the heap.
+ * The caller's array is left as it was: the first {@code filter} writes the
+ * elements it keeps to a new array in one pass, and the first {@code map}
+ * works on a copy. Later steps work in place on the chain's own array.
+ */
+public interface OffHeapDoubleChain {
+	public long count();
+	
+	public OffHeapDoubleChain each(final DoubleConsumer iterator);
+	
+	public OffHeapDoubleChain filter(final DoublePredicate predicate);
+	
+	public OptionalDouble find(final DoublePredicate predicate);
+	
+	public OffHeapDoubleChain map(final DoubleUnaryOperator iterator);
+	
+	public OptionalDouble max();
+	
+	public OptionalDouble min();
+	
+	public double reduce(final DoubleBinaryOperator iterator, double memo);
+	
+	public double sum();
+	
+	public DirectDoubleArray value();
+}
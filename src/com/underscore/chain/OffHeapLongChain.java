@@ -0,0 +1,36 @@
+package com.underscore.chain;
+
+import java.util.OptionalLong;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A {@link LongArrayChain} counterpart over a {@link DirectLongArray}, for
+ * data sets that do not fit in a Java array or should stay off the heap.
+ * The caller's array is left as it was: the first {@code filter} writes the
+ * elements it keeps to a new array in one pass, and the first {@code map}
+ * works on a copy. Later steps work in place on the chain's own array.
+ */
+public interface OffHeapLongChain {
+	public long count();
+	
+	public OffHeapLongChain each(final LongConsumer iterator);
+	
+	public OffHeapLongChain filter(final LongPredicate predicate);
+	
+	public OptionalLong find(final LongPredicate predicate);
+	
+	public OffHeapLongChain map(final LongUnaryOperator iterator);
+	
+	public OptionalLong max();
+	
+	public OptionalLong min();
+	
+	public long reduce(final LongBinaryOperator iterator, long memo);
+	
+	public long sum();
+	
+	public DirectLongArray value();
+}
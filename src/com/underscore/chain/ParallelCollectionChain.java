@@ -0,0 +1,84 @@
+package com.underscore.chain;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link CollectionChain} that splits its work across a {@link ForkJoinPool}.
+ * Results keep the order of the source unless {@link #unordered()} is called,
+ * which lets {@code find}, {@code unique} and {@code toMap} skip the work of
+ * keeping it. Iterators passed to {@code each} may run concurrently and in any
+ * order in both modes.
+ */
+public interface ParallelCollectionChain<E> extends CollectionChain<E> {
+	@Override
+	public ParallelCollectionChain<E> each(final Consumer<E> iterator);
+
+	@Override
+	public ParallelCollectionChain<E> filter(final Predicate<E> predicate);
+
+	@Override
+	public ParallelCollectionChain<E> first(final int n);
+
+	@Override
+	public ParallelCollectionChain<Object> flatten();
+
+	@Override
+	public ParallelCollectionChain<Object> flatten(final int depth);
+
+	@Override
+	public <R> ParallelCollectionChain<R> map(final Function<E, R> iterator);
+
+	public ParallelCollectionChain<E> ordered();
+
+	/**
+	 * Reduces each part of the collection with {@code iterator}, starting from
+	 * {@code memo}, and merges the partial results with {@code combiner}. The
+	 * combiner is called with the partial result of a later part and the
+	 * accumulated result of the earlier parts, the same {@code (value, memo)}
+	 * order as {@code iterator}; {@code memo} must be an identity for it.
+	 */
+	public <R> R reduce(final BiFunction<? super E, R, R> iterator, final BinaryOperator<R> combiner, R memo);
+
+	@Override
+	public ParallelCollectionChain<E> shuffle();
+
+	@Override
+	public ParallelCollectionChain<E> sort(Comparator<? super E> comp);
+
+	@Override
+	public <U extends Comparable<? super U>> ParallelCollectionChain<E> sortBy(final Function<? super E, ? extends U> iterator);
+
+	@Override
+	public ParallelCollectionChain<E> sortByDouble(final ToDoubleFunction<? super E> iterator);
+
+	@Override
+	public ParallelCollectionChain<E> sortByInt(final ToIntFunction<? super E> iterator);
+
+	@Override
+	public ParallelCollectionChain<E> sortByLong(final ToLongFunction<? super E> iterator);
+
+	@Override
+	public ParallelCollectionChain<E> tap(final Consumer<Collection<E>> interceptor);
+
+	@Override
+	public ParallelCollectionChain<E> unique();
+
+	public ParallelCollectionChain<E> unordered();
+
+	@Override
+	public ParallelCollectionChain<E> where(final Map<?, ?> attrs);
+
+	@Override
+	public ParallelCollectionChain<E> without(final E... values);
+}
@@ -0,0 +1,244 @@
+package com.underscore.chain.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.underscore.VirtualThreads;
+import com.underscore.chain.AsyncCollectionChain;
+
+/**
+ * The {@link AsyncCollectionChain} of the collection chains. Steps are fused
+ * into one sink per element, as in {@link LazyCollectionChainImpl}. A
+ * terminal operation starts maxConcurrency workers, or fewer for a small
+ * source, each taking the next element from a shared counter until none is
+ * left, so no more calls are in flight than there are workers and no element
+ * waits on a queue.
+ */
+public class AsyncCollectionChainImpl<E> implements AsyncCollectionChain<E> {
+
+	private final Object[] source;
+
+	private final int maxConcurrency;
+
+	/*
+	 * Wraps the sink of the terminal operation in the sinks of the recorded
+	 * steps, or null if nothing is recorded.
+	 */
+	private Function<Consumer<Object>, Consumer<Object>> pipeline;
+
+	private boolean ordered = true;
+
+	public AsyncCollectionChainImpl(final Collection<E> collection, final int maxConcurrency) {
+		Objects.requireNonNull(collection);
+		if (maxConcurrency <= 0) {
+			throw new IllegalArgumentException("Non-positive concurrency: " + maxConcurrency);
+		}
+
+		this.source = collection.toArray();
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <R> AsyncCollectionChainImpl<R> then(final Function<Consumer<Object>, Consumer<Object>> stage) {
+		pipeline = (pipeline == null) ? stage : pipeline.compose(stage);
+		return (AsyncCollectionChainImpl<R>) this;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T cast(final Object value) {
+		return (T) value;
+	}
+
+	/*
+	 * Runs every element through the pipeline into the terminal sink made
+	 * for its index. Once the future is done, by failing, by being cancelled
+	 * or by being completed from outside, the workers take no more elements
+	 * and those still running are interrupted, except for the thread that
+	 * completed it.
+	 */
+	private CompletableFuture<Void> run(final IntFunction<Consumer<Object>> terminal) {
+		final CompletableFuture<Void> done = new CompletableFuture<>();
+		final Object[] source = this.source;
+		final Function<Consumer<Object>, Consumer<Object>> pipeline = this.pipeline;
+		final int n = source.length;
+		if (n == 0) {
+			done.complete(null);
+			return done;
+		}
+
+		final int workers = Math.min(n, maxConcurrency);
+		final AtomicInteger next = new AtomicInteger();
+		final AtomicInteger running = new AtomicInteger(workers);
+		final AtomicReferenceArray<Thread> threads = new AtomicReferenceArray<>(workers);
+		final ExecutorService executor = VirtualThreads.newExecutor(workers);
+		done.whenComplete((result, e) -> {
+			if (e != null) {
+				final Thread current = Thread.currentThread();
+				for (int w = 0; w < workers; ++w) {
+					final Thread thread = threads.get(w);
+					if (thread != null && thread != current) {
+						thread.interrupt();
+					}
+				}
+			}
+			executor.shutdown();
+		});
+
+		for (int w = 0; w < workers; ++w) {
+			final int worker = w;
+			executor.execute(() -> {
+				threads.set(worker, Thread.currentThread());
+				try {
+					for (int i; !done.isDone() && (i = next.getAndIncrement()) < n;) {
+						final Consumer<Object> sink = terminal.apply(i);
+						((pipeline == null) ? sink : pipeline.apply(sink)).accept(source[i]);
+					}
+				} catch (final Throwable e) {
+					done.completeExceptionally(e);
+				} finally {
+					threads.set(worker, null);
+					if (running.decrementAndGet() == 0) {
+						done.complete(null);
+					}
+				}
+			});
+		}
+		return done;
+	}
+
+	/*
+	 * The future of the results, which cancels the run when it is cancelled;
+	 * a dependent future would not pass that on by itself.
+	 */
+	private static <T> CompletableFuture<T> results(final CompletableFuture<Void> done, final Supplier<T> results) {
+		final CompletableFuture<T> future = done.thenApply((ignored) -> results.get());
+		future.whenComplete((result, e) -> {
+			if (future.isCancelled()) {
+				done.cancel(true);
+			}
+		});
+		return future;
+	}
+
+	@Override
+	public CompletableFuture<Long> count() {
+		final LongAdder count = new LongAdder();
+		final Consumer<Object> sink = (value) -> count.increment();
+		return results(run((index) -> sink), count::sum);
+	}
+
+	@Override
+	public AsyncCollectionChain<E> each(final Consumer<E> iterator) {
+		return then((sink) -> (value) -> {
+			iterator.accept(cast(value));
+			sink.accept(value);
+		});
+	}
+
+	@Override
+	public AsyncCollectionChain<E> filter(final Predicate<E> predicate) {
+		return then((sink) -> (value) -> {
+			if (predicate.test(cast(value))) {
+				sink.accept(value);
+			}
+		});
+	}
+
+	@Override
+	public <R> AsyncCollectionChain<R> flatMap(final Function<E, ? extends Iterable<? extends R>> iterator) {
+		return then((sink) -> (value) -> {
+			for (R result : iterator.apply(cast(value))) {
+				sink.accept(result);
+			}
+		});
+	}
+
+	@Override
+	public <R> AsyncCollectionChain<R> map(final Function<E, R> iterator) {
+		return then((sink) -> (value) -> sink.accept(iterator.apply(cast(value))));
+	}
+
+	@Override
+	public AsyncCollectionChain<E> ordered() {
+		ordered = true;
+		return this;
+	}
+
+	@Override
+	public AsyncCollectionChain<E> unordered() {
+		ordered = false;
+		return this;
+	}
+
+	/*
+	 * Ordered, each element collects its results in its own slot, which only
+	 * its worker writes; the slots are joined once every worker is done.
+	 */
+	@Override
+	public CompletableFuture<List<E>> value() {
+		if (!ordered) {
+			final ConcurrentLinkedQueue<E> results = new ConcurrentLinkedQueue<>();
+			final Consumer<Object> sink = (value) -> results.add(cast(value));
+			return results(run((index) -> sink), () -> new ArrayList<>(results));
+		}
+
+		final Object[] slots = new Object[source.length];
+		final CompletableFuture<Void> done = run((index) -> (value) -> {
+			final Object slot = slots[index];
+			if (slot == null) {
+				slots[index] = new Single(value);
+			} else if (slot instanceof Single) {
+				final List<Object> results = new ArrayList<>(4);
+				results.add(((Single) slot).value);
+				results.add(value);
+				slots[index] = results;
+			} else {
+				@SuppressWarnings("unchecked")
+				final List<Object> results = (List<Object>) slot;
+				results.add(value);
+			}
+		});
+		return results(done, () -> {
+			int size = 0;
+			for (Object slot : slots) {
+				size += (slot == null) ? 0 : (slot instanceof Single) ? 1 : ((List<?>) slot).size();
+			}
+
+			final List<E> results = new ArrayList<>(size);
+			for (Object slot : slots) {
+				if (slot instanceof Single) {
+					results.add(cast(((Single) slot).value));
+				} else if (slot != null) {
+					results.addAll(AsyncCollectionChainImpl.<List<E>>cast(slot));
+				}
+			}
+			return results;
+		});
+	}
+
+	/*
+	 * The one result of an element, boxed so that it cannot be mistaken for a
+	 * list of results when it is a list itself.
+	 */
+	private static final class Single {
+
+		final Object value;
+
+		Single(final Object value) {
+			this.value = value;
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package com.underscore.chain.impl;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
@@ -8,6 +10,8 @@ import java.util.function.Predicate;
 
 import com.underscore._;
 import com.underscore.chain.ArrayChain;
+import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
 
 public class BooleanChainImpl implements ArrayChain<Boolean> {
 
@@ -32,6 +36,11 @@ public class BooleanChainImpl implements ArrayChain<Boolean> {
 	public long count() {
 		return array.length;
 	}
+	
+	@Override
+	public <K> ObjectIntMap<K> countBy(final Function<? super Boolean, ? extends K> iterator) {
+		return _.countBy(array, iterator);
+	}
 
 	@Override
 	public ArrayChain<Boolean> each(Consumer<Boolean> iterator) {
@@ -50,11 +59,31 @@ public class BooleanChainImpl implements ArrayChain<Boolean> {
 		return _.find(array, predicate);
 	}
 
+	@Override
+	public <K> MapChain<K, List<Boolean>> groupBy(final Function<? super Boolean, ? extends K> iterator) {
+		return new MapChainImpl<>(_.groupBy(array, iterator));
+	}
+
+	@Override
+	public <K> MapChain<K, Boolean> indexBy(final Function<? super Boolean, ? extends K> iterator) {
+		return new MapChainImpl<>(_.indexBy(array, iterator));
+	}
+
 	@Override
 	public String join(String delimiter) {
 		return _.join(array, delimiter);
 	}
 
+	@Override
+	public <A extends Appendable> A join(String delimiter, A out) throws IOException {
+		return _.join(array, delimiter, out);
+	}
+
+	@Override
+	public ArrayChain<Boolean> lazy() {
+		return new LazyArrayChainImpl<>(array, null, null);
+	}
+
 	@Override
 	public ArrayChain<Boolean> map(Function<Boolean, Boolean> iterator) {
 		return new BooleanChainImpl(_.map(array, iterator));
@@ -84,8 +113,8 @@ public class BooleanChainImpl implements ArrayChain<Boolean> {
 
 	@Override
 	public ArrayChain<Boolean> shuffle() {
-		// TODO Auto-generated method stub
-		return null;
+		_.shuffle(array);
+		return this;
 	}
 
 	@Override
@@ -102,8 +131,8 @@ public class BooleanChainImpl implements ArrayChain<Boolean> {
 
 	@Override
 	public ArrayChain<Boolean> unique() {
-		// TODO Auto-generated method stub
-		return null;
+		array = _.unique(array);
+		return this;
 	}
 
 	@Override
@@ -114,8 +143,8 @@ public class BooleanChainImpl implements ArrayChain<Boolean> {
 
 	@Override
 	public ArrayChain<Boolean> without(Boolean... values) {
-		// TODO Auto-generated method stub
-		return null;
+		array = _.without(array, values);
+		return this;
 	}
 
 }
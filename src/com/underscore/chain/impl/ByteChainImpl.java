@@ -1,6 +1,8 @@
 package com.underscore.chain.impl;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
@@ -9,6 +11,8 @@ import java.util.function.Predicate;
 
 import com.underscore._;
 import com.underscore.chain.ArrayChain;
+import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
 
 public class ByteChainImpl implements ArrayChain<Byte> {
 
@@ -34,6 +38,11 @@ public class ByteChainImpl implements ArrayChain<Byte> {
 		return array.length;
 	}
 	
+	@Override
+	public <K> ObjectIntMap<K> countBy(final Function<? super Byte, ? extends K> iterator) {
+		return _.countBy(array, iterator);
+	}
+	
 	@Override
 	public ArrayChain<Byte> each(final Consumer<Byte> iterator) {
 		_.each(array, iterator);
@@ -51,11 +60,31 @@ public class ByteChainImpl implements ArrayChain<Byte> {
 		return _.find(array, predicate);
 	}
 
+	@Override
+	public <K> MapChain<K, List<Byte>> groupBy(final Function<? super Byte, ? extends K> iterator) {
+		return new MapChainImpl<>(_.groupBy(array, iterator));
+	}
+
+	@Override
+	public <K> MapChain<K, Byte> indexBy(final Function<? super Byte, ? extends K> iterator) {
+		return new MapChainImpl<>(_.indexBy(array, iterator));
+	}
+
 	@Override
 	public String join(final String delimiter) {
 		return _.join(array, delimiter);
 	}
 
+	@Override
+	public <A extends Appendable> A join(final String delimiter, final A out) throws IOException {
+		return _.join(array, delimiter, out);
+	}
+
+	@Override
+	public ArrayChain<Byte> lazy() {
+		return new LazyArrayChainImpl<>(array, (a, b) -> (byte) (a + b), (byte) 0);
+	}
+
 	@Override
 	public ArrayChain<Byte> map(final Function<Byte, Byte> iterator) {
 		array = _.map(array, iterator);
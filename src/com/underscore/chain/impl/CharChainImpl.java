@@ -1,5 +1,7 @@
 package com.underscore.chain.impl;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
@@ -8,6 +10,8 @@ import java.util.function.Predicate;
 
 import com.underscore._;
 import com.underscore.chain.ArrayChain;
+import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
 
 public class CharChainImpl implements ArrayChain<Character> {
 
@@ -33,6 +37,11 @@ public class CharChainImpl implements ArrayChain<Character> {
 		return array.length;
 	}
 	
+	@Override
+	public <K> ObjectIntMap<K> countBy(final Function<? super Character, ? extends K> iterator) {
+		return _.countBy(array, iterator);
+	}
+	
 	@Override
 	public ArrayChain<Character> each(Consumer<Character> iterator) {
 		_.each(array, iterator);
@@ -50,11 +59,31 @@ public class CharChainImpl implements ArrayChain<Character> {
 		return _.find(array, predicate);
 	}
 	
+	@Override
+	public <K> MapChain<K, List<Character>> groupBy(final Function<? super Character, ? extends K> iterator) {
+		return new MapChainImpl<>(_.groupBy(array, iterator));
+	}
+
+	@Override
+	public <K> MapChain<K, Character> indexBy(final Function<? super Character, ? extends K> iterator) {
+		return new MapChainImpl<>(_.indexBy(array, iterator));
+	}
+
 	@Override
 	public String join(String delimiter) {
 		return _.join(array, delimiter);
 	}
+
+	@Override
+	public <A extends Appendable> A join(String delimiter, A out) throws IOException {
+		return _.join(array, delimiter, out);
+	}
 	
+	@Override
+	public ArrayChain<Character> lazy() {
+		return new LazyArrayChainImpl<>(array, (a, b) -> (char) (a + b), (char) 0);
+	}
+
 	@Override
 	public ArrayChain<Character> map(Function<Character, Character> iterator) {
 		array = _.map(array, iterator);
@@ -1,20 +1,28 @@
 package com.underscore.chain.impl;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 import com.underscore._;
+import com.underscore.chain.AsyncCollectionChain;
 import com.underscore.chain.CollectionChain;
 import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
+import com.underscore.chain.ParallelCollectionChain;
 
 public class CollectionChainImpl<E> implements CollectionChain<E> {
 
@@ -24,17 +32,42 @@ public class CollectionChainImpl<E> implements CollectionChain<E> {
 		this.collection = collection;
 	}
 
+	@SuppressWarnings("unchecked")
+	private static Map<Object, Object> asMap(final Object value) {
+		return (Map<Object, Object>) value;
+	}
+
+	@Override
+	public boolean any(Predicate<E> predicate) {
+		return _.any(collection, predicate);
+	}
+
+	@Override
+	public AsyncCollectionChain<E> async(final int maxConcurrency) {
+		return new AsyncCollectionChainImpl<E>(collection, maxConcurrency);
+	}
+
 	@Override
 	public long count() {
 		return collection.size();
 	}
 	
+	@Override
+	public <K> ObjectIntMap<K> countBy(final Function<? super E, ? extends K> iterator) {
+		return _.countBy(collection, iterator);
+	}
+	
 	@Override
 	public CollectionChain<E> each(Consumer<E> iterator) {
 		collection = _.each(collection, iterator);
 		return this;
 	}
 
+	@Override
+	public boolean every(Predicate<E> predicate) {
+		return _.every(collection, predicate);
+	}
+
 	@Override
 	public CollectionChain<E> filter(Predicate<E> predicate) {
 		collection = _.filter(collection, predicate);
@@ -46,11 +79,58 @@ public class CollectionChainImpl<E> implements CollectionChain<E> {
 		return _.find(collection, predicate);
 	}
 
+	@Override
+	public E findWhere(final Map<?, ?> attrs) {
+		final Predicate<Map<Object, Object>> matcher = _.matches(attrs);
+		return find((value) -> matcher.test(asMap(value)));
+	}
+
+	@Override
+	public CollectionChain<E> first(int n) {
+		final List<E> results = new ArrayList<>(Math.max(0, Math.min(n, collection.size())));
+		for (E value : collection) {
+			if (results.size() >= n) break;
+			results.add(value);
+		}
+		collection = results;
+		return this;
+	}
+
+	@Override
+	public CollectionChain<Object> flatten() {
+		return flatten(Integer.MAX_VALUE);
+	}
+
+	@Override
+	public CollectionChain<Object> flatten(final int depth) {
+		return new CollectionChainImpl<Object>(new ArrayList<>(_.flatten(collection, depth)));
+	}
+
+	@Override
+	public <K> MapChain<K, List<E>> groupBy(final Function<? super E, ? extends K> iterator) {
+		return new MapChainImpl<>(_.groupBy(collection, iterator));
+	}
+
+	@Override
+	public <K> MapChain<K, E> indexBy(final Function<? super E, ? extends K> iterator) {
+		return new MapChainImpl<>(_.indexBy(collection, iterator));
+	}
+
 	@Override
 	public String join(String delimiter) {
 		return _.join(collection, delimiter);
 	}
 
+	@Override
+	public <A extends Appendable> A join(String delimiter, A out) throws IOException {
+		return _.join(collection, delimiter, out);
+	}
+
+	@Override
+	public CollectionChain<E> lazy() {
+		return new LazyCollectionChainImpl<>(collection);
+	}
+
 	@Override
 	public <R> CollectionChain<R> map(Function<E, R> iterator) {
 		return new CollectionChainImpl<R>(_.map(collection, (element) -> iterator.apply(element)));
@@ -66,6 +146,16 @@ public class CollectionChainImpl<E> implements CollectionChain<E> {
 		return _.min(collection, comp, _.identity());
 	}
 	
+	@Override
+	public ParallelCollectionChain<E> parallel() {
+		return new ParallelCollectionChainImpl<>(collection);
+	}
+
+	@Override
+	public ParallelCollectionChain<E> parallel(ForkJoinPool pool) {
+		return new ParallelCollectionChainImpl<>(collection, pool);
+	}
+	
 	@Override
 	public MapChain<Boolean, List<E>> partition(Predicate<? super E> predicate) {
 		return new MapChainImpl<>(_.partition(collection, predicate));
@@ -83,7 +173,9 @@ public class CollectionChainImpl<E> implements CollectionChain<E> {
 
 	@Override
 	public CollectionChain<E> shuffle() {
-		_.shuffle(new ArrayList<>(collection));
+		final List<E> list = new ArrayList<>(collection);
+		_.shuffle(list);
+		collection = list;
 		return this;
 	}
 
@@ -93,6 +185,30 @@ public class CollectionChainImpl<E> implements CollectionChain<E> {
 		return this;
 	}
 
+	@Override
+	public <U extends Comparable<? super U>> CollectionChain<E> sortBy(final Function<? super E, ? extends U> iterator) {
+		collection = _.sortBy(collection, iterator);
+		return this;
+	}
+
+	@Override
+	public CollectionChain<E> sortByDouble(final ToDoubleFunction<? super E> iterator) {
+		collection = _.sortByDouble(collection, iterator);
+		return this;
+	}
+
+	@Override
+	public CollectionChain<E> sortByInt(final ToIntFunction<? super E> iterator) {
+		collection = _.sortByInt(collection, iterator);
+		return this;
+	}
+
+	@Override
+	public CollectionChain<E> sortByLong(final ToLongFunction<? super E> iterator) {
+		collection = _.sortByLong(collection, iterator);
+		return this;
+	}
+
 	@Override
 	public CollectionChain<E> tap(Consumer<Collection<E>> interceptor) {
 		_.tap(collection, interceptor);
@@ -123,6 +239,12 @@ public class CollectionChainImpl<E> implements CollectionChain<E> {
 		return collection;
 	}
 
+	@Override
+	public CollectionChain<E> where(final Map<?, ?> attrs) {
+		final Predicate<Map<Object, Object>> matcher = _.matches(attrs);
+		return filter((value) -> matcher.test(asMap(value)));
+	}
+
 	@Override
 	public CollectionChain<E> without(E... values) {
 		collection = _.without(collection, values);
@@ -0,0 +1,271 @@
+package com.underscore.chain.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+import com.underscore._;
+import com.underscore.chain.ArrayChain;
+import com.underscore.chain.DoubleArrayChain;
+import com.underscore.chain.LongSet;
+
+public class DoubleArrayChainImpl implements DoubleArrayChain {
+
+	private double[] array;
+
+	private int size;
+
+	/*
+	 * Whether array is still visible to the caller (the constructor argument,
+	 * or an array handed out by value()), in which case it is copied before
+	 * being written to.
+	 */
+	private boolean shared;
+
+	public DoubleArrayChainImpl(final double[] array) {
+		Objects.requireNonNull(array);
+
+		this.array = array;
+		this.size = array.length;
+		this.shared = true;
+	}
+
+	private double[] writable() {
+		if (shared) {
+			array = Arrays.copyOf(array, size);
+			shared = false;
+		}
+		return array;
+	}
+
+	@Override
+	public ArrayChain<Double> boxed() {
+		return new DoubleChainImpl(value());
+	}
+
+	@Override
+	public boolean contains(final double value, final boolean isSorted) {
+		return indexOf(value, isSorted) >= 0;
+	}
+
+	@Override
+	public long count() {
+		return size;
+	}
+
+	@Override
+	public long countBetween(final double min, final double max) {
+		return NumericKernels.countBetween(array, size, min, max);
+	}
+
+	@Override
+	public double dot(final double[] other) {
+		Objects.requireNonNull(other);
+		if (other.length != size) {
+			throw new IllegalArgumentException("Length mismatch: " + size + " and " + other.length);
+		}
+
+		return NumericKernels.dot(array, other, size);
+	}
+
+	@Override
+	public DoubleArrayChain each(final DoubleConsumer iterator) {
+		final double[] array = this.array;
+		for (int i = 0; i < size; ++i) {
+			iterator.accept(array[i]);
+		}
+		return this;
+	}
+
+	@Override
+	public DoubleArrayChain filter(final DoublePredicate predicate) {
+		final double[] source = array;
+		final double[] results = shared ? new double[size] : source;
+		int length = 0;
+		for (int i = 0; i < size; ++i) {
+			final double value = source[i];
+			if (predicate.test(value)) {
+				results[length++] = value;
+			}
+		}
+		array = results;
+		size = length;
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public OptionalDouble find(final DoublePredicate predicate) {
+		final double[] array = this.array;
+		for (int i = 0; i < size; ++i) {
+			if (predicate.test(array[i])) {
+				return OptionalDouble.of(array[i]);
+			}
+		}
+		return OptionalDouble.empty();
+	}
+
+	@Override
+	public int indexOf(final double value, final boolean isSorted) {
+		if (isSorted) {
+			final int index = _.sortedIndex(array, 0, size, value);
+			return (index < size && Double.compare(array[index], value) == 0) ? index : -1;
+		}
+
+		for (int i = 0; i < size; ++i) {
+			if (Double.compare(array[i], value) == 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String join(final String delimiter) {
+		if (size == 0) {
+			return "";
+		}
+
+		final StringBuilder builder = new StringBuilder();
+		builder.append(array[0]);
+		for (int i = 1; i < size; ++i) {
+			if (delimiter != null) {
+				builder.append(delimiter);
+			}
+			builder.append(array[i]);
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public DoubleArrayChain lazy() {
+		return new LazyDoubleArrayChainImpl(value());
+	}
+
+	@Override
+	public DoubleArrayChain map(final DoubleUnaryOperator iterator) {
+		final double[] source = array;
+		final double[] results = shared ? new double[size] : source;
+		for (int i = 0; i < size; ++i) {
+			results[i] = iterator.applyAsDouble(source[i]);
+		}
+		array = results;
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public OptionalDouble max() {
+		if (size == 0) {
+			return OptionalDouble.empty();
+		}
+
+		return OptionalDouble.of(NumericKernels.max(array, size));
+	}
+
+	@Override
+	public OptionalDouble min() {
+		if (size == 0) {
+			return OptionalDouble.empty();
+		}
+
+		return OptionalDouble.of(NumericKernels.min(array, size));
+	}
+
+	@Override
+	public double reduce(final DoubleBinaryOperator iterator, double memo) {
+		final double[] array = this.array;
+		for (int i = 0; i < size; ++i) {
+			memo = iterator.applyAsDouble(array[i], memo);
+		}
+		return memo;
+	}
+
+	@Override
+	public DoubleArrayChain shuffle() {
+		_.shuffle(writable(), 0, size, new SplittableRandom()::nextInt);
+		return this;
+	}
+
+	@Override
+	public int sortedIndex(final double value) {
+		return _.sortedIndex(array, 0, size, value);
+	}
+
+	@Override
+	public DoubleArrayChain sortedInsert(final double... values) {
+		array = _.sortedInsert((size == array.length) ? array : Arrays.copyOf(array, size), values);
+		size = array.length;
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public DoubleArrayChain sort() {
+		Arrays.sort(writable(), 0, size);
+		return this;
+	}
+
+	@Override
+	public double sum() {
+		return NumericKernels.sum(array, size);
+	}
+
+	@Override
+	public DoubleArrayChain tap(final Consumer<double[]> interceptor) {
+		_.tap(value(), interceptor);
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(value());
+	}
+
+	@Override
+	public DoubleArrayChain unique() {
+		final double[] distinct = Arrays.copyOf(array, size);
+		Arrays.sort(distinct);
+
+		int length = 0;
+		for (int i = 0; i < distinct.length; ++i) {
+			if (length == 0 || Double.compare(distinct[length - 1], distinct[i]) != 0) {
+				distinct[length++] = distinct[i];
+			}
+		}
+
+		final boolean[] seen = new boolean[length];
+		return filter((value) -> {
+			final int index = Arrays.binarySearch(distinct, 0, seen.length, value);
+			if (seen[index]) {
+				return false;
+			}
+			return seen[index] = true;
+		});
+	}
+
+	@Override
+	public double[] value() {
+		if (size != array.length) {
+			array = Arrays.copyOf(array, size);
+		}
+		shared = true;
+		return array;
+	}
+
+	@Override
+	public DoubleArrayChain without(final double... values) {
+		if (values == null || values.length == 0) {
+			return this;
+		}
+
+		final LongSet excluded = LongSet.ofBits(values);
+		return filter((value) -> !excluded.contains(Double.doubleToLongBits(value)));
+	}
+}
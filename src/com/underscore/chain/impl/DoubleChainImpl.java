@@ -1,5 +1,8 @@
 package com.underscore.chain.impl;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
@@ -8,6 +11,8 @@ import java.util.function.Predicate;
 
 import com.underscore._;
 import com.underscore.chain.ArrayChain;
+import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
 
 public class DoubleChainImpl implements ArrayChain<Double> {
 
@@ -33,6 +38,11 @@ public class DoubleChainImpl implements ArrayChain<Double> {
 		return array.length;
 	}
 	
+	@Override
+	public <K> ObjectIntMap<K> countBy(final Function<? super Double, ? extends K> iterator) {
+		return _.countBy(array, iterator);
+	}
+	
 	@Override
 	public ArrayChain<Double> each(Consumer<Double> iterator) {
 		_.each(array, iterator);
@@ -50,11 +60,31 @@ public class DoubleChainImpl implements ArrayChain<Double> {
 		return _.find(array, predicate);
 	}
 
+	@Override
+	public <K> MapChain<K, List<Double>> groupBy(final Function<? super Double, ? extends K> iterator) {
+		return new MapChainImpl<>(_.groupBy(array, iterator));
+	}
+
+	@Override
+	public <K> MapChain<K, Double> indexBy(final Function<? super Double, ? extends K> iterator) {
+		return new MapChainImpl<>(_.indexBy(array, iterator));
+	}
+
 	@Override
 	public String join(String delimiter) {
 		return _.join(array, delimiter);
 	}
 
+	@Override
+	public <A extends Appendable> A join(String delimiter, A out) throws IOException {
+		return _.join(array, delimiter, out);
+	}
+
+	@Override
+	public ArrayChain<Double> lazy() {
+		return new LazyArrayChainImpl<>(array, (a, b) -> a + b, 0d);
+	}
+
 	@Override
 	public ArrayChain<Double> map(Function<Double, Double> iterator) {
 		array = _.map(array, iterator);
@@ -63,12 +93,14 @@ public class DoubleChainImpl implements ArrayChain<Double> {
 
 	@Override
 	public Double max() {
-		return _.max(array, _.identity());
+		final double[] values = unboxed();
+		return (values.length == 0) ? null : NumericKernels.max(values, values.length);
 	}
 
 	@Override
 	public Double min() {
-		return _.min(array, _.identity());
+		final double[] values = unboxed();
+		return (values.length == 0) ? null : NumericKernels.min(values, values.length);
 	}
 
 	@Override
@@ -90,7 +122,8 @@ public class DoubleChainImpl implements ArrayChain<Double> {
 
 	@Override
 	public Double sum() {
-		return reduce((a, b) -> a + b, 0d);
+		final double[] values = unboxed();
+		return NumericKernels.sum(values, values.length);
 	}
 
 	@Override
@@ -102,8 +135,22 @@ public class DoubleChainImpl implements ArrayChain<Double> {
 
 	@Override
 	public ArrayChain<Double> unique() {
-		// TODO Auto-generated method stub
-		return null;
+		array = _.unique(array);
+		return this;
+	}
+
+	/*
+	 * The elements that are not null, unboxed for the NumericKernels.
+	 */
+	private double[] unboxed() {
+		final double[] values = new double[array.length];
+		int length = 0;
+		for (Double value : array) {
+			if (value != null) {
+				values[length++] = value;
+			}
+		}
+		return (length == values.length) ? values : Arrays.copyOf(values, length);
 	}
 
 	@Override
@@ -113,7 +160,7 @@ public class DoubleChainImpl implements ArrayChain<Double> {
 
 	@Override
 	public ArrayChain<Double> without(Double... values) {
-		// TODO Auto-generated method stub
-		return null;
+		array = _.without(array, values);
+		return this;
 	}
 }
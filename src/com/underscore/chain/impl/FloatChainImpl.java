@@ -1,5 +1,8 @@
 package com.underscore.chain.impl;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
@@ -8,6 +11,8 @@ import java.util.function.Predicate;
 
 import com.underscore._;
 import com.underscore.chain.ArrayChain;
+import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
 
 public class FloatChainImpl implements ArrayChain<Float> {
 
@@ -32,6 +37,11 @@ public class FloatChainImpl implements ArrayChain<Float> {
 	public long count() {
 		return array.length;
 	}
+	
+	@Override
+	public <K> ObjectIntMap<K> countBy(final Function<? super Float, ? extends K> iterator) {
+		return _.countBy(array, iterator);
+	}
 
 	@Override
 	public ArrayChain<Float> each(Consumer<Float> iterator) {
@@ -50,11 +60,31 @@ public class FloatChainImpl implements ArrayChain<Float> {
 		return _.find(array, predicate);
 	}
 
+	@Override
+	public <K> MapChain<K, List<Float>> groupBy(final Function<? super Float, ? extends K> iterator) {
+		return new MapChainImpl<>(_.groupBy(array, iterator));
+	}
+
+	@Override
+	public <K> MapChain<K, Float> indexBy(final Function<? super Float, ? extends K> iterator) {
+		return new MapChainImpl<>(_.indexBy(array, iterator));
+	}
+
 	@Override
 	public String join(String delimiter) {
 		return _.join(array, delimiter);
 	}
 
+	@Override
+	public <A extends Appendable> A join(String delimiter, A out) throws IOException {
+		return _.join(array, delimiter, out);
+	}
+
+	@Override
+	public ArrayChain<Float> lazy() {
+		return new LazyArrayChainImpl<>(array, (a, b) -> a + b, 0f);
+	}
+
 	@Override
 	public ArrayChain<Float> map(Function<Float, Float> iterator) {
 		array = _.map(array, iterator);
@@ -63,12 +93,14 @@ public class FloatChainImpl implements ArrayChain<Float> {
 
 	@Override
 	public Float max() {
-		return _.max(array, _.identity());
+		final float[] values = unboxed();
+		return (values.length == 0) ? null : NumericKernels.max(values, values.length);
 	}
 
 	@Override
 	public Float min() {
-		return _.min(array, _.identity());
+		final float[] values = unboxed();
+		return (values.length == 0) ? null : NumericKernels.min(values, values.length);
 	}
 
 	@Override
@@ -90,7 +122,8 @@ public class FloatChainImpl implements ArrayChain<Float> {
 
 	@Override
 	public Float sum() {
-		return reduce((a, b) -> a + b, 0f);
+		final float[] values = unboxed();
+		return NumericKernels.sum(values, values.length);
 	}
 
 	@Override
@@ -99,6 +132,20 @@ public class FloatChainImpl implements ArrayChain<Float> {
 		return this;
 	}
 
+	/*
+	 * The elements that are not null, unboxed for the NumericKernels.
+	 */
+	private float[] unboxed() {
+		final float[] values = new float[array.length];
+		int length = 0;
+		for (Float value : array) {
+			if (value != null) {
+				values[length++] = value;
+			}
+		}
+		return (length == values.length) ? values : Arrays.copyOf(values, length);
+	}
+
 	@Override
 	public Float[] value() {
 		return array;
@@ -106,13 +153,13 @@ public class FloatChainImpl implements ArrayChain<Float> {
 
 	@Override
 	public ArrayChain<Float> unique() {
-		// TODO Auto-generated method stub
-		return null;
+		array = _.unique(array);
+		return this;
 	}
 
 	@Override
 	public ArrayChain<Float> without(Float... values) {
-		// TODO Auto-generated method stub
-		return null;
+		array = _.without(array, values);
+		return this;
 	}
 }
@@ -0,0 +1,271 @@
+package com.underscore.chain.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+import com.underscore._;
+import com.underscore.chain.ArrayChain;
+import com.underscore.chain.IntArrayChain;
+import com.underscore.chain.LongSet;
+
+public class IntArrayChainImpl implements IntArrayChain {
+
+	private int[] array;
+
+	private int size;
+
+	/*
+	 * Whether array is still visible to the caller (the constructor argument,
+	 * or an array handed out by value()), in which case it is copied before
+	 * being written to.
+	 */
+	private boolean shared;
+
+	public IntArrayChainImpl(final int[] array) {
+		Objects.requireNonNull(array);
+
+		this.array = array;
+		this.size = array.length;
+		this.shared = true;
+	}
+
+	private int[] writable() {
+		if (shared) {
+			array = Arrays.copyOf(array, size);
+			shared = false;
+		}
+		return array;
+	}
+
+	@Override
+	public ArrayChain<Integer> boxed() {
+		return new IntChainImpl(value());
+	}
+
+	@Override
+	public boolean contains(final int value, final boolean isSorted) {
+		return indexOf(value, isSorted) >= 0;
+	}
+
+	@Override
+	public long count() {
+		return size;
+	}
+
+	@Override
+	public long countBetween(final int min, final int max) {
+		return NumericKernels.countBetween(array, size, min, max);
+	}
+
+	@Override
+	public long dot(final int[] other) {
+		Objects.requireNonNull(other);
+		if (other.length != size) {
+			throw new IllegalArgumentException("Length mismatch: " + size + " and " + other.length);
+		}
+
+		return NumericKernels.dot(array, other, size);
+	}
+
+	@Override
+	public IntArrayChain each(final IntConsumer iterator) {
+		final int[] array = this.array;
+		for (int i = 0; i < size; ++i) {
+			iterator.accept(array[i]);
+		}
+		return this;
+	}
+
+	@Override
+	public IntArrayChain filter(final IntPredicate predicate) {
+		final int[] source = array;
+		final int[] results = shared ? new int[size] : source;
+		int length = 0;
+		for (int i = 0; i < size; ++i) {
+			final int value = source[i];
+			if (predicate.test(value)) {
+				results[length++] = value;
+			}
+		}
+		array = results;
+		size = length;
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public OptionalInt find(final IntPredicate predicate) {
+		final int[] array = this.array;
+		for (int i = 0; i < size; ++i) {
+			if (predicate.test(array[i])) {
+				return OptionalInt.of(array[i]);
+			}
+		}
+		return OptionalInt.empty();
+	}
+
+	@Override
+	public int indexOf(final int value, final boolean isSorted) {
+		if (isSorted) {
+			final int index = _.sortedIndex(array, 0, size, value);
+			return (index < size && array[index] == value) ? index : -1;
+		}
+
+		for (int i = 0; i < size; ++i) {
+			if (array[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String join(final String delimiter) {
+		if (size == 0) {
+			return "";
+		}
+
+		final StringBuilder builder = new StringBuilder();
+		builder.append(array[0]);
+		for (int i = 1; i < size; ++i) {
+			if (delimiter != null) {
+				builder.append(delimiter);
+			}
+			builder.append(array[i]);
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public IntArrayChain lazy() {
+		return new LazyIntArrayChainImpl(value());
+	}
+
+	@Override
+	public IntArrayChain map(final IntUnaryOperator iterator) {
+		final int[] source = array;
+		final int[] results = shared ? new int[size] : source;
+		for (int i = 0; i < size; ++i) {
+			results[i] = iterator.applyAsInt(source[i]);
+		}
+		array = results;
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public OptionalInt max() {
+		if (size == 0) {
+			return OptionalInt.empty();
+		}
+
+		return OptionalInt.of(NumericKernels.max(array, size));
+	}
+
+	@Override
+	public OptionalInt min() {
+		if (size == 0) {
+			return OptionalInt.empty();
+		}
+
+		return OptionalInt.of(NumericKernels.min(array, size));
+	}
+
+	@Override
+	public int reduce(final IntBinaryOperator iterator, int memo) {
+		final int[] array = this.array;
+		for (int i = 0; i < size; ++i) {
+			memo = iterator.applyAsInt(array[i], memo);
+		}
+		return memo;
+	}
+
+	@Override
+	public IntArrayChain shuffle() {
+		_.shuffle(writable(), 0, size, new SplittableRandom()::nextInt);
+		return this;
+	}
+
+	@Override
+	public int sortedIndex(final int value) {
+		return _.sortedIndex(array, 0, size, value);
+	}
+
+	@Override
+	public IntArrayChain sortedInsert(final int... values) {
+		array = _.sortedInsert((size == array.length) ? array : Arrays.copyOf(array, size), values);
+		size = array.length;
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public IntArrayChain sort() {
+		Arrays.sort(writable(), 0, size);
+		return this;
+	}
+
+	@Override
+	public long sum() {
+		return NumericKernels.sum(array, size);
+	}
+
+	@Override
+	public IntArrayChain tap(final Consumer<int[]> interceptor) {
+		_.tap(value(), interceptor);
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(value());
+	}
+
+	@Override
+	public IntArrayChain unique() {
+		final int[] distinct = Arrays.copyOf(array, size);
+		Arrays.sort(distinct);
+
+		int length = 0;
+		for (int i = 0; i < distinct.length; ++i) {
+			if (length == 0 || distinct[length - 1] != distinct[i]) {
+				distinct[length++] = distinct[i];
+			}
+		}
+
+		final boolean[] seen = new boolean[length];
+		return filter((value) -> {
+			final int index = Arrays.binarySearch(distinct, 0, seen.length, value);
+			if (seen[index]) {
+				return false;
+			}
+			return seen[index] = true;
+		});
+	}
+
+	@Override
+	public int[] value() {
+		if (size != array.length) {
+			array = Arrays.copyOf(array, size);
+		}
+		shared = true;
+		return array;
+	}
+
+	@Override
+	public IntArrayChain without(final int... values) {
+		if (values == null || values.length == 0) {
+			return this;
+		}
+
+		final LongSet excluded = LongSet.of(values);
+		return filter((value) -> !excluded.contains(value));
+	}
+}
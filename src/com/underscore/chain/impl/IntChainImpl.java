@@ -1,5 +1,8 @@
 package com.underscore.chain.impl;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
@@ -8,6 +11,8 @@ import java.util.function.Predicate;
 
 import com.underscore._;
 import com.underscore.chain.ArrayChain;
+import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
 
 public class IntChainImpl implements ArrayChain<Integer> {
 
@@ -32,6 +37,11 @@ public class IntChainImpl implements ArrayChain<Integer> {
 	public long count() {
 		return array.length;
 	}
+	
+	@Override
+	public <K> ObjectIntMap<K> countBy(final Function<? super Integer, ? extends K> iterator) {
+		return _.countBy(array, iterator);
+	}
 
 	@Override
 	public ArrayChain<Integer> each(Consumer<Integer> iterator) {
@@ -50,11 +60,31 @@ public class IntChainImpl implements ArrayChain<Integer> {
 		return _.find(array, predicate);
 	}
 
+	@Override
+	public <K> MapChain<K, List<Integer>> groupBy(final Function<? super Integer, ? extends K> iterator) {
+		return new MapChainImpl<>(_.groupBy(array, iterator));
+	}
+
+	@Override
+	public <K> MapChain<K, Integer> indexBy(final Function<? super Integer, ? extends K> iterator) {
+		return new MapChainImpl<>(_.indexBy(array, iterator));
+	}
+
 	@Override
 	public String join(String delimiter) {
 		return _.join(array, delimiter);
 	}
 
+	@Override
+	public <A extends Appendable> A join(String delimiter, A out) throws IOException {
+		return _.join(array, delimiter, out);
+	}
+
+	@Override
+	public ArrayChain<Integer> lazy() {
+		return new LazyArrayChainImpl<>(array, (a, b) -> a + b, 0);
+	}
+
 	@Override
 	public ArrayChain<Integer> map(Function<Integer, Integer> iterator) {
 		array = _.map(array, iterator);
@@ -63,12 +93,14 @@ public class IntChainImpl implements ArrayChain<Integer> {
 
 	@Override
 	public Integer max() {
-		return _.max(array, _.identity());
+		final int[] values = unboxed();
+		return (values.length == 0) ? null : NumericKernels.max(values, values.length);
 	}
 
 	@Override
 	public Integer min() {
-		return _.min(array, _.identity());
+		final int[] values = unboxed();
+		return (values.length == 0) ? null : NumericKernels.min(values, values.length);
 	}
 
 	@Override
@@ -90,7 +122,8 @@ public class IntChainImpl implements ArrayChain<Integer> {
 
 	@Override
 	public Integer sum() {
-		return reduce((a, b) -> a + b, 0);
+		final int[] values = unboxed();
+		return (int) NumericKernels.sum(values, values.length);
 	}
 
 	@Override
@@ -99,6 +132,20 @@ public class IntChainImpl implements ArrayChain<Integer> {
 		return this;
 	}
 
+	/*
+	 * The elements that are not null, unboxed for the NumericKernels.
+	 */
+	private int[] unboxed() {
+		final int[] values = new int[array.length];
+		int length = 0;
+		for (Integer value : array) {
+			if (value != null) {
+				values[length++] = value;
+			}
+		}
+		return (length == values.length) ? values : Arrays.copyOf(values, length);
+	}
+
 	@Override
 	public Integer[] value() {
 		return array;
@@ -106,13 +153,13 @@ public class IntChainImpl implements ArrayChain<Integer> {
 
 	@Override
 	public ArrayChain<Integer> unique() {
-		// TODO Auto-generated method stub
-		return null;
+		array = _.unique(array);
+		return this;
 	}
 
 	@Override
 	public ArrayChain<Integer> without(Integer... values) {
-		// TODO Auto-generated method stub
-		return null;
+		array = _.without(array, values);
+		return this;
 	}
 }
@@ -0,0 +1,294 @@
+package com.underscore.chain.impl;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.underscore._;
+import com.underscore.chain.ArrayChain;
+import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
+
+/**
+ * An {@link ArrayChain} that records {@code each}, {@code filter},
+ * {@code map}, {@code unique} and {@code without} instead of running them.
+ * The recorded steps are fused into a single loop over the source array when
+ * a terminal operation ({@code value}, {@code sum}, {@code reduce},
+ * {@code count}, {@code countBy}, {@code indexBy}, {@code join},
+ * {@code find}, {@code max} or {@code min}) is called, so no intermediate
+ * arrays are built. {@code sort}, {@code shuffle}, {@code groupBy} and
+ * {@code tap} need every element at once and materialize the pipeline
+ * first.
+ */
+public class LazyArrayChainImpl<E extends Comparable<? super E>> implements ArrayChain<E> {
+
+	private E[] array;
+
+	private final BinaryOperator<E> adder;
+
+	private final E zero;
+
+	/*
+	 * Wraps the sink of the terminal operation in the sinks of the recorded
+	 * steps, or null if nothing is recorded. A sink returns false to stop the
+	 * loop early.
+	 */
+	private Function<Predicate<E>, Predicate<E>> pipeline;
+
+	public LazyArrayChainImpl(final E[] array, final BinaryOperator<E> adder, final E zero) {
+		Objects.requireNonNull(array);
+
+		this.array = array;
+		this.adder = adder;
+		this.zero = zero;
+	}
+
+	private LazyArrayChainImpl<E> then(final Function<Predicate<E>, Predicate<E>> stage) {
+		pipeline = (pipeline == null) ? stage : pipeline.compose(stage);
+		return this;
+	}
+
+	private void run(final Predicate<E> terminal) {
+		final Predicate<E> sink = (pipeline == null) ? terminal : pipeline.apply(terminal);
+		for (E value : array) {
+			if (!sink.test(value)) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public long count() {
+		if (pipeline == null) {
+			return array.length;
+		}
+
+		final long[] count = new long[1];
+		run((value) -> {
+			++count[0];
+			return true;
+		});
+		return count[0];
+	}
+
+	@Override
+	public <K> ObjectIntMap<K> countBy(final Function<? super E, ? extends K> iterator) {
+		if (pipeline == null) {
+			return _.countBy(array, iterator);
+		}
+
+		final ObjectIntMap<K> results = new ObjectIntMap<>();
+		run((value) -> {
+			results.addTo(iterator.apply(value), 1);
+			return true;
+		});
+		return results;
+	}
+
+	@Override
+	public ArrayChain<E> each(final Consumer<E> iterator) {
+		return then((sink) -> (value) -> {
+			iterator.accept(value);
+			return sink.test(value);
+		});
+	}
+
+	@Override
+	public ArrayChain<E> filter(final Predicate<E> predicate) {
+		return then((sink) -> (value) -> !predicate.test(value) || sink.test(value));
+	}
+
+	@Override
+	public E find(final Predicate<E> predicate) {
+		final Object[] result = new Object[1];
+		run((value) -> {
+			if (predicate.test(value)) {
+				result[0] = value;
+				return false;
+			}
+			return true;
+		});
+
+		@SuppressWarnings("unchecked")
+		final E found = (E) result[0];
+		return found;
+	}
+
+	@Override
+	public <K> MapChain<K, List<E>> groupBy(final Function<? super E, ? extends K> iterator) {
+		return new MapChainImpl<>(_.groupBy(value(), iterator));
+	}
+
+	@Override
+	public <K> MapChain<K, E> indexBy(final Function<? super E, ? extends K> iterator) {
+		final Map<K, E> results = new LinkedHashMap<>();
+		run((value) -> {
+			results.put(iterator.apply(value), value);
+			return true;
+		});
+		return new MapChainImpl<>(results);
+	}
+
+	@Override
+	public String join(final String delimiter) {
+		final StringBuilder builder = new StringBuilder();
+		final boolean[] first = { true };
+		run((value) -> {
+			if (!first[0] && delimiter != null) {
+				builder.append(delimiter);
+			}
+			first[0] = false;
+			if (value != null) {
+				builder.append(value);
+			}
+			return true;
+		});
+		return builder.toString();
+	}
+
+	@Override
+	public <A extends Appendable> A join(final String delimiter, final A out) throws IOException {
+		final boolean[] first = { true };
+		final IOException[] failure = new IOException[1];
+		run((value) -> {
+			try {
+				if (!first[0] && delimiter != null) {
+					out.append(delimiter);
+				}
+				first[0] = false;
+				if (value != null) {
+					out.append(value.toString());
+				}
+				return true;
+			} catch (final IOException e) {
+				failure[0] = e;
+				return false;
+			}
+		});
+		if (failure[0] != null) {
+			throw failure[0];
+		}
+		return out;
+	}
+
+	@Override
+	public ArrayChain<E> lazy() {
+		return this;
+	}
+
+	@Override
+	public ArrayChain<E> map(final Function<E, E> iterator) {
+		return then((sink) -> (value) -> sink.test(iterator.apply(value)));
+	}
+
+	@Override
+	public E max() {
+		return reduce((value, memo) -> {
+			if (value == null) return memo;
+			return (memo == null || value.compareTo(memo) > 0) ? value : memo;
+		}, null);
+	}
+
+	@Override
+	public E min() {
+		return reduce((value, memo) -> {
+			if (value == null) return memo;
+			return (memo == null || value.compareTo(memo) < 0) ? value : memo;
+		}, null);
+	}
+
+	@Override
+	public E reduce(final BinaryOperator<E> iterator, final E memo) {
+		final Object[] result = { memo };
+		run((value) -> {
+			@SuppressWarnings("unchecked")
+			final E current = (E) result[0];
+			result[0] = iterator.apply(value, current);
+			return true;
+		});
+
+		@SuppressWarnings("unchecked")
+		final E reduced = (E) result[0];
+		return reduced;
+	}
+
+	@Override
+	public ArrayChain<E> shuffle() {
+		_.shuffle(value());
+		return this;
+	}
+
+	@Override
+	public ArrayChain<E> sort() {
+		_.sort(value());
+		return this;
+	}
+
+	@Override
+	public E sum() {
+		if (adder == null) {
+			return null;
+		}
+		return reduce(adder, zero);
+	}
+
+	@Override
+	public ArrayChain<E> tap(final Consumer<E[]> interceptor) {
+		_.tap(value(), interceptor);
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(value());
+	}
+
+	@Override
+	public ArrayChain<E> unique() {
+		return then((sink) -> {
+			final Set<E> seen = new HashSet<>();
+			return (value) -> !seen.add(value) || sink.test(value);
+		});
+	}
+
+	@Override
+	public E[] value() {
+		if (pipeline == null) {
+			return array;
+		}
+
+		@SuppressWarnings("unchecked")
+		final E[] results = (E[]) Array.newInstance(array.getClass().getComponentType(), array.length);
+		final int[] length = new int[1];
+		run((value) -> {
+			results[length[0]++] = value;
+			return true;
+		});
+
+		array = (length[0] == results.length) ? results : Arrays.copyOf(results, length[0]);
+		pipeline = null;
+		return array;
+	}
+
+	@Override
+	public ArrayChain<E> without(final E... values) {
+		if (values == null || values.length == 0) {
+			return this;
+		}
+
+		final Set<E> excluded = new HashSet<>(values.length);
+		Collections.addAll(excluded, values);
+		return filter((value) -> !excluded.contains(value));
+	}
+}
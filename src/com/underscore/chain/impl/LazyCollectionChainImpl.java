@@ -0,0 +1,444 @@
+package com.underscore.chain.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import com.underscore._;
+import com.underscore.chain.AsyncCollectionChain;
+import com.underscore.chain.CollectionChain;
+import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
+import com.underscore.chain.ParallelCollectionChain;
+
+/**
+ * A {@link CollectionChain} that pulls elements through {@code each},
+ * {@code filter}, {@code flatten}, {@code map}, {@code first},
+ * {@code unique} and {@code without} one at a time instead of building a
+ * collection at every step. Nothing is read from the source until a terminal
+ * operation asks for it, and {@code find}, {@code any}, {@code every} and
+ * {@code first} stop pulling as soon as they have their answer.
+ * {@code sort}, {@code sortBy}, {@code shuffle} and {@code tap} need every
+ * element at once and materialize the pipeline first. Other terminal
+ * operations pull the source through the pipeline again each time; once it
+ * is materialized, they read the materialized list.
+ */
+public class LazyCollectionChainImpl<E> implements CollectionChain<E> {
+
+	private Iterable<E> source;
+
+	/*
+	 * The materialized pipeline, or null if the source has not been pulled
+	 * through to a collection yet.
+	 */
+	private List<E> collection;
+
+	public LazyCollectionChainImpl(final Iterable<E> source) {
+		Objects.requireNonNull(source);
+
+		this.source = source;
+	}
+
+	private LazyCollectionChainImpl<E> then(final Iterable<E> next) {
+		source = next;
+		collection = null;
+		return this;
+	}
+
+	private List<E> materialize() {
+		if (collection == null) {
+			final List<E> results = (source instanceof Collection)
+					? new ArrayList<>(((Collection<E>) source).size())
+					: new ArrayList<>();
+			for (E value : source) {
+				results.add(value);
+			}
+			collection = results;
+			source = results;
+		}
+		return collection;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<Object, Object> asMap(final Object value) {
+		return (Map<Object, Object>) value;
+	}
+
+	@Override
+	public boolean any(final Predicate<E> predicate) {
+		for (E value : source) {
+			if (predicate.test(value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public AsyncCollectionChain<E> async(final int maxConcurrency) {
+		return new AsyncCollectionChainImpl<E>(materialize(), maxConcurrency);
+	}
+
+	@Override
+	public long count() {
+		if (source instanceof Collection) {
+			return ((Collection<E>) source).size();
+		}
+
+		long count = 0;
+		for (Iterator<E> iterator = source.iterator(); iterator.hasNext(); iterator.next()) {
+			++count;
+		}
+		return count;
+	}
+
+	@Override
+	public <K> ObjectIntMap<K> countBy(final Function<? super E, ? extends K> iterator) {
+		return _.countBy(source, iterator);
+	}
+
+	@Override
+	public CollectionChain<E> each(final Consumer<E> iterator) {
+		final Iterable<E> upstream = source;
+		return then(() -> new MappingIterator<E, E>(upstream.iterator(), (value) -> {
+			iterator.accept(value);
+			return value;
+		}));
+	}
+
+	@Override
+	public boolean every(final Predicate<E> predicate) {
+		for (E value : source) {
+			if (!predicate.test(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public CollectionChain<E> filter(final Predicate<E> predicate) {
+		final Iterable<E> upstream = source;
+		return then(() -> new FilteringIterator<>(upstream.iterator(), predicate));
+	}
+
+	@Override
+	public E find(final Predicate<E> predicate) {
+		for (E value : source) {
+			if (predicate.test(value)) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public E findWhere(final Map<?, ?> attrs) {
+		final Predicate<Map<Object, Object>> matcher = _.matches(attrs);
+		return find((value) -> matcher.test(asMap(value)));
+	}
+
+	@Override
+	public CollectionChain<E> first(final int n) {
+		final Iterable<E> upstream = source;
+		return then(() -> new LimitingIterator<>(upstream.iterator(), n));
+	}
+
+	@Override
+	public CollectionChain<Object> flatten() {
+		return flatten(Integer.MAX_VALUE);
+	}
+
+	/*
+	 * The view is wrapped as a plain iterable, since a collection would be
+	 * sized, and so pulled through the pipeline, before it is materialized.
+	 */
+	@Override
+	public CollectionChain<Object> flatten(final int depth) {
+		final Collection<Object> flattened = _.flatten(source, depth);
+		return new LazyCollectionChainImpl<Object>(flattened::iterator);
+	}
+
+	@Override
+	public <K> MapChain<K, List<E>> groupBy(final Function<? super E, ? extends K> iterator) {
+		return new MapChainImpl<>(_.groupBy(source, iterator));
+	}
+
+	@Override
+	public <K> MapChain<K, E> indexBy(final Function<? super E, ? extends K> iterator) {
+		return new MapChainImpl<>(_.indexBy(source, iterator));
+	}
+
+	@Override
+	public String join(final String delimiter) {
+		return _.join(source.iterator(), delimiter);
+	}
+
+	@Override
+	public <A extends Appendable> A join(final String delimiter, final A out) throws IOException {
+		return _.join(source.iterator(), delimiter, out);
+	}
+
+	@Override
+	public CollectionChain<E> lazy() {
+		return this;
+	}
+
+	@Override
+	public <R> CollectionChain<R> map(final Function<E, R> iterator) {
+		final Iterable<E> upstream = source;
+		return new LazyCollectionChainImpl<R>(() -> new MappingIterator<E, R>(upstream.iterator(), iterator));
+	}
+
+	@Override
+	public E max(final Comparator<? super E> comp) {
+		E result = null;
+		for (E value : source) {
+			if (value != null && (result == null || comp.compare(value, result) > 0)) {
+				result = value;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public E min(final Comparator<? super E> comp) {
+		E result = null;
+		for (E value : source) {
+			if (value != null && (result == null || comp.compare(value, result) < 0)) {
+				result = value;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public ParallelCollectionChain<E> parallel() {
+		return new ParallelCollectionChainImpl<>(materialize());
+	}
+
+	@Override
+	public ParallelCollectionChain<E> parallel(final ForkJoinPool pool) {
+		return new ParallelCollectionChainImpl<>(materialize(), pool);
+	}
+
+	@Override
+	public MapChain<Boolean, List<E>> partition(final Predicate<? super E> predicate) {
+		final Map<Boolean, List<E>> results = new HashMap<>();
+		final List<E> passed = new ArrayList<>();
+		final List<E> failed = new ArrayList<>();
+		results.put(true, passed);
+		results.put(false, failed);
+		for (E value : source) {
+			(predicate.test(value) ? passed : failed).add(value);
+		}
+		return new MapChainImpl<>(results);
+	}
+
+	@Override
+	public E reduce(final BinaryOperator<E> iterator, E memo) {
+		for (E value : source) {
+			memo = iterator.apply(value, memo);
+		}
+		return memo;
+	}
+
+	@Override
+	public <R> R reduce(final BiFunction<? super E, R, R> iterator, R memo) {
+		for (E value : source) {
+			memo = iterator.apply(value, memo);
+		}
+		return memo;
+	}
+
+	@Override
+	public CollectionChain<E> shuffle() {
+		_.shuffle(materialize());
+		return this;
+	}
+
+	@Override
+	public CollectionChain<E> sort(final Comparator<? super E> comp) {
+		_.sort(materialize(), comp);
+		return this;
+	}
+
+	@Override
+	public <U extends Comparable<? super U>> CollectionChain<E> sortBy(final Function<? super E, ? extends U> iterator) {
+		return then(_.sortBy(materialize(), iterator));
+	}
+
+	@Override
+	public CollectionChain<E> sortByDouble(final ToDoubleFunction<? super E> iterator) {
+		return then(_.sortByDouble(materialize(), iterator));
+	}
+
+	@Override
+	public CollectionChain<E> sortByInt(final ToIntFunction<? super E> iterator) {
+		return then(_.sortByInt(materialize(), iterator));
+	}
+
+	@Override
+	public CollectionChain<E> sortByLong(final ToLongFunction<? super E> iterator) {
+		return then(_.sortByLong(materialize(), iterator));
+	}
+
+	@Override
+	public CollectionChain<E> tap(final Consumer<Collection<E>> interceptor) {
+		_.tap(materialize(), interceptor);
+		return this;
+	}
+
+	@Override
+	public <K, V> MapChain<K, V> toMap(
+			final Function<? super E, ? extends K> keyMapIterator,
+			final Function<? super E, ? extends V> valueMapIterator) {
+		final Map<K, V> results = new HashMap<K, V>();
+		for (E value : source) {
+			results.put(keyMapIterator.apply(value), valueMapIterator.apply(value));
+		}
+		return new MapChainImpl<>(results);
+	}
+
+	@Override
+	public String toString() {
+		return materialize().toString();
+	}
+
+	@Override
+	public CollectionChain<E> unique() {
+		final Iterable<E> upstream = source;
+		return then(() -> {
+			final Set<E> seen = new HashSet<>();
+			return new FilteringIterator<>(upstream.iterator(), seen::add);
+		});
+	}
+
+	@Override
+	public Collection<E> value() {
+		return materialize();
+	}
+
+	@Override
+	public CollectionChain<E> where(final Map<?, ?> attrs) {
+		final Predicate<Map<Object, Object>> matcher = _.matches(attrs);
+		return filter((value) -> matcher.test(asMap(value)));
+	}
+
+	@Override
+	public CollectionChain<E> without(final E... values) {
+		if (values == null || values.length == 0) {
+			return this;
+		}
+
+		final Set<E> excluded = new HashSet<>(values.length);
+		Collections.addAll(excluded, values);
+		return filter((value) -> !excluded.contains(value));
+	}
+
+	private static final class FilteringIterator<E> implements Iterator<E> {
+
+		private final Iterator<E> upstream;
+
+		private final Predicate<? super E> predicate;
+
+		private E next;
+
+		private boolean ready;
+
+		FilteringIterator(final Iterator<E> upstream, final Predicate<? super E> predicate) {
+			this.upstream = upstream;
+			this.predicate = predicate;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!ready && upstream.hasNext()) {
+				final E value = upstream.next();
+				if (predicate.test(value)) {
+					next = value;
+					ready = true;
+				}
+			}
+			return ready;
+		}
+
+		@Override
+		public E next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			ready = false;
+			final E value = next;
+			next = null;
+			return value;
+		}
+	}
+
+	private static final class MappingIterator<T, R> implements Iterator<R> {
+
+		private final Iterator<T> upstream;
+
+		private final Function<? super T, ? extends R> iterator;
+
+		MappingIterator(final Iterator<T> upstream, final Function<? super T, ? extends R> iterator) {
+			this.upstream = upstream;
+			this.iterator = iterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return upstream.hasNext();
+		}
+
+		@Override
+		public R next() {
+			return iterator.apply(upstream.next());
+		}
+	}
+
+	private static final class LimitingIterator<E> implements Iterator<E> {
+
+		private final Iterator<E> upstream;
+
+		private int remaining;
+
+		LimitingIterator(final Iterator<E> upstream, final int limit) {
+			this.upstream = upstream;
+			this.remaining = limit;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0 && upstream.hasNext();
+		}
+
+		@Override
+		public E next() {
+			if (remaining <= 0) {
+				throw new NoSuchElementException();
+			}
+			--remaining;
+			return upstream.next();
+		}
+	}
+}
@@ -0,0 +1,325 @@
+package com.underscore.chain.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+import com.underscore._;
+import com.underscore.chain.ArrayChain;
+import com.underscore.chain.DoubleArrayChain;
+import com.underscore.chain.LongSet;
+
+/**
+ * The lazy counterpart of {@link DoubleArrayChainImpl}: {@code each},
+ * {@code filter}, {@code map}, {@code unique} and {@code without} are
+ * recorded and fused into one loop over the source array by each terminal
+ * operation. See {@link LazyArrayChainImpl}.
+ */
+public class LazyDoubleArrayChainImpl implements DoubleArrayChain {
+
+	private double[] array;
+
+	/*
+	 * Whether array is still visible to the caller, in which case it is copied
+	 * before being written to.
+	 */
+	private boolean shared;
+
+	/*
+	 * Wraps the sink of the terminal operation in the sinks of the recorded
+	 * steps, or null if nothing is recorded. A sink returns false to stop the
+	 * loop early.
+	 */
+	private Function<DoublePredicate, DoublePredicate> pipeline;
+
+	public LazyDoubleArrayChainImpl(final double[] array) {
+		Objects.requireNonNull(array);
+
+		this.array = array;
+		this.shared = true;
+	}
+
+	private LazyDoubleArrayChainImpl then(final Function<DoublePredicate, DoublePredicate> stage) {
+		pipeline = (pipeline == null) ? stage : pipeline.compose(stage);
+		return this;
+	}
+
+	private void run(final DoublePredicate terminal) {
+		final DoublePredicate sink = (pipeline == null) ? terminal : pipeline.apply(terminal);
+		final double[] array = this.array;
+		for (int i = 0; i < array.length; ++i) {
+			if (!sink.test(array[i])) {
+				return;
+			}
+		}
+	}
+
+	private double[] materialize() {
+		if (pipeline != null) {
+			final double[] results = new double[array.length];
+			final int[] length = new int[1];
+			run((value) -> {
+				results[length[0]++] = value;
+				return true;
+			});
+
+			array = (length[0] == results.length) ? results : Arrays.copyOf(results, length[0]);
+			pipeline = null;
+			shared = false;
+		}
+		return array;
+	}
+
+	private double[] writable() {
+		materialize();
+		if (shared) {
+			array = array.clone();
+			shared = false;
+		}
+		return array;
+	}
+
+	@Override
+	public ArrayChain<Double> boxed() {
+		return new DoubleChainImpl(value());
+	}
+
+	@Override
+	public boolean contains(final double value, final boolean isSorted) {
+		return indexOf(value, isSorted) >= 0;
+	}
+
+	@Override
+	public long count() {
+		if (pipeline == null) {
+			return array.length;
+		}
+
+		final long[] count = new long[1];
+		run((value) -> {
+			++count[0];
+			return true;
+		});
+		return count[0];
+	}
+
+	@Override
+	public long countBetween(final double min, final double max) {
+		if (pipeline == null) {
+			return NumericKernels.countBetween(array, array.length, min, max);
+		}
+
+		final long[] count = new long[1];
+		run((value) -> {
+			if (value >= min && value < max) {
+				++count[0];
+			}
+			return true;
+		});
+		return count[0];
+	}
+
+	@Override
+	public double dot(final double[] other) {
+		Objects.requireNonNull(other);
+		final double[] array = materialize();
+		if (other.length != array.length) {
+			throw new IllegalArgumentException("Length mismatch: " + array.length + " and " + other.length);
+		}
+
+		return NumericKernels.dot(array, other, array.length);
+	}
+
+	@Override
+	public DoubleArrayChain each(final DoubleConsumer iterator) {
+		return then((sink) -> (value) -> {
+			iterator.accept(value);
+			return sink.test(value);
+		});
+	}
+
+	@Override
+	public DoubleArrayChain filter(final DoublePredicate predicate) {
+		return then((sink) -> (value) -> !predicate.test(value) || sink.test(value));
+	}
+
+	@Override
+	public OptionalDouble find(final DoublePredicate predicate) {
+		final double[] result = new double[1];
+		final boolean[] found = new boolean[1];
+		run((value) -> {
+			if (predicate.test(value)) {
+				result[0] = value;
+				found[0] = true;
+				return false;
+			}
+			return true;
+		});
+		return found[0] ? OptionalDouble.of(result[0]) : OptionalDouble.empty();
+	}
+
+	@Override
+	public int indexOf(final double value, final boolean isSorted) {
+		if (isSorted) {
+			return _.indexOf(materialize(), value, true);
+		}
+
+		final int[] index = { 0, -1 };
+		run((element) -> {
+			if (Double.compare(element, value) == 0) {
+				index[1] = index[0];
+				return false;
+			}
+			++index[0];
+			return true;
+		});
+		return index[1];
+	}
+
+	@Override
+	public String join(final String delimiter) {
+		final StringBuilder builder = new StringBuilder();
+		final boolean[] first = { true };
+		run((value) -> {
+			if (!first[0] && delimiter != null) {
+				builder.append(delimiter);
+			}
+			first[0] = false;
+			builder.append(value);
+			return true;
+		});
+		return builder.toString();
+	}
+
+	@Override
+	public DoubleArrayChain lazy() {
+		return this;
+	}
+
+	@Override
+	public DoubleArrayChain map(final DoubleUnaryOperator iterator) {
+		return then((sink) -> (value) -> sink.test(iterator.applyAsDouble(value)));
+	}
+
+	@Override
+	public OptionalDouble max() {
+		if (pipeline == null) {
+			return (array.length == 0) ? OptionalDouble.empty() : OptionalDouble.of(NumericKernels.max(array, array.length));
+		}
+
+		final double[] result = new double[1];
+		final boolean[] found = new boolean[1];
+		run((value) -> {
+			result[0] = found[0] ? Math.max(result[0], value) : value;
+			found[0] = true;
+			return true;
+		});
+		return found[0] ? OptionalDouble.of(result[0]) : OptionalDouble.empty();
+	}
+
+	@Override
+	public OptionalDouble min() {
+		if (pipeline == null) {
+			return (array.length == 0) ? OptionalDouble.empty() : OptionalDouble.of(NumericKernels.min(array, array.length));
+		}
+
+		final double[] result = new double[1];
+		final boolean[] found = new boolean[1];
+		run((value) -> {
+			result[0] = found[0] ? Math.min(result[0], value) : value;
+			found[0] = true;
+			return true;
+		});
+		return found[0] ? OptionalDouble.of(result[0]) : OptionalDouble.empty();
+	}
+
+	@Override
+	public double reduce(final DoubleBinaryOperator iterator, final double memo) {
+		final double[] result = { memo };
+		run((value) -> {
+			result[0] = iterator.applyAsDouble(value, result[0]);
+			return true;
+		});
+		return result[0];
+	}
+
+	@Override
+	public DoubleArrayChain shuffle() {
+		_.shuffle(writable());
+		return this;
+	}
+
+	@Override
+	public int sortedIndex(final double value) {
+		return _.sortedIndex(materialize(), value);
+	}
+
+	@Override
+	public DoubleArrayChain sortedInsert(final double... values) {
+		array = _.sortedInsert(materialize(), values);
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public DoubleArrayChain sort() {
+		Arrays.sort(writable());
+		return this;
+	}
+
+	@Override
+	public double sum() {
+		if (pipeline == null) {
+			return NumericKernels.sum(array, array.length);
+		}
+
+		final double[] sum = new double[1];
+		run((value) -> {
+			sum[0] += value;
+			return true;
+		});
+		return sum[0];
+	}
+
+	@Override
+	public DoubleArrayChain tap(final Consumer<double[]> interceptor) {
+		_.tap(value(), interceptor);
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(value());
+	}
+
+	@Override
+	public DoubleArrayChain unique() {
+		return then((sink) -> {
+			final LongSet seen = new LongSet();
+			return (value) -> !seen.add(Double.doubleToLongBits(value)) || sink.test(value);
+		});
+	}
+
+	@Override
+	public double[] value() {
+		materialize();
+		shared = true;
+		return array;
+	}
+
+	@Override
+	public DoubleArrayChain without(final double... values) {
+		if (values == null || values.length == 0) {
+			return this;
+		}
+
+		final LongSet excluded = LongSet.ofBits(values);
+		return filter((value) -> !excluded.contains(Double.doubleToLongBits(value)));
+	}
+}
@@ -0,0 +1,377 @@
+package com.underscore.chain.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+import com.underscore._;
+import com.underscore.chain.ArrayChain;
+import com.underscore.chain.LongArrayChain;
+import com.underscore.chain.LongRange;
+import com.underscore.chain.LongSet;
+
+/**
+ * The lazy counterpart of {@link LongArrayChainImpl}: {@code each},
+ * {@code filter}, {@code map}, {@code unique} and {@code without} are
+ * recorded and fused into one loop over the source array by each terminal
+ * operation. See {@link LazyArrayChainImpl}.
+ * A chain made from a {@link LongRange} loops over the range itself, and
+ * answers {@code count}, {@code contains}, {@code max}, {@code min} and
+ * {@code sum} from it directly, until it has to be materialized.
+ */
+public class LazyLongArrayChainImpl implements LongArrayChain {
+
+	private long[] array;
+
+	/*
+	 * The source of a chain made from a range until it is materialized, with
+	 * array null meanwhile.
+	 */
+	private LongRange range;
+
+	/*
+	 * Whether array is still visible to the caller, in which case it is copied
+	 * before being written to.
+	 */
+	private boolean shared;
+
+	/*
+	 * Wraps the sink of the terminal operation in the sinks of the recorded
+	 * steps, or null if nothing is recorded. A sink returns false to stop the
+	 * loop early.
+	 */
+	private Function<LongPredicate, LongPredicate> pipeline;
+
+	public LazyLongArrayChainImpl(final long[] array) {
+		Objects.requireNonNull(array);
+
+		this.array = array;
+		this.shared = true;
+	}
+
+	public LazyLongArrayChainImpl(final LongRange range) {
+		Objects.requireNonNull(range);
+
+		this.range = range;
+	}
+
+	private LazyLongArrayChainImpl then(final Function<LongPredicate, LongPredicate> stage) {
+		pipeline = (pipeline == null) ? stage : pipeline.compose(stage);
+		return this;
+	}
+
+	private void run(final LongPredicate terminal) {
+		final LongPredicate sink = (pipeline == null) ? terminal : pipeline.apply(terminal);
+		if (array == null) {
+			final long step = range.step();
+			long value = range.start();
+			for (long i = range.size(); i > 0; --i, value += step) {
+				if (!sink.test(value)) {
+					return;
+				}
+			}
+			return;
+		}
+
+		final long[] array = this.array;
+		for (int i = 0; i < array.length; ++i) {
+			if (!sink.test(array[i])) {
+				return;
+			}
+		}
+	}
+
+	private long[] materialize() {
+		if (pipeline != null) {
+			/* A range may be far larger than what passes the pipeline. */
+			final long[][] results = { new long[(array != null) ? array.length : (int) Math.min(range.size(), 16)] };
+			final int[] length = new int[1];
+			run((value) -> {
+				if (length[0] == results[0].length) {
+					results[0] = Arrays.copyOf(results[0], Math.max(16, length[0] << 1));
+				}
+				results[0][length[0]++] = value;
+				return true;
+			});
+
+			array = (length[0] == results[0].length) ? results[0] : Arrays.copyOf(results[0], length[0]);
+			range = null;
+			pipeline = null;
+			shared = false;
+		} else if (array == null) {
+			array = range.toArray();
+			range = null;
+			shared = false;
+		}
+		return array;
+	}
+
+	private long[] writable() {
+		materialize();
+		if (shared) {
+			array = array.clone();
+			shared = false;
+		}
+		return array;
+	}
+
+	@Override
+	public ArrayChain<Long> boxed() {
+		return new LongChainImpl(value());
+	}
+
+	@Override
+	public boolean contains(final long value, final boolean isSorted) {
+		if (pipeline == null && array == null) {
+			return range.contains(value);
+		}
+		return indexOf(value, isSorted) >= 0;
+	}
+
+	@Override
+	public long count() {
+		if (pipeline == null) {
+			return (array == null) ? range.size() : array.length;
+		}
+
+		final long[] count = new long[1];
+		run((value) -> {
+			++count[0];
+			return true;
+		});
+		return count[0];
+	}
+
+	@Override
+	public long countBetween(final long min, final long max) {
+		if (pipeline == null && array != null) {
+			return NumericKernels.countBetween(array, array.length, min, max);
+		}
+
+		final long[] count = new long[1];
+		run((value) -> {
+			if (value >= min && value < max) {
+				++count[0];
+			}
+			return true;
+		});
+		return count[0];
+	}
+
+	@Override
+	public long dot(final long[] other) {
+		Objects.requireNonNull(other);
+		final long[] array = materialize();
+		if (other.length != array.length) {
+			throw new IllegalArgumentException("Length mismatch: " + array.length + " and " + other.length);
+		}
+
+		return NumericKernels.dot(array, other, array.length);
+	}
+
+	@Override
+	public LongArrayChain each(final LongConsumer iterator) {
+		return then((sink) -> (value) -> {
+			iterator.accept(value);
+			return sink.test(value);
+		});
+	}
+
+	@Override
+	public LongArrayChain filter(final LongPredicate predicate) {
+		return then((sink) -> (value) -> !predicate.test(value) || sink.test(value));
+	}
+
+	@Override
+	public OptionalLong find(final LongPredicate predicate) {
+		final long[] result = new long[1];
+		final boolean[] found = new boolean[1];
+		run((value) -> {
+			if (predicate.test(value)) {
+				result[0] = value;
+				found[0] = true;
+				return false;
+			}
+			return true;
+		});
+		return found[0] ? OptionalLong.of(result[0]) : OptionalLong.empty();
+	}
+
+	@Override
+	public int indexOf(final long value, final boolean isSorted) {
+		if (pipeline == null && array == null && range.size() <= Integer.MAX_VALUE) {
+			return (int) range.indexOf(value);
+		}
+		if (isSorted) {
+			return _.indexOf(materialize(), value, true);
+		}
+
+		final int[] index = { 0, -1 };
+		run((element) -> {
+			if (element == value) {
+				index[1] = index[0];
+				return false;
+			}
+			++index[0];
+			return true;
+		});
+		return index[1];
+	}
+
+	@Override
+	public String join(final String delimiter) {
+		final StringBuilder builder = new StringBuilder();
+		final boolean[] first = { true };
+		run((value) -> {
+			if (!first[0] && delimiter != null) {
+				builder.append(delimiter);
+			}
+			first[0] = false;
+			builder.append(value);
+			return true;
+		});
+		return builder.toString();
+	}
+
+	@Override
+	public LongArrayChain lazy() {
+		return this;
+	}
+
+	@Override
+	public LongArrayChain map(final LongUnaryOperator iterator) {
+		return then((sink) -> (value) -> sink.test(iterator.applyAsLong(value)));
+	}
+
+	@Override
+	public OptionalLong max() {
+		if (pipeline == null) {
+			if (array == null) {
+				return range.isEmpty() ? OptionalLong.empty() : OptionalLong.of(range.max());
+			}
+			return (array.length == 0) ? OptionalLong.empty() : OptionalLong.of(NumericKernels.max(array, array.length));
+		}
+
+		final long[] result = new long[1];
+		final boolean[] found = new boolean[1];
+		run((value) -> {
+			if (!found[0] || value > result[0]) {
+				result[0] = value;
+				found[0] = true;
+			}
+			return true;
+		});
+		return found[0] ? OptionalLong.of(result[0]) : OptionalLong.empty();
+	}
+
+	@Override
+	public OptionalLong min() {
+		if (pipeline == null) {
+			if (array == null) {
+				return range.isEmpty() ? OptionalLong.empty() : OptionalLong.of(range.min());
+			}
+			return (array.length == 0) ? OptionalLong.empty() : OptionalLong.of(NumericKernels.min(array, array.length));
+		}
+
+		final long[] result = new long[1];
+		final boolean[] found = new boolean[1];
+		run((value) -> {
+			if (!found[0] || value < result[0]) {
+				result[0] = value;
+				found[0] = true;
+			}
+			return true;
+		});
+		return found[0] ? OptionalLong.of(result[0]) : OptionalLong.empty();
+	}
+
+	@Override
+	public long reduce(final LongBinaryOperator iterator, final long memo) {
+		final long[] result = { memo };
+		run((value) -> {
+			result[0] = iterator.applyAsLong(value, result[0]);
+			return true;
+		});
+		return result[0];
+	}
+
+	@Override
+	public LongArrayChain shuffle() {
+		_.shuffle(writable());
+		return this;
+	}
+
+	@Override
+	public int sortedIndex(final long value) {
+		return _.sortedIndex(materialize(), value);
+	}
+
+	@Override
+	public LongArrayChain sortedInsert(final long... values) {
+		array = _.sortedInsert(materialize(), values);
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public LongArrayChain sort() {
+		Arrays.sort(writable());
+		return this;
+	}
+
+	@Override
+	public long sum() {
+		if (pipeline == null) {
+			return (array == null) ? range.sum() : NumericKernels.sum(array, array.length);
+		}
+
+		final long[] sum = new long[1];
+		run((value) -> {
+			sum[0] += value;
+			return true;
+		});
+		return sum[0];
+	}
+
+	@Override
+	public LongArrayChain tap(final Consumer<long[]> interceptor) {
+		_.tap(value(), interceptor);
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(value());
+	}
+
+	@Override
+	public LongArrayChain unique() {
+		return then((sink) -> {
+			final LongSet seen = new LongSet();
+			return (value) -> !seen.add(value) || sink.test(value);
+		});
+	}
+
+	@Override
+	public long[] value() {
+		materialize();
+		shared = true;
+		return array;
+	}
+
+	@Override
+	public LongArrayChain without(final long... values) {
+		if (values == null || values.length == 0) {
+			return this;
+		}
+
+		final LongSet excluded = LongSet.of(values);
+		return filter((value) -> !excluded.contains(value));
+	}
+}
@@ -0,0 +1,271 @@
+package com.underscore.chain.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+import com.underscore._;
+import com.underscore.chain.ArrayChain;
+import com.underscore.chain.LongArrayChain;
+import com.underscore.chain.LongSet;
+
+public class LongArrayChainImpl implements LongArrayChain {
+
+	private long[] array;
+
+	private int size;
+
+	/*
+	 * Whether array is still visible to the caller (the constructor argument,
+	 * or an array handed out by value()), in which case it is copied before
+	 * being written to.
+	 */
+	private boolean shared;
+
+	public LongArrayChainImpl(final long[] array) {
+		Objects.requireNonNull(array);
+
+		this.array = array;
+		this.size = array.length;
+		this.shared = true;
+	}
+
+	private long[] writable() {
+		if (shared) {
+			array = Arrays.copyOf(array, size);
+			shared = false;
+		}
+		return array;
+	}
+
+	@Override
+	public ArrayChain<Long> boxed() {
+		return new LongChainImpl(value());
+	}
+
+	@Override
+	public boolean contains(final long value, final boolean isSorted) {
+		return indexOf(value, isSorted) >= 0;
+	}
+
+	@Override
+	public long count() {
+		return size;
+	}
+
+	@Override
+	public long countBetween(final long min, final long max) {
+		return NumericKernels.countBetween(array, size, min, max);
+	}
+
+	@Override
+	public long dot(final long[] other) {
+		Objects.requireNonNull(other);
+		if (other.length != size) {
+			throw new IllegalArgumentException("Length mismatch: " + size + " and " + other.length);
+		}
+
+		return NumericKernels.dot(array, other, size);
+	}
+
+	@Override
+	public LongArrayChain each(final LongConsumer iterator) {
+		final long[] array = this.array;
+		for (int i = 0; i < size; ++i) {
+			iterator.accept(array[i]);
+		}
+		return this;
+	}
+
+	@Override
+	public LongArrayChain filter(final LongPredicate predicate) {
+		final long[] source = array;
+		final long[] results = shared ? new long[size] : source;
+		int length = 0;
+		for (int i = 0; i < size; ++i) {
+			final long value = source[i];
+			if (predicate.test(value)) {
+				results[length++] = value;
+			}
+		}
+		array = results;
+		size = length;
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public OptionalLong find(final LongPredicate predicate) {
+		final long[] array = this.array;
+		for (int i = 0; i < size; ++i) {
+			if (predicate.test(array[i])) {
+				return OptionalLong.of(array[i]);
+			}
+		}
+		return OptionalLong.empty();
+	}
+
+	@Override
+	public int indexOf(final long value, final boolean isSorted) {
+		if (isSorted) {
+			final int index = _.sortedIndex(array, 0, size, value);
+			return (index < size && array[index] == value) ? index : -1;
+		}
+
+		for (int i = 0; i < size; ++i) {
+			if (array[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String join(final String delimiter) {
+		if (size == 0) {
+			return "";
+		}
+
+		final StringBuilder builder = new StringBuilder();
+		builder.append(array[0]);
+		for (int i = 1; i < size; ++i) {
+			if (delimiter != null) {
+				builder.append(delimiter);
+			}
+			builder.append(array[i]);
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public LongArrayChain lazy() {
+		return new LazyLongArrayChainImpl(value());
+	}
+
+	@Override
+	public LongArrayChain map(final LongUnaryOperator iterator) {
+		final long[] source = array;
+		final long[] results = shared ? new long[size] : source;
+		for (int i = 0; i < size; ++i) {
+			results[i] = iterator.applyAsLong(source[i]);
+		}
+		array = results;
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public OptionalLong max() {
+		if (size == 0) {
+			return OptionalLong.empty();
+		}
+
+		return OptionalLong.of(NumericKernels.max(array, size));
+	}
+
+	@Override
+	public OptionalLong min() {
+		if (size == 0) {
+			return OptionalLong.empty();
+		}
+
+		return OptionalLong.of(NumericKernels.min(array, size));
+	}
+
+	@Override
+	public long reduce(final LongBinaryOperator iterator, long memo) {
+		final long[] array = this.array;
+		for (int i = 0; i < size; ++i) {
+			memo = iterator.applyAsLong(array[i], memo);
+		}
+		return memo;
+	}
+
+	@Override
+	public LongArrayChain shuffle() {
+		_.shuffle(writable(), 0, size, new SplittableRandom()::nextInt);
+		return this;
+	}
+
+	@Override
+	public int sortedIndex(final long value) {
+		return _.sortedIndex(array, 0, size, value);
+	}
+
+	@Override
+	public LongArrayChain sortedInsert(final long... values) {
+		array = _.sortedInsert((size == array.length) ? array : Arrays.copyOf(array, size), values);
+		size = array.length;
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public LongArrayChain sort() {
+		Arrays.sort(writable(), 0, size);
+		return this;
+	}
+
+	@Override
+	public long sum() {
+		return NumericKernels.sum(array, size);
+	}
+
+	@Override
+	public LongArrayChain tap(final Consumer<long[]> interceptor) {
+		_.tap(value(), interceptor);
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(value());
+	}
+
+	@Override
+	public LongArrayChain unique() {
+		final long[] distinct = Arrays.copyOf(array, size);
+		Arrays.sort(distinct);
+
+		int length = 0;
+		for (int i = 0; i < distinct.length; ++i) {
+			if (length == 0 || distinct[length - 1] != distinct[i]) {
+				distinct[length++] = distinct[i];
+			}
+		}
+
+		final boolean[] seen = new boolean[length];
+		return filter((value) -> {
+			final int index = Arrays.binarySearch(distinct, 0, seen.length, value);
+			if (seen[index]) {
+				return false;
+			}
+			return seen[index] = true;
+		});
+	}
+
+	@Override
+	public long[] value() {
+		if (size != array.length) {
+			array = Arrays.copyOf(array, size);
+		}
+		shared = true;
+		return array;
+	}
+
+	@Override
+	public LongArrayChain without(final long... values) {
+		if (values == null || values.length == 0) {
+			return this;
+		}
+
+		final LongSet excluded = LongSet.of(values);
+		return filter((value) -> !excluded.contains(value));
+	}
+}
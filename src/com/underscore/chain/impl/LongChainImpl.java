@@ -1,5 +1,8 @@
 package com.underscore.chain.impl;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
@@ -8,6 +11,8 @@ import java.util.function.Predicate;
 
 import com.underscore._;
 import com.underscore.chain.ArrayChain;
+import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
 
 public class LongChainImpl implements ArrayChain<Long> {
 
@@ -32,6 +37,11 @@ public class LongChainImpl implements ArrayChain<Long> {
 	public long count() {
 		return array.length;
 	}
+	
+	@Override
+	public <K> ObjectIntMap<K> countBy(final Function<? super Long, ? extends K> iterator) {
+		return _.countBy(array, iterator);
+	}
 
 	@Override
 	public ArrayChain<Long> each(Consumer<Long> iterator) {
@@ -50,11 +60,31 @@ public class LongChainImpl implements ArrayChain<Long> {
 		return _.find(array, predicate);
 	}
 
+	@Override
+	public <K> MapChain<K, List<Long>> groupBy(final Function<? super Long, ? extends K> iterator) {
+		return new MapChainImpl<>(_.groupBy(array, iterator));
+	}
+
+	@Override
+	public <K> MapChain<K, Long> indexBy(final Function<? super Long, ? extends K> iterator) {
+		return new MapChainImpl<>(_.indexBy(array, iterator));
+	}
+
 	@Override
 	public String join(String delimiter) {
 		return _.join(array, delimiter);
 	}
 
+	@Override
+	public <A extends Appendable> A join(String delimiter, A out) throws IOException {
+		return _.join(array, delimiter, out);
+	}
+
+	@Override
+	public ArrayChain<Long> lazy() {
+		return new LazyArrayChainImpl<>(array, (a, b) -> a + b, 0l);
+	}
+
 	@Override
 	public ArrayChain<Long> map(Function<Long, Long> iterator) {
 		array = _.map(array, iterator);
@@ -63,12 +93,14 @@ public class LongChainImpl implements ArrayChain<Long> {
 
 	@Override
 	public Long max() {
-		return _.max(array, _.identity());
+		final long[] values = unboxed();
+		return (values.length == 0) ? null : NumericKernels.max(values, values.length);
 	}
 
 	@Override
 	public Long min() {
-		return _.min(array, _.identity());
+		final long[] values = unboxed();
+		return (values.length == 0) ? null : NumericKernels.min(values, values.length);
 	}
 
 	@Override
@@ -90,7 +122,8 @@ public class LongChainImpl implements ArrayChain<Long> {
 
 	@Override
 	public Long sum() {
-		return reduce((a, b) -> a + b, 0l);
+		final long[] values = unboxed();
+		return NumericKernels.sum(values, values.length);
 	}
 
 	@Override
@@ -99,6 +132,20 @@ public class LongChainImpl implements ArrayChain<Long> {
 		return this;
 	}
 
+	/*
+	 * The elements that are not null, unboxed for the NumericKernels.
+	 */
+	private long[] unboxed() {
+		final long[] values = new long[array.length];
+		int length = 0;
+		for (Long value : array) {
+			if (value != null) {
+				values[length++] = value;
+			}
+		}
+		return (length == values.length) ? values : Arrays.copyOf(values, length);
+	}
+
 	@Override
 	public Long[] value() {
 		return array;
@@ -106,13 +153,13 @@ public class LongChainImpl implements ArrayChain<Long> {
 
 	@Override
 	public ArrayChain<Long> unique() {
-		// TODO Auto-generated method stub
-		return null;
+		array = _.unique(array);
+		return this;
 	}
 
 	@Override
 	public ArrayChain<Long> without(Long... values) {
-		// TODO Auto-generated method stub
-		return null;
+		array = _.without(array, values);
+		return this;
 	}
 }
@@ -0,0 +1,127 @@
+package com.underscore.chain.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import com.underscore._;
+import com.underscore.chain.CollectionChain;
+import com.underscore.chain.DoubleArrayChain;
+import com.underscore.chain.LongArrayChain;
+import com.underscore.chain.LongDoubleMap;
+import com.underscore.chain.LongDoubleMapChain;
+
+public class LongDoubleMapChainImpl implements LongDoubleMapChain {
+
+	private LongDoubleMap map;
+
+	/*
+	 * Whether map is still visible to the caller (the constructor argument, or
+	 * a map handed out by value()), in which case it is copied before being
+	 * written to.
+	 */
+	private boolean shared;
+
+	public LongDoubleMapChainImpl(final LongDoubleMap map) {
+		Objects.requireNonNull(map);
+
+		this.map = map;
+		this.shared = true;
+	}
+
+	@Override
+	public long count() {
+		return map.size();
+	}
+
+	@Override
+	public LongDoubleMapChain each(final LongDoubleMap.EntryConsumer iterator) {
+		map.forEach(iterator);
+		return this;
+	}
+
+	@Override
+	public String join(final String delimiter) {
+		final StringBuilder builder = new StringBuilder();
+		final boolean[] first = { true };
+		map.forEach((key, value) -> {
+			if (!first[0]) {
+				builder.append(delimiter);
+			}
+			builder.append(key).append('=').append(value);
+			first[0] = false;
+		});
+		return builder.toString();
+	}
+
+	@Override
+	public LongArrayChain keys() {
+		return new LongArrayChainImpl(map.keys());
+	}
+
+	@Override
+	public <R> CollectionChain<R> map(final LongDoubleMap.EntryFunction<R> iterator) {
+		return toList(iterator);
+	}
+
+	@Override
+	public LongDoubleMapChain omit(final long... keys) {
+		if (keys == null || keys.length == 0) {
+			return this;
+		}
+
+		if (shared) {
+			map = map.copy();
+			shared = false;
+		}
+		for (final long key : keys) {
+			map.remove(key);
+		}
+		return this;
+	}
+
+	@Override
+	public LongDoubleMapChain pick(final long... keys) {
+		final LongDoubleMap results = new LongDoubleMap((keys == null) ? 0 : Math.min(keys.length, map.size()));
+		if (keys != null) {
+			for (final long key : keys) {
+				if (map.containsKey(key)) {
+					results.put(key, map.getOrDefault(key, 0));
+				}
+			}
+		}
+		map = results;
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public LongDoubleMapChain tap(final Consumer<LongDoubleMap> interceptor) {
+		_.tap(value(), interceptor);
+		return this;
+	}
+
+	@Override
+	public <E> CollectionChain<E> toList(final LongDoubleMap.EntryFunction<? extends E> mapEntryIterator) {
+		final List<E> results = new ArrayList<>(map.size());
+		map.forEach((key, value) -> results.add(mapEntryIterator.apply(key, value)));
+		return new CollectionChainImpl<>(results);
+	}
+
+	@Override
+	public String toString() {
+		return map.toString();
+	}
+
+	@Override
+	public LongDoubleMap value() {
+		shared = true;
+		return map;
+	}
+
+	@Override
+	public DoubleArrayChain values() {
+		return new DoubleArrayChainImpl(map.values());
+	}
+}
@@ -0,0 +1,126 @@
+package com.underscore.chain.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import com.underscore._;
+import com.underscore.chain.CollectionChain;
+import com.underscore.chain.LongArrayChain;
+import com.underscore.chain.LongObjectMap;
+import com.underscore.chain.LongObjectMapChain;
+
+public class LongObjectMapChainImpl<V> implements LongObjectMapChain<V> {
+
+	private LongObjectMap<V> map;
+
+	/*
+	 * Whether map is still visible to the caller (the constructor argument, or
+	 * a map handed out by value()), in which case it is copied before being
+	 * written to.
+	 */
+	private boolean shared;
+
+	public LongObjectMapChainImpl(final LongObjectMap<V> map) {
+		Objects.requireNonNull(map);
+
+		this.map = map;
+		this.shared = true;
+	}
+
+	@Override
+	public long count() {
+		return map.size();
+	}
+
+	@Override
+	public LongObjectMapChain<V> each(final LongObjectMap.EntryConsumer<? super V> iterator) {
+		map.forEach(iterator);
+		return this;
+	}
+
+	@Override
+	public String join(final String delimiter) {
+		final StringBuilder builder = new StringBuilder();
+		final boolean[] first = { true };
+		map.forEach((key, value) -> {
+			if (!first[0]) {
+				builder.append(delimiter);
+			}
+			builder.append(key).append('=').append(value);
+			first[0] = false;
+		});
+		return builder.toString();
+	}
+
+	@Override
+	public LongArrayChain keys() {
+		return new LongArrayChainImpl(map.keys());
+	}
+
+	@Override
+	public <R> CollectionChain<R> map(final LongObjectMap.EntryFunction<? super V, R> iterator) {
+		return toList(iterator);
+	}
+
+	@Override
+	public LongObjectMapChain<V> omit(final long... keys) {
+		if (keys == null || keys.length == 0) {
+			return this;
+		}
+
+		if (shared) {
+			map = map.copy();
+			shared = false;
+		}
+		for (final long key : keys) {
+			map.remove(key);
+		}
+		return this;
+	}
+
+	@Override
+	public LongObjectMapChain<V> pick(final long... keys) {
+		final LongObjectMap<V> results = new LongObjectMap<>((keys == null) ? 0 : Math.min(keys.length, map.size()));
+		if (keys != null) {
+			for (final long key : keys) {
+				if (map.containsKey(key)) {
+					results.put(key, map.get(key));
+				}
+			}
+		}
+		map = results;
+		shared = false;
+		return this;
+	}
+
+	@Override
+	public LongObjectMapChain<V> tap(final Consumer<LongObjectMap<V>> interceptor) {
+		_.tap(value(), interceptor);
+		return this;
+	}
+
+	@Override
+	public <E> CollectionChain<E> toList(final LongObjectMap.EntryFunction<? super V, ? extends E> mapEntryIterator) {
+		final List<E> results = new ArrayList<>(map.size());
+		map.forEach((key, value) -> results.add(mapEntryIterator.apply(key, value)));
+		return new CollectionChainImpl<>(results);
+	}
+
+	@Override
+	public String toString() {
+		return map.toString();
+	}
+
+	@Override
+	public LongObjectMap<V> value() {
+		shared = true;
+		return map;
+	}
+
+	@Override
+	public CollectionChain<V> values() {
+		return new CollectionChainImpl<>(map.values());
+	}
+}
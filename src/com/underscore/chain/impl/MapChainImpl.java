@@ -1,5 +1,6 @@
 package com.underscore.chain.impl;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +36,11 @@ public class MapChainImpl<K, V> implements MapChain<K, V> {
 		return _.join(map, delimiter);
 	}
 
+	@Override
+	public <A extends Appendable> A join(String delimiter, A out) throws IOException {
+		return _.join(map, delimiter, out);
+	}
+
 	@Override
 	public CollectionChain<K> keys() {
 		return new CollectionChainImpl<>(map.keySet());
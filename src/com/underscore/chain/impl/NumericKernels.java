@@ -0,0 +1,100 @@
+package com.underscore.chain.impl;
+
+/**
+ * The aggregate kernels used by the primitive array chains. This version
+ * always runs {@link ScalarKernels}; the library jar also carries a Java 17
+ * version of this class, which uses the Vector API kernels when the
+ * {@code jdk.incubator.vector} module is present.
+ */
+final class NumericKernels {
+
+	private NumericKernels() { }
+
+	/*
+	 * int
+	 */
+
+	static long sum(final int[] array, final int length) {
+		return ScalarKernels.sum(array, length);
+	}
+
+	static int min(final int[] array, final int length) {
+		return ScalarKernels.min(array, length);
+	}
+
+	static int max(final int[] array, final int length) {
+		return ScalarKernels.max(array, length);
+	}
+
+	static long countBetween(final int[] array, final int length, final int min, final int max) {
+		return ScalarKernels.countBetween(array, length, min, max);
+	}
+
+	static long dot(final int[] a, final int[] b, final int length) {
+		return ScalarKernels.dot(a, b, length);
+	}
+
+	/*
+	 * long
+	 */
+
+	static long sum(final long[] array, final int length) {
+		return ScalarKernels.sum(array, length);
+	}
+
+	static long min(final long[] array, final int length) {
+		return ScalarKernels.min(array, length);
+	}
+
+	static long max(final long[] array, final int length) {
+		return ScalarKernels.max(array, length);
+	}
+
+	static long countBetween(final long[] array, final int length, final long min, final long max) {
+		return ScalarKernels.countBetween(array, length, min, max);
+	}
+
+	static long dot(final long[] a, final long[] b, final int length) {
+		return ScalarKernels.dot(a, b, length);
+	}
+
+	/*
+	 * float
+	 */
+
+	static float sum(final float[] array, final int length) {
+		return ScalarKernels.sum(array, length);
+	}
+
+	static float min(final float[] array, final int length) {
+		return ScalarKernels.min(array, length);
+	}
+
+	static float max(final float[] array, final int length) {
+		return ScalarKernels.max(array, length);
+	}
+
+	/*
+	 * double
+	 */
+
+	static double sum(final double[] array, final int length) {
+		return ScalarKernels.sum(array, length);
+	}
+
+	static double min(final double[] array, final int length) {
+		return ScalarKernels.min(array, length);
+	}
+
+	static double max(final double[] array, final int length) {
+		return ScalarKernels.max(array, length);
+	}
+
+	static long countBetween(final double[] array, final int length, final double min, final double max) {
+		return ScalarKernels.countBetween(array, length, min, max);
+	}
+
+	static double dot(final double[] a, final double[] b, final int length) {
+		return ScalarKernels.dot(a, b, length);
+	}
+}
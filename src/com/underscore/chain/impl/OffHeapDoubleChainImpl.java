@@ -0,0 +1,109 @@
+package com.underscore.chain.impl;
+
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+import com.underscore.chain.DirectDoubleArray;
+import com.underscore.chain.OffHeapDoubleChain;
+
+public class OffHeapDoubleChainImpl implements OffHeapDoubleChain {
+
+	private DirectDoubleArray array;
+
+	/*
+	 * Whether array is still visible to the caller (the constructor argument,
+	 * or an array handed out by value()), in which case it is copied before
+	 * being written to.
+	 */
+	private boolean shared;
+
+	public OffHeapDoubleChainImpl(final DirectDoubleArray array) {
+		Objects.requireNonNull(array);
+
+		this.array = array;
+		this.shared = true;
+	}
+
+	private DirectDoubleArray writable() {
+		if (shared) {
+			array = array.copy();
+			shared = false;
+		}
+		return array;
+	}
+
+	@Override
+	public long count() {
+		return array.length();
+	}
+
+	@Override
+	public OffHeapDoubleChain each(final DoubleConsumer iterator) {
+		array.forEach(iterator);
+		return this;
+	}
+
+	@Override
+	public OffHeapDoubleChain filter(final DoublePredicate predicate) {
+		if (shared) {
+			array = array.copyIf(predicate);
+			shared = false;
+		} else {
+			array.retainIf(predicate);
+		}
+		return this;
+	}
+
+	@Override
+	public OptionalDouble find(final DoublePredicate predicate) {
+		final long index = array.indexOf(predicate);
+		return (index < 0) ? OptionalDouble.empty() : OptionalDouble.of(array.get(index));
+	}
+
+	@Override
+	public OffHeapDoubleChain map(final DoubleUnaryOperator iterator) {
+		writable().replaceAll(iterator);
+		return this;
+	}
+
+	@Override
+	public OptionalDouble max() {
+		if (array.length() == 0) {
+			return OptionalDouble.empty();
+		}
+		return OptionalDouble.of(array.reduce(Math::max, array.get(0)));
+	}
+
+	@Override
+	public OptionalDouble min() {
+		if (array.length() == 0) {
+			return OptionalDouble.empty();
+		}
+		return OptionalDouble.of(array.reduce(Math::min, array.get(0)));
+	}
+
+	@Override
+	public double reduce(final DoubleBinaryOperator iterator, final double memo) {
+		return array.reduce(iterator, memo);
+	}
+
+	@Override
+	public double sum() {
+		return array.reduce((value, memo) -> value + memo, 0);
+	}
+
+	@Override
+	public String toString() {
+		return "OffHeapDoubleChain[" + array.length() + "]";
+	}
+
+	@Override
+	public DirectDoubleArray value() {
+		shared = true;
+		return array;
+	}
+}
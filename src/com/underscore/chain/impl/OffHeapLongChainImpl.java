@@ -0,0 +1,109 @@
+package com.underscore.chain.impl;
+
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+import com.underscore.chain.DirectLongArray;
+import com.underscore.chain.OffHeapLongChain;
+
+public class OffHeapLongChainImpl implements OffHeapLongChain {
+
+	private DirectLongArray array;
+
+	/*
+	 * Whether array is still visible to the caller (the constructor argument,
+	 * or an array handed out by value()), in which case it is copied before
+	 * being written to.
+	 */
+	private boolean shared;
+
+	public OffHeapLongChainImpl(final DirectLongArray array) {
+		Objects.requireNonNull(array);
+
+		this.array = array;
+		this.shared = true;
+	}
+
+	private DirectLongArray writable() {
+		if (shared) {
+			array = array.copy();
+			shared = false;
+		}
+		return array;
+	}
+
+	@Override
+	public long count() {
+		return array.length();
+	}
+
+	@Override
+	public OffHeapLongChain each(final LongConsumer iterator) {
+		array.forEach(iterator);
+		return this;
+	}
+
+	@Override
+	public OffHeapLongChain filter(final LongPredicate predicate) {
+		if (shared) {
+			array = array.copyIf(predicate);
+			shared = false;
+		} else {
+			array.retainIf(predicate);
+		}
+		return this;
+	}
+
+	@Override
+	public OptionalLong find(final LongPredicate predicate) {
+		final long index = array.indexOf(predicate);
+		return (index < 0) ? OptionalLong.empty() : OptionalLong.of(array.get(index));
+	}
+
+	@Override
+	public OffHeapLongChain map(final LongUnaryOperator iterator) {
+		writable().replaceAll(iterator);
+		return this;
+	}
+
+	@Override
+	public OptionalLong max() {
+		if (array.length() == 0) {
+			return OptionalLong.empty();
+		}
+		return OptionalLong.of(array.reduce(Math::max, array.get(0)));
+	}
+
+	@Override
+	public OptionalLong min() {
+		if (array.length() == 0) {
+			return OptionalLong.empty();
+		}
+		return OptionalLong.of(array.reduce(Math::min, array.get(0)));
+	}
+
+	@Override
+	public long reduce(final LongBinaryOperator iterator, final long memo) {
+		return array.reduce(iterator, memo);
+	}
+
+	@Override
+	public long sum() {
+		return array.reduce((value, memo) -> value + memo, 0);
+	}
+
+	@Override
+	public String toString() {
+		return "OffHeapLongChain[" + array.length() + "]";
+	}
+
+	@Override
+	public DirectLongArray value() {
+		shared = true;
+		return array;
+	}
+}
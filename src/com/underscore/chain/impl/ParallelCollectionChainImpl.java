@@ -0,0 +1,583 @@
+package com.underscore.chain.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import com.underscore._;
+import com.underscore.chain.AsyncCollectionChain;
+import com.underscore.chain.CollectionChain;
+import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
+import com.underscore.chain.ParallelCollectionChain;
+
+public class ParallelCollectionChainImpl<E> implements ParallelCollectionChain<E> {
+
+	/*
+	 * How many parts each worker thread of the pool gets, so that a slow part
+	 * does not leave the other workers idle.
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private static final int NOT_FOUND = Integer.MAX_VALUE;
+
+	private Object[] array;
+
+	private ForkJoinPool pool;
+
+	private boolean ordered = true;
+
+	public ParallelCollectionChainImpl(final Collection<E> collection) {
+		this(collection, ForkJoinPool.commonPool());
+	}
+
+	public ParallelCollectionChainImpl(final Collection<E> collection, final ForkJoinPool pool) {
+		Objects.requireNonNull(collection);
+		Objects.requireNonNull(pool);
+
+		this.array = collection.toArray();
+		this.pool = pool;
+	}
+
+	private ParallelCollectionChainImpl(final Object[] array, final ForkJoinPool pool, final boolean ordered) {
+		this.array = array;
+		this.pool = pool;
+		this.ordered = ordered;
+	}
+
+	@SuppressWarnings("unchecked")
+	private E get(final int index) {
+		return (E) array[index];
+	}
+
+	@SuppressWarnings("unchecked")
+	private E[] elements() {
+		return (E[]) array;
+	}
+
+	/*
+	 * Splits the array into parts and runs leaf on each of them in the pool.
+	 * The results are returned in the order of the parts.
+	 */
+	private <R> List<R> split(final Leaf<R> leaf) {
+		final int length = array.length;
+		final int chunks = Math.max(1, Math.min(length, pool.getParallelism() * CHUNKS_PER_THREAD));
+		final Object[] results = new Object[chunks];
+		pool.invoke(new ChunkAction(0, chunks, (chunk) -> {
+			final int from = (int) ((long) chunk * length / chunks);
+			final int to = (int) ((long) (chunk + 1) * length / chunks);
+			results[chunk] = leaf.apply(chunk, from, to);
+		}));
+
+		@SuppressWarnings("unchecked")
+		final List<R> list = (List<R>) Arrays.asList(results);
+		return list;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<Object, Object> asMap(final Object value) {
+		return (Map<Object, Object>) value;
+	}
+
+	@Override
+	public boolean any(final Predicate<E> predicate) {
+		final AtomicBoolean found = new AtomicBoolean();
+		split((chunk, from, to) -> {
+			for (int i = from; i < to && !found.get(); ++i) {
+				if (predicate.test(get(i))) {
+					found.set(true);
+				}
+			}
+			return null;
+		});
+		return found.get();
+	}
+
+	@Override
+	public AsyncCollectionChain<E> async(final int maxConcurrency) {
+		return new AsyncCollectionChainImpl<E>(Arrays.asList(elements()), maxConcurrency);
+	}
+
+	@Override
+	public long count() {
+		return array.length;
+	}
+
+	@Override
+	public <K> ObjectIntMap<K> countBy(final Function<? super E, ? extends K> iterator) {
+		final List<ObjectIntMap<K>> parts = split((chunk, from, to) -> {
+			final ObjectIntMap<K> results = new ObjectIntMap<>();
+			for (int i = from; i < to; ++i) {
+				results.addTo(iterator.apply(get(i)), 1);
+			}
+			return results;
+		});
+
+		final ObjectIntMap<K> results = parts.get(0);
+		for (int i = 1; i < parts.size(); ++i) {
+			results.addAll(parts.get(i));
+		}
+		return results;
+	}
+
+	@Override
+	public ParallelCollectionChain<E> each(final Consumer<E> iterator) {
+		split((chunk, from, to) -> {
+			for (int i = from; i < to; ++i) {
+				iterator.accept(get(i));
+			}
+			return null;
+		});
+		return this;
+	}
+
+	@Override
+	public boolean every(final Predicate<E> predicate) {
+		return !any(predicate.negate());
+	}
+
+	@Override
+	public ParallelCollectionChain<E> filter(final Predicate<E> predicate) {
+		final List<List<E>> parts = split((chunk, from, to) -> {
+			final List<E> results = new ArrayList<>();
+			for (int i = from; i < to; ++i) {
+				final E value = get(i);
+				if (predicate.test(value)) {
+					results.add(value);
+				}
+			}
+			return results;
+		});
+
+		int length = 0;
+		for (List<E> part : parts) {
+			length += part.size();
+		}
+		final Object[] results = new Object[length];
+		int index = 0;
+		for (List<E> part : parts) {
+			for (E value : part) {
+				results[index++] = value;
+			}
+		}
+		array = results;
+		return this;
+	}
+
+	@Override
+	public E find(final Predicate<E> predicate) {
+		final AtomicInteger best = new AtomicInteger(NOT_FOUND);
+		final List<E> parts = split((chunk, from, to) -> {
+			for (int i = from; i < to; ++i) {
+				final int current = best.get();
+				if (ordered ? chunk > current : current != NOT_FOUND) {
+					break;
+				}
+				final E value = get(i);
+				if (predicate.test(value)) {
+					best.accumulateAndGet(chunk, Math::min);
+					return value;
+				}
+			}
+			return null;
+		});
+
+		final int chunk = best.get();
+		return (chunk == NOT_FOUND) ? null : parts.get(chunk);
+	}
+
+	@Override
+	public E findWhere(final Map<?, ?> attrs) {
+		final Predicate<Map<Object, Object>> matcher = _.matches(attrs);
+		return find((value) -> matcher.test(asMap(value)));
+	}
+
+	@Override
+	public ParallelCollectionChain<E> first(final int n) {
+		array = Arrays.copyOf(array, Math.max(0, Math.min(n, array.length)));
+		return this;
+	}
+
+	@Override
+	public ParallelCollectionChain<Object> flatten() {
+		return flatten(Integer.MAX_VALUE);
+	}
+
+	@Override
+	public ParallelCollectionChain<Object> flatten(final int depth) {
+		return new ParallelCollectionChainImpl<Object>(_.flatten(array, depth).toArray(), pool, ordered);
+	}
+
+	/*
+	 * Each part is grouped on its own and the groups are appended in the
+	 * order of the parts, so the keys are in the order they were first seen.
+	 */
+	@Override
+	public <K> MapChain<K, List<E>> groupBy(final Function<? super E, ? extends K> iterator) {
+		final List<Map<K, List<E>>> parts = split((chunk, from, to) -> {
+			@SuppressWarnings("unchecked")
+			final List<E> part = (List<E>) Arrays.asList(array).subList(from, to);
+			return _.groupBy(part, iterator);
+		});
+		if (parts.size() == 1) {
+			return new MapChainImpl<>(parts.get(0));
+		}
+
+		final Map<K, List<E>> results = new LinkedHashMap<>();
+		for (Map<K, List<E>> part : parts) {
+			part.forEach((key, group) -> results.computeIfAbsent(key, (k) -> new ArrayList<>()).addAll(group));
+		}
+		return new MapChainImpl<>(results);
+	}
+
+	@Override
+	public <K> MapChain<K, E> indexBy(final Function<? super E, ? extends K> iterator) {
+		final List<Map<K, E>> parts = split((chunk, from, to) -> {
+			final Map<K, E> results = new LinkedHashMap<>();
+			for (int i = from; i < to; ++i) {
+				final E value = get(i);
+				results.put(iterator.apply(value), value);
+			}
+			return results;
+		});
+
+		final Map<K, E> results = parts.get(0);
+		for (int i = 1; i < parts.size(); ++i) {
+			results.putAll(parts.get(i));
+		}
+		return new MapChainImpl<>(results);
+	}
+
+	@Override
+	public String join(final String delimiter) {
+		return _.join(array, delimiter);
+	}
+
+	@Override
+	public <A extends Appendable> A join(final String delimiter, final A out) throws IOException {
+		return _.parallelJoin(array, delimiter, out, pool);
+	}
+
+	@Override
+	public CollectionChain<E> lazy() {
+		return new LazyCollectionChainImpl<>(value());
+	}
+
+	@Override
+	public <R> ParallelCollectionChain<R> map(final Function<E, R> iterator) {
+		final Object[] results = new Object[array.length];
+		split((chunk, from, to) -> {
+			for (int i = from; i < to; ++i) {
+				results[i] = iterator.apply(get(i));
+			}
+			return null;
+		});
+		return new ParallelCollectionChainImpl<R>(results, pool, ordered);
+	}
+
+	@Override
+	public E max(final Comparator<? super E> comp) {
+		return reduce((value, memo) -> {
+			if (value == null) return memo;
+			return (memo == null || comp.compare(value, memo) > 0) ? value : memo;
+		}, null);
+	}
+
+	@Override
+	public E min(final Comparator<? super E> comp) {
+		return reduce((value, memo) -> {
+			if (value == null) return memo;
+			return (memo == null || comp.compare(value, memo) < 0) ? value : memo;
+		}, null);
+	}
+
+	@Override
+	public ParallelCollectionChain<E> ordered() {
+		ordered = true;
+		return this;
+	}
+
+	@Override
+	public ParallelCollectionChain<E> parallel() {
+		return this;
+	}
+
+	@Override
+	public ParallelCollectionChain<E> parallel(final ForkJoinPool pool) {
+		Objects.requireNonNull(pool);
+		this.pool = pool;
+		return this;
+	}
+
+	@Override
+	public MapChain<Boolean, List<E>> partition(final Predicate<? super E> predicate) {
+		final List<List<List<E>>> parts = split((chunk, from, to) -> {
+			final List<E> passed = new ArrayList<>();
+			final List<E> failed = new ArrayList<>();
+			for (int i = from; i < to; ++i) {
+				final E value = get(i);
+				(predicate.test(value) ? passed : failed).add(value);
+			}
+			return Arrays.asList(passed, failed);
+		});
+
+		final List<E> passed = new ArrayList<>();
+		final List<E> failed = new ArrayList<>();
+		for (List<List<E>> part : parts) {
+			passed.addAll(part.get(0));
+			failed.addAll(part.get(1));
+		}
+
+		final Map<Boolean, List<E>> results = new HashMap<>();
+		results.put(true, passed);
+		results.put(false, failed);
+		return new MapChainImpl<>(results);
+	}
+
+	/*
+	 * Each part is reduced starting from its first element, so memo is only
+	 * applied once and does not need to be an identity for iterator.
+	 */
+	@Override
+	public E reduce(final BinaryOperator<E> iterator, E memo) {
+		final List<Object[]> parts = split((chunk, from, to) -> {
+			if (from == to) {
+				return null;
+			}
+			E result = get(from);
+			for (int i = from + 1; i < to; ++i) {
+				result = iterator.apply(get(i), result);
+			}
+			return new Object[] { result };
+		});
+
+		for (Object[] part : parts) {
+			if (part != null) {
+				@SuppressWarnings("unchecked")
+				final E partial = (E) part[0];
+				memo = iterator.apply(partial, memo);
+			}
+		}
+		return memo;
+	}
+
+	@Override
+	public <R> R reduce(final BiFunction<? super E, R, R> iterator, R memo) {
+		for (int i = 0; i < array.length; ++i) {
+			memo = iterator.apply(get(i), memo);
+		}
+		return memo;
+	}
+
+	@Override
+	public <R> R reduce(final BiFunction<? super E, R, R> iterator, final BinaryOperator<R> combiner, final R memo) {
+		final List<R> parts = split((chunk, from, to) -> {
+			R result = memo;
+			for (int i = from; i < to; ++i) {
+				result = iterator.apply(get(i), result);
+			}
+			return result;
+		});
+
+		R result = parts.get(0);
+		for (int i = 1; i < parts.size(); ++i) {
+			result = combiner.apply(parts.get(i), result);
+		}
+		return result;
+	}
+
+	@Override
+	public ParallelCollectionChain<E> shuffle() {
+		_.shuffle(array);
+		return this;
+	}
+
+	@Override
+	public ParallelCollectionChain<E> sort(final Comparator<? super E> comp) {
+		@SuppressWarnings("unchecked")
+		final E[] elements = (E[]) array;
+		_.sort(elements, comp);
+		return this;
+	}
+
+	@Override
+	public <U extends Comparable<? super U>> ParallelCollectionChain<E> sortBy(final Function<? super E, ? extends U> iterator) {
+		array = _.sortBy(elements(), iterator);
+		return this;
+	}
+
+	@Override
+	public ParallelCollectionChain<E> sortByDouble(final ToDoubleFunction<? super E> iterator) {
+		array = _.sortByDouble(elements(), iterator);
+		return this;
+	}
+
+	@Override
+	public ParallelCollectionChain<E> sortByInt(final ToIntFunction<? super E> iterator) {
+		array = _.sortByInt(elements(), iterator);
+		return this;
+	}
+
+	@Override
+	public ParallelCollectionChain<E> sortByLong(final ToLongFunction<? super E> iterator) {
+		array = _.sortByLong(elements(), iterator);
+		return this;
+	}
+
+	@Override
+	public ParallelCollectionChain<E> tap(final Consumer<Collection<E>> interceptor) {
+		_.tap(value(), interceptor);
+		return this;
+	}
+
+	@Override
+	public <K, V> MapChain<K, V> toMap(
+			final Function<? super E, ? extends K> keyMapIterator,
+			final Function<? super E, ? extends V> valueMapIterator) {
+		if (!ordered) {
+			final Map<K, V> results = new ConcurrentHashMap<>();
+			each((value) -> results.put(keyMapIterator.apply(value), valueMapIterator.apply(value)));
+			return new MapChainImpl<>(results);
+		}
+
+		final List<Map<K, V>> parts = split((chunk, from, to) -> {
+			final Map<K, V> results = new HashMap<>();
+			for (int i = from; i < to; ++i) {
+				final E value = get(i);
+				results.put(keyMapIterator.apply(value), valueMapIterator.apply(value));
+			}
+			return results;
+		});
+
+		final Map<K, V> results = new HashMap<>();
+		for (Map<K, V> part : parts) {
+			results.putAll(part);
+		}
+		return new MapChainImpl<>(results);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(array);
+	}
+
+	@Override
+	public ParallelCollectionChain<E> unique() {
+		if (!ordered) {
+			final Set<Object> seen = ConcurrentHashMap.newKeySet();
+			final AtomicBoolean sawNull = new AtomicBoolean();
+			each((value) -> {
+				if (value == null) {
+					sawNull.set(true);
+				} else {
+					seen.add(value);
+				}
+			});
+
+			final Object[] results = seen.toArray();
+			array = sawNull.get() ? Arrays.copyOf(results, results.length + 1) : results;
+			return this;
+		}
+
+		final List<Set<E>> parts = split((chunk, from, to) -> {
+			final Set<E> results = new LinkedHashSet<>();
+			for (int i = from; i < to; ++i) {
+				results.add(get(i));
+			}
+			return results;
+		});
+
+		final Set<E> results = new LinkedHashSet<>();
+		for (Set<E> part : parts) {
+			results.addAll(part);
+		}
+		array = results.toArray();
+		return this;
+	}
+
+	@Override
+	public ParallelCollectionChain<E> unordered() {
+		ordered = false;
+		return this;
+	}
+
+	@Override
+	public Collection<E> value() {
+		@SuppressWarnings("unchecked")
+		final List<E> list = (List<E>) Arrays.asList(array);
+		return list;
+	}
+
+	@Override
+	public ParallelCollectionChain<E> where(final Map<?, ?> attrs) {
+		final Predicate<Map<Object, Object>> matcher = _.matches(attrs);
+		return filter((value) -> matcher.test(asMap(value)));
+	}
+
+	@Override
+	public ParallelCollectionChain<E> without(final E... values) {
+		if (values == null || values.length == 0) {
+			return this;
+		}
+
+		final Set<E> excluded = new HashSet<>(values.length);
+		Collections.addAll(excluded, values);
+		return filter((value) -> !excluded.contains(value));
+	}
+
+	private interface Leaf<R> {
+		R apply(int chunk, int from, int to);
+	}
+
+	private static final class ChunkAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+
+		private final int to;
+
+		private final IntConsumer body;
+
+		ChunkAction(final int from, final int to, final IntConsumer body) {
+			this.from = from;
+			this.to = to;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				body.accept(from);
+				return;
+			}
+			final int mid = (from + to) >>> 1;
+			invokeAll(new ChunkAction(from, mid, body), new ChunkAction(mid, to, body));
+		}
+	}
+}
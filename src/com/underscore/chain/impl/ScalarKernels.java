@@ -0,0 +1,281 @@
+package com.underscore.chain.impl;
+
+/**
+ * Aggregates over the first {@code length} elements of a primitive array.
+ * The loops keep four independent accumulators so that consecutive
+ * iterations do not wait on each other, which also lets the JIT compiler
+ * vectorize them. {@link NumericKernels} dispatches here when the Vector API
+ * is not available.
+ */
+final class ScalarKernels {
+
+	private ScalarKernels() { }
+
+	/*
+	 * int
+	 */
+
+	static long sum(final int[] array, final int length) {
+		long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			s0 += array[i];
+			s1 += array[i + 1];
+			s2 += array[i + 2];
+			s3 += array[i + 3];
+		}
+		for (; i < length; ++i) {
+			s0 += array[i];
+		}
+		return s0 + s1 + s2 + s3;
+	}
+
+	static int min(final int[] array, final int length) {
+		int m0 = Integer.MAX_VALUE, m1 = m0, m2 = m0, m3 = m0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			m0 = Math.min(m0, array[i]);
+			m1 = Math.min(m1, array[i + 1]);
+			m2 = Math.min(m2, array[i + 2]);
+			m3 = Math.min(m3, array[i + 3]);
+		}
+		for (; i < length; ++i) {
+			m0 = Math.min(m0, array[i]);
+		}
+		return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+	}
+
+	static int max(final int[] array, final int length) {
+		int m0 = Integer.MIN_VALUE, m1 = m0, m2 = m0, m3 = m0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			m0 = Math.max(m0, array[i]);
+			m1 = Math.max(m1, array[i + 1]);
+			m2 = Math.max(m2, array[i + 2]);
+			m3 = Math.max(m3, array[i + 3]);
+		}
+		for (; i < length; ++i) {
+			m0 = Math.max(m0, array[i]);
+		}
+		return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+	}
+
+	static long countBetween(final int[] array, final int length, final int min, final int max) {
+		long count = 0;
+		for (int i = 0; i < length; ++i) {
+			final int value = array[i];
+			count += (value >= min & value < max) ? 1 : 0;
+		}
+		return count;
+	}
+
+	static long dot(final int[] a, final int[] b, final int length) {
+		long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			s0 += (long) a[i] * b[i];
+			s1 += (long) a[i + 1] * b[i + 1];
+			s2 += (long) a[i + 2] * b[i + 2];
+			s3 += (long) a[i + 3] * b[i + 3];
+		}
+		for (; i < length; ++i) {
+			s0 += (long) a[i] * b[i];
+		}
+		return s0 + s1 + s2 + s3;
+	}
+
+	/*
+	 * long
+	 */
+
+	static long sum(final long[] array, final int length) {
+		long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			s0 += array[i];
+			s1 += array[i + 1];
+			s2 += array[i + 2];
+			s3 += array[i + 3];
+		}
+		for (; i < length; ++i) {
+			s0 += array[i];
+		}
+		return s0 + s1 + s2 + s3;
+	}
+
+	static long min(final long[] array, final int length) {
+		long m0 = Long.MAX_VALUE, m1 = m0, m2 = m0, m3 = m0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			m0 = Math.min(m0, array[i]);
+			m1 = Math.min(m1, array[i + 1]);
+			m2 = Math.min(m2, array[i + 2]);
+			m3 = Math.min(m3, array[i + 3]);
+		}
+		for (; i < length; ++i) {
+			m0 = Math.min(m0, array[i]);
+		}
+		return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+	}
+
+	static long max(final long[] array, final int length) {
+		long m0 = Long.MIN_VALUE, m1 = m0, m2 = m0, m3 = m0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			m0 = Math.max(m0, array[i]);
+			m1 = Math.max(m1, array[i + 1]);
+			m2 = Math.max(m2, array[i + 2]);
+			m3 = Math.max(m3, array[i + 3]);
+		}
+		for (; i < length; ++i) {
+			m0 = Math.max(m0, array[i]);
+		}
+		return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+	}
+
+	static long countBetween(final long[] array, final int length, final long min, final long max) {
+		long count = 0;
+		for (int i = 0; i < length; ++i) {
+			final long value = array[i];
+			count += (value >= min & value < max) ? 1 : 0;
+		}
+		return count;
+	}
+
+	static long dot(final long[] a, final long[] b, final int length) {
+		long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			s0 += a[i] * b[i];
+			s1 += a[i + 1] * b[i + 1];
+			s2 += a[i + 2] * b[i + 2];
+			s3 += a[i + 3] * b[i + 3];
+		}
+		for (; i < length; ++i) {
+			s0 += a[i] * b[i];
+		}
+		return s0 + s1 + s2 + s3;
+	}
+
+	/*
+	 * float
+	 */
+
+	static float sum(final float[] array, final int length) {
+		float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			s0 += array[i];
+			s1 += array[i + 1];
+			s2 += array[i + 2];
+			s3 += array[i + 3];
+		}
+		for (; i < length; ++i) {
+			s0 += array[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	static float min(final float[] array, final int length) {
+		float m0 = Float.POSITIVE_INFINITY, m1 = m0, m2 = m0, m3 = m0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			m0 = Math.min(m0, array[i]);
+			m1 = Math.min(m1, array[i + 1]);
+			m2 = Math.min(m2, array[i + 2]);
+			m3 = Math.min(m3, array[i + 3]);
+		}
+		for (; i < length; ++i) {
+			m0 = Math.min(m0, array[i]);
+		}
+		return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+	}
+
+	static float max(final float[] array, final int length) {
+		float m0 = Float.NEGATIVE_INFINITY, m1 = m0, m2 = m0, m3 = m0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			m0 = Math.max(m0, array[i]);
+			m1 = Math.max(m1, array[i + 1]);
+			m2 = Math.max(m2, array[i + 2]);
+			m3 = Math.max(m3, array[i + 3]);
+		}
+		for (; i < length; ++i) {
+			m0 = Math.max(m0, array[i]);
+		}
+		return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+	}
+
+	/*
+	 * double
+	 */
+
+	static double sum(final double[] array, final int length) {
+		double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			s0 += array[i];
+			s1 += array[i + 1];
+			s2 += array[i + 2];
+			s3 += array[i + 3];
+		}
+		for (; i < length; ++i) {
+			s0 += array[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	static double min(final double[] array, final int length) {
+		double m0 = Double.POSITIVE_INFINITY, m1 = m0, m2 = m0, m3 = m0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			m0 = Math.min(m0, array[i]);
+			m1 = Math.min(m1, array[i + 1]);
+			m2 = Math.min(m2, array[i + 2]);
+			m3 = Math.min(m3, array[i + 3]);
+		}
+		for (; i < length; ++i) {
+			m0 = Math.min(m0, array[i]);
+		}
+		return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+	}
+
+	static double max(final double[] array, final int length) {
+		double m0 = Double.NEGATIVE_INFINITY, m1 = m0, m2 = m0, m3 = m0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			m0 = Math.max(m0, array[i]);
+			m1 = Math.max(m1, array[i + 1]);
+			m2 = Math.max(m2, array[i + 2]);
+			m3 = Math.max(m3, array[i + 3]);
+		}
+		for (; i < length; ++i) {
+			m0 = Math.max(m0, array[i]);
+		}
+		return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+	}
+
+	static long countBetween(final double[] array, final int length, final double min, final double max) {
+		long count = 0;
+		for (int i = 0; i < length; ++i) {
+			final double value = array[i];
+			count += (value >= min & value < max) ? 1 : 0;
+		}
+		return count;
+	}
+
+	static double dot(final double[] a, final double[] b, final int length) {
+		double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			s0 += a[i] * b[i];
+			s1 += a[i + 1] * b[i + 1];
+			s2 += a[i + 2] * b[i + 2];
+			s3 += a[i + 3] * b[i + 3];
+		}
+		for (; i < length; ++i) {
+			s0 += a[i] * b[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+}
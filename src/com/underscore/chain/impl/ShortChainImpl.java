@@ -1,5 +1,7 @@
 package com.underscore.chain.impl;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
@@ -8,6 +10,8 @@ import java.util.function.Predicate;
 
 import com.underscore._;
 import com.underscore.chain.ArrayChain;
+import com.underscore.chain.MapChain;
+import com.underscore.chain.ObjectIntMap;
 
 public class ShortChainImpl implements ArrayChain<Short> {
 
@@ -32,6 +36,11 @@ public class ShortChainImpl implements ArrayChain<Short> {
 	public long count() {
 		return array.length;
 	}
+	
+	@Override
+	public <K> ObjectIntMap<K> countBy(final Function<? super Short, ? extends K> iterator) {
+		return _.countBy(array, iterator);
+	}
 
 	@Override
 	public ArrayChain<Short> each(Consumer<Short> iterator) {
@@ -50,11 +59,31 @@ public class ShortChainImpl implements ArrayChain<Short> {
 		return _.find(array, predicate);
 	}
 
+	@Override
+	public <K> MapChain<K, List<Short>> groupBy(final Function<? super Short, ? extends K> iterator) {
+		return new MapChainImpl<>(_.groupBy(array, iterator));
+	}
+
+	@Override
+	public <K> MapChain<K, Short> indexBy(final Function<? super Short, ? extends K> iterator) {
+		return new MapChainImpl<>(_.indexBy(array, iterator));
+	}
+
 	@Override
 	public String join(String delimiter) {
 		return _.join(array, delimiter);
 	}
 
+	@Override
+	public <A extends Appendable> A join(String delimiter, A out) throws IOException {
+		return _.join(array, delimiter, out);
+	}
+
+	@Override
+	public ArrayChain<Short> lazy() {
+		return new LazyArrayChainImpl<>(array, (a, b) -> (short) (a + b), (short) 0);
+	}
+
 	@Override
 	public ArrayChain<Short> map(Function<Short, Short> iterator) {
 		array = _.map(array, iterator);
@@ -106,13 +135,13 @@ public class ShortChainImpl implements ArrayChain<Short> {
 
 	@Override
 	public ArrayChain<Short> unique() {
-		// TODO Auto-generated method stub
-		return null;
+		array = _.unique(array);
+		return this;
 	}
 
 	@Override
 	public ArrayChain<Short> without(Short... values) {
-		// TODO Auto-generated method stub
-		return null;
+		array = _.without(array, values);
+		return this;
 	}
 }
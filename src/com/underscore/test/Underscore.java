@@ -1,11 +1,8 @@
 package com.underscore.test;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.function.BiFunction;
-import java.util.function.BinaryOperator;
 
 import com.underscore._;
 
@@ -30,17 +27,10 @@ public class Underscore {
 		lyrics.add(new Lyric(3, "He's a lumberjack and he's okay"));
 		lyrics.add(new Lyric(4, "He sleeps all night and he works all day"));
 		
-		String val = _.chain(lyrics).map((line) -> line.words.split(" "))
-				.reduce((words, count) -> {
-					_.each(words, (word) -> {
-						if (!count.containsKey(word)) {
-							count.put(word, 1);
-						} else {
-							count.put(word, count.get(word) + 1);
-						}
-					});
-					return count;
-				}, new HashMap<String, Integer>()).toString();
+		List<String> words = new ArrayList<String>();
+		_.each(lyrics, (lyric) -> Collections.addAll(words, lyric.words.split(" ")));
+		
+		String val = _.chain(words).countBy(_.identity()).toString();
 		System.out.println(val);
 	}
 }